@@ -0,0 +1,210 @@
+package com.example.booking_service.config;
+
+import com.example.booking_service.service.BookingConcurrencyStrategy;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for booking write behaviour.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "app.booking")
+@Data
+public class BookingProperties {
+
+    /**
+     * Conflict-control step used by createBooking.
+     * INSERT_FIRST requires the ex_bookings_no_overlap exclusion constraint (V12).
+     */
+    private BookingConcurrencyStrategy concurrencyStrategy = BookingConcurrencyStrategy.PESSIMISTIC_LOCK;
+
+    /**
+     * Maximum attempts for a booking transaction under the SERIALIZABLE strategy.
+     */
+    private int serializableMaxAttempts = 3;
+
+    /**
+     * Backoff before the first SERIALIZABLE retry; doubled per retry and randomized (full jitter).
+     */
+    private Duration serializableBackoffBase = Duration.ofMillis(10);
+
+    /**
+     * Upper bound of the SERIALIZABLE retry backoff.
+     */
+    private Duration serializableBackoffMax = Duration.ofMillis(200);
+
+    /**
+     * Retries earned per SERIALIZABLE transaction; 0.2 allows about one retry per five transactions.
+     */
+    private double serializableRetryBudgetRatio = 0.2;
+
+    /**
+     * Maximum retries that can be saved up in the SERIALIZABLE retry budget.
+     */
+    private int serializableRetryBudgetMax = 50;
+
+    /**
+     * Maximum time a booking transaction waits for a database lock before failing with 503 (0 waits indefinitely).
+     */
+    private Duration lockTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Cron of the job that rolls the SLOT_INVENTORY horizon forward.
+     */
+    private String slotInventoryCron = "0 15 0 * * *";
+
+    /**
+     * Queue booking writes on an in-JVM lock per (doctorId, bookingDate) before opening a transaction.
+     */
+    private boolean stripeLockEnabled = true;
+
+    /**
+     * Number of lock stripes (rounded down to a power of two).
+     */
+    private int stripeCount = 256;
+
+    /**
+     * Maximum time a booking waits for its stripe before being rejected with 503.
+     */
+    private Duration stripeWaitTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Worker threads draining the per-doctor mailboxes of the SINGLE_WRITER strategy.
+     */
+    private int singleWriterThreads = 8;
+
+    /**
+     * Maximum queued writes per doctor mailbox before new writes are rejected with 503.
+     */
+    private int singleWriterQueueCapacity = 200;
+
+    /**
+     * Maximum time a write may wait in a mailbox before it is withdrawn and rejected with 503.
+     */
+    private Duration singleWriterTimeout = Duration.ofSeconds(5);
+
+    /**
+     * How long a mailbox trusts its in-memory occupancy of a day before re-reading it.
+     */
+    private Duration singleWriterOccupancyTtl = Duration.ofSeconds(30);
+
+    /**
+     * Maximum asynchronous bookings waiting for a group commit before new ones are rejected with 503.
+     */
+    private int intakeQueueCapacity = 10_000;
+
+    /**
+     * Maximum bookings written in one group commit.
+     */
+    private int intakeMaxBatchSize = 100;
+
+    /**
+     * How long the intake queue waits for more bookings after the first one before committing.
+     */
+    private Duration intakeFlushInterval = Duration.ofMillis(5);
+
+    /**
+     * How long the outcome of an asynchronous booking ticket can be polled.
+     */
+    private Duration intakeTicketRetention = Duration.ofMinutes(10);
+
+    /**
+     * How long a slot hold reserves a slot for its holder.
+     */
+    private Duration holdTtl = Duration.ofMinutes(5);
+
+    /**
+     * Slots one user may hold at the same time.
+     */
+    private int holdMaxPerUser = 3;
+
+    /**
+     * Slot holds kept on one instance; beyond it the least recently used holds are dropped.
+     */
+    private long holdMaxActive = 100_000;
+
+    /**
+     * Maximum Idempotency-Key entries kept in memory; older keys are still found in the database.
+     */
+    private long idempotencyCacheMaxSize = 10_000;
+
+    /**
+     * How long an Idempotency-Key stays in the in-memory cache.
+     */
+    private Duration idempotencyCacheTtl = Duration.ofHours(24);
+
+    /**
+     * Maximum (doctor, date) entries kept in the availability cache.
+     */
+    private long availabilityCacheMaxSize = 10_000;
+
+    /**
+     * How long a cached day of availability is served before it is reloaded.
+     */
+    private Duration availabilityCacheTtl = Duration.ofSeconds(60);
+
+    /**
+     * Keep an in-memory occupancy bitmap of every doctor over the booking horizon.
+     */
+    private boolean occupancyIndexEnabled = true;
+
+    /**
+     * Whether this is the only instance writing bookings; the occupancy index is used only then.
+     */
+    private boolean occupancyIndexSingleInstance = false;
+
+    /**
+     * How often the occupancy index is rebuilt from the database.
+     */
+    private Duration occupancyIndexRefresh = Duration.ofMinutes(1);
+
+    /**
+     * How long an availability stream stays open before the client has to reconnect.
+     */
+    private Duration availabilityStreamTimeout = Duration.ofMinutes(30);
+
+    /**
+     * Changes buffered per availability stream; a client further behind is disconnected.
+     */
+    private int availabilityStreamBuffer = 64;
+
+    /**
+     * Threads writing availability changes to open streams.
+     */
+    private int availabilityStreamThreads = 4;
+
+    /**
+     * Maximum open availability streams per doctor on one instance.
+     */
+    private int availabilityStreamMaxPerDoctor = 200;
+
+    /**
+     * Maximum open availability streams on one instance.
+     */
+    private long availabilityStreamMaxTotal = 2_000;
+
+    /**
+     * Memory the next-available indexes of all doctors may take together.
+     */
+    private DataSize nextAvailableMaxMemory = DataSize.ofMegabytes(32);
+
+    /**
+     * How long a doctor's next-available index is used before it is rebuilt.
+     */
+    private Duration nextAvailableRefresh = Duration.ofMinutes(5);
+
+    /**
+     * Whether the doctor_day_availability read model is maintained and read (PostgreSQL only).
+     */
+    private boolean dayAvailabilityEnabled = false;
+
+    /**
+     * Cron of the job that drops past days and generates new days of the read model.
+     */
+    private String dayAvailabilityCron = "0 20 0 * * *";
+}
@@ -0,0 +1,49 @@
+package com.example.booking_service.controller;
+
+import com.example.booking_service.dto.ApiResponse;
+import com.example.booking_service.dto.FirstAvailableSlotDto;
+import com.example.booking_service.service.AvailabilitySearchService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Controller for availability searches across doctors.
+ */
+@RestController
+@RequestMapping("/api/availability")
+@RequiredArgsConstructor
+@Tag(name = "Availability", description = "Availability search across doctors")
+public class AvailabilityController {
+
+    private final AvailabilitySearchService availabilitySearchService;
+
+    /**
+     * Find the earliest free slots across all doctors matching the filters.
+     */
+    @GetMapping("/first")
+    @Operation(summary = "Find First Available Slots",
+            description = "Retrieve the earliest free slots of any active doctor matching the clinic and specialization filters.")
+    public ResponseEntity<ApiResponse<List<FirstAvailableSlotDto>>> findFirstAvailable(
+            @Parameter(description = "Clinic ID (optional)") @RequestParam(required = false) UUID clinicId,
+            @Parameter(description = "Specialization, partial match (optional)") @RequestParam(required = false) String specialization,
+            @Parameter(description = "First date to search (default today)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Maximum number of slots (max 50)") @RequestParam(defaultValue = "10") int limit
+    ) {
+        List<FirstAvailableSlotDto> slots =
+                availabilitySearchService.findFirstAvailable(clinicId, specialization, from, limit);
+        return ResponseEntity.ok(ApiResponse.success(slots));
+    }
+}
@@ -2,6 +2,7 @@ package com.example.booking_service.controller;
 
 import com.example.booking_service.dto.*;
 import com.example.booking_service.entity.User;
+import com.example.booking_service.service.BookingIntakeQueue;
 import com.example.booking_service.service.BookingService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,8 +21,11 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for booking operations with pagination support.
@@ -33,23 +38,126 @@ import java.util.UUID;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final BookingIntakeQueue bookingIntakeQueue;
 
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_TICKET_WAIT_SECONDS = 30;
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
 
     /**
      * Create a new booking.
      */
     @PostMapping
     @PreAuthorize("hasAnyRole('PATIENT', 'STAFF', 'ADMIN')")
-    @Operation(summary = "Create Booking", description = "Create a new appointment booking.")
+    @Operation(summary = "Create Booking", description = "Create a new appointment booking. " +
+            "Retries carrying the same Idempotency-Key return the booking created by the first request.")
     public ResponseEntity<ApiResponse<BookingResponse>> createBooking(
             @Valid @RequestBody CreateBookingRequest request,
+            @Parameter(description = "Client-chosen key (max 64 characters) that makes retries safe")
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal User user
     ) {
-        BookingResponse response = bookingService.createBooking(request, user.getId());
+        BookingResponse response = bookingService.createBooking(request, user.getId(), idempotencyKey);
         return ResponseEntity.ok(ApiResponse.success("Booking created successfully", response));
     }
 
+    /**
+     * Book several slots for the current user in one transaction.
+     * An ALL_OR_NOTHING batch that books nothing is answered with 409 and the per-item results.
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasAnyRole('PATIENT', 'STAFF', 'ADMIN')")
+    @Operation(summary = "Create Bookings (Batch)", description = "Book up to 20 slots at once, " +
+            "either all-or-nothing or best-effort.")
+    public ResponseEntity<ApiResponse<BatchBookingResponse>> createBookingBatch(
+            @Valid @RequestBody BatchBookingRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        BatchBookingResponse response = bookingService.createBookingBatch(request, user.getId());
+        return batchResult("Batch processed", response);
+    }
+
+    /**
+     * Book a weekly or biweekly series for the current user.
+     * Each occurrence is reported as created or rejected.
+     */
+    @PostMapping("/series")
+    @PreAuthorize("hasAnyRole('PATIENT', 'STAFF', 'ADMIN')")
+    @Operation(summary = "Create Booking Series", description = "Book a recurring weekly or biweekly series " +
+            "(up to 20 occurrences) in one request.")
+    public ResponseEntity<ApiResponse<BatchBookingResponse>> createBookingSeries(
+            @Valid @RequestBody CreateBookingSeriesRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        BatchBookingResponse response = bookingService.createBookingSeries(request, user.getId());
+        return batchResult("Series processed", response);
+    }
+
+    /**
+     * Create a new booking asynchronously.
+     * The request is queued for the next group commit and a ticket is returned right away.
+     */
+    @PostMapping("/async")
+    @PreAuthorize("hasAnyRole('PATIENT', 'STAFF', 'ADMIN')")
+    @Operation(summary = "Create Booking (Async)", description = "Queue a booking and return a ticket to poll for the outcome.")
+    public ResponseEntity<ApiResponse<BookingTicketResponse>> createBookingAsync(
+            @Valid @RequestBody CreateBookingRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        BookingTicketResponse ticket = bookingIntakeQueue.submit(request, user.getId());
+        return ResponseEntity
+                .status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/bookings/tickets/" + ticket.getTicketId()))
+                .body(ApiResponse.success("Booking accepted", ticket));
+    }
+
+    /**
+     * Get the outcome of an asynchronous booking.
+     * With {@code waitSeconds} the response is held until the ticket completes or the wait elapses.
+     */
+    @GetMapping("/tickets/{ticketId}")
+    @PreAuthorize("hasAnyRole('PATIENT', 'STAFF', 'ADMIN')")
+    @Operation(summary = "Get Booking Ticket", description = "Poll the outcome of an asynchronous booking.")
+    public CompletableFuture<ResponseEntity<ApiResponse<BookingTicketResponse>>> getBookingTicket(
+            @PathVariable UUID ticketId,
+            @Parameter(description = "Seconds to wait for the outcome (max 30)") @RequestParam(defaultValue = "0") int waitSeconds,
+            @AuthenticationPrincipal User user
+    ) {
+        Duration wait = Duration.ofSeconds(Math.min(Math.max(waitSeconds, 0), MAX_TICKET_WAIT_SECONDS));
+        return bookingIntakeQueue.getTicket(ticketId, user.getId(), wait)
+                .thenApply(ticket -> ResponseEntity.ok(ApiResponse.success(ticket)));
+    }
+
+    /**
+     * Hold a slot while the booking form is completed.
+     */
+    @PostMapping("/holds")
+    @PreAuthorize("hasAnyRole('PATIENT', 'STAFF', 'ADMIN')")
+    @Operation(summary = "Hold Slot", description = "Reserve a slot for a few minutes before booking it.")
+    public ResponseEntity<ApiResponse<SlotHoldResponse>> holdSlot(
+            @Valid @RequestBody CreateBookingRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        SlotHoldResponse response = bookingService.holdSlot(request, user.getId());
+        return ResponseEntity
+                .status(HttpStatus.CREATED)
+                .body(ApiResponse.success("Slot held", response));
+    }
+
+    /**
+     * Release a slot hold.
+     */
+    @DeleteMapping("/holds/{holdId}")
+    @PreAuthorize("hasAnyRole('PATIENT', 'STAFF', 'ADMIN')")
+    @Operation(summary = "Release Slot Hold", description = "Release a slot hold before it expires.")
+    public ResponseEntity<ApiResponse<Void>> releaseHold(
+            @PathVariable UUID holdId,
+            @AuthenticationPrincipal User user
+    ) {
+        bookingService.releaseHold(holdId, user.getId());
+        return ResponseEntity.ok(ApiResponse.success("Slot hold released", null));
+    }
+
     /**
      * Get current user's bookings (patient only) with pagination.
      */
@@ -122,6 +230,21 @@ public class BookingController {
         return ResponseEntity.ok(ApiResponse.success("Booking cancelled", response));
     }
 
+    /**
+     * Move a booking to another slot of the same doctor in one transaction.
+     */
+    @PutMapping("/{bookingId}/reschedule")
+    @PreAuthorize("hasAnyRole('PATIENT', 'STAFF', 'ADMIN')")
+    @Operation(summary = "Reschedule Booking", description = "Move a booking to another slot of the same doctor atomically.")
+    public ResponseEntity<ApiResponse<BookingResponse>> rescheduleBooking(
+            @PathVariable UUID bookingId,
+            @Valid @RequestBody RescheduleBookingRequest request,
+            @AuthenticationPrincipal User user
+    ) {
+        BookingResponse response = bookingService.rescheduleBooking(bookingId, request, user.getId());
+        return ResponseEntity.ok(ApiResponse.success("Booking rescheduled", response));
+    }
+
     /**
      * Confirm a booking (staff/admin only).
      */
@@ -133,6 +256,23 @@ public class BookingController {
         return ResponseEntity.ok(ApiResponse.success("Booking confirmed", response));
     }
 
+    /**
+     * 409 with the per-item results when an all-or-nothing request booked nothing.
+     */
+    private ResponseEntity<ApiResponse<BatchBookingResponse>> batchResult(String message, BatchBookingResponse response) {
+        if (response.getMode() == BatchBookingRequest.Mode.ALL_OR_NOTHING && response.getRejectedCount() > 0) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.<BatchBookingResponse>builder()
+                            .success(false)
+                            .error("No booking was created because at least one slot could not be booked")
+                            .code("BATCH_REJECTED")
+                            .data(response)
+                            .build());
+        }
+        return ResponseEntity.ok(ApiResponse.success(message, response));
+    }
+
     /**
      * Create pageable with size limit and sorting.
      */
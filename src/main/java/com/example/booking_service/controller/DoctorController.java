@@ -2,26 +2,37 @@ package com.example.booking_service.controller;
 
 import com.example.booking_service.dto.ApiResponse;
 import com.example.booking_service.dto.AvailableSlotDto;
+import com.example.booking_service.dto.BitmaskAvailabilityResponse;
+import com.example.booking_service.dto.DoctorAvailabilityResponse;
 import com.example.booking_service.dto.DoctorResponse;
+import com.example.booking_service.dto.NextAvailableSlotDto;
 import com.example.booking_service.dto.PagedResponse;
 import com.example.booking_service.entity.Doctor;
 import com.example.booking_service.exception.ResourceNotFoundException;
 import com.example.booking_service.repository.DoctorRepository;
+import com.example.booking_service.service.AvailabilityStreams;
 import com.example.booking_service.service.BookingService;
+import com.example.booking_service.service.NextAvailableIndex;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -36,7 +47,10 @@ public class DoctorController {
 
     private final DoctorRepository doctorRepository;
     private final BookingService bookingService;
+    private final AvailabilityStreams availabilityStreams;
+    private final NextAvailableIndex nextAvailableIndex;
     private static final int MAX_PAGE_SIZE = 100;
+    static final String BITMASK_MEDIA_TYPE = "application/vnd.booking.availability-bitmask+json";
 
     /**
      * Get all active doctors with pagination.
@@ -50,8 +64,9 @@ public class DoctorController {
             @Parameter(description = "Sort direction (asc/desc)") @RequestParam(defaultValue = "asc") String sortDir
     ) {
         Pageable pageable = createPageable(page, size, sortBy, sortDir);
-        Page<DoctorResponse> doctors = doctorRepository.findByIsActiveTrue(pageable)
-                .map(this::mapToResponse);
+        Page<Doctor> doctorPage = doctorRepository.findByIsActiveTrue(pageable);
+        Map<UUID, NextAvailableSlotDto> nextAvailable = findNextAvailable(doctorPage.getContent());
+        Page<DoctorResponse> doctors = doctorPage.map(doctor -> mapToResponse(doctor, nextAvailable));
         return ResponseEntity.ok(ApiResponse.success(PagedResponse.from(doctors, "/api/doctors")));
     }
 
@@ -63,7 +78,7 @@ public class DoctorController {
     public ResponseEntity<ApiResponse<DoctorResponse>> getDoctor(@PathVariable UUID id) {
         Doctor doctor = doctorRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Doctor", "id", id));
-        return ResponseEntity.ok(ApiResponse.success(mapToResponse(doctor)));
+        return ResponseEntity.ok(ApiResponse.success(mapToResponse(doctor, findNextAvailable(List.of(doctor)))));
     }
 
     /**
@@ -72,24 +87,106 @@ public class DoctorController {
     @GetMapping("/clinic/{clinicId}")
     @Operation(summary = "Get Doctors by Clinic", description = "Retrieve all doctors belonging to a specific clinic.")
     public ResponseEntity<ApiResponse<List<DoctorResponse>>> getDoctorsByClinic(@PathVariable UUID clinicId) {
-        List<DoctorResponse> doctors = doctorRepository.findByClinicIdAndIsActiveTrue(clinicId)
-                .stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<DoctorResponse> doctors = mapToResponses(doctorRepository.findByClinicIdAndIsActiveTrue(clinicId));
         return ResponseEntity.ok(ApiResponse.success(doctors));
     }
 
     /**
      * Get available time slots for a doctor on a specific date.
+     * Answers 304 Not Modified when If-None-Match carries the day's current ETag.
      */
     @GetMapping("/{id}/available-slots")
-    @Operation(summary = "Get Available Slots", description = "Retrieve available appointments slots for a doctor on a specific date.")
+    @Operation(summary = "Get Available Slots", description = "Retrieve available appointments slots for a doctor on a specific date. " +
+            "Send the returned ETag in If-None-Match to get 304 Not Modified while the day is unchanged.")
     public ResponseEntity<ApiResponse<List<AvailableSlotDto>>> getAvailableSlots(
             @PathVariable UUID id,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date,
+            WebRequest webRequest
     ) {
+        String etag = bookingService.getAvailableSlotsETag(id, date);
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         List<AvailableSlotDto> slots = bookingService.getAvailableSlots(id, date);
-        return ResponseEntity.ok(ApiResponse.success(slots));
+        return ResponseEntity.ok().eTag(etag).body(ApiResponse.success(slots));
+    }
+
+    /**
+     * Get availability for a doctor over a date range (max 90 days).
+     */
+    @GetMapping("/{id}/availability")
+    @Operation(summary = "Get Availability Range",
+            description = "Retrieve the slots of every day from 'from' to 'to' (inclusive, at most 90 days) in one response.")
+    public ResponseEntity<ApiResponse<DoctorAvailabilityResponse>> getAvailability(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        DoctorAvailabilityResponse availability = bookingService.getAvailability(id, from, to);
+        return ResponseEntity.ok(ApiResponse.success(availability));
+    }
+
+    /**
+     * Get availability for a doctor over a date range as one bitmask per day.
+     * Selected with {@code Accept: application/vnd.booking.availability-bitmask+json}.
+     */
+    @GetMapping(value = "/{id}/availability", produces = BITMASK_MEDIA_TYPE)
+    @Operation(summary = "Get Availability Range (bitmask)",
+            description = "Same as Get Availability Range, but every distinct slot grid is listed once and each day " +
+                    "carries a base64 bitmask of its available slots. Also available with '?format=bitmask'.")
+    public ResponseEntity<ApiResponse<BitmaskAvailabilityResponse>> getAvailabilityBitmask(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        BitmaskAvailabilityResponse availability = bookingService.getAvailabilityBitmask(id, from, to);
+        return ResponseEntity.ok(ApiResponse.success(availability));
+    }
+
+    /**
+     * {@link #getAvailabilityBitmask} for clients that cannot set the Accept header.
+     */
+    @GetMapping(value = "/{id}/availability", params = "format=bitmask")
+    @Operation(hidden = true)
+    public ResponseEntity<ApiResponse<BitmaskAvailabilityResponse>> getAvailabilityBitmaskByParam(
+            @PathVariable UUID id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        return getAvailabilityBitmask(id, from, to);
+    }
+
+    /**
+     * Get a doctor's next free slot.
+     */
+    @GetMapping("/{id}/next-available")
+    @Operation(summary = "Get Next Available Slot",
+            description = "Retrieve the doctor's earliest free slot starting on or after 'after' (default now) " +
+                    "within the booking horizon. Data is null when there is none.")
+    public ResponseEntity<ApiResponse<NextAvailableSlotDto>> getNextAvailable(
+            @PathVariable UUID id,
+            @Parameter(description = "Earliest slot start, ISO date-time")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime after
+    ) {
+        NextAvailableSlotDto slot = nextAvailableIndex.findNextAvailable(id, after);
+        if (slot == null) {
+            return ResponseEntity.ok(ApiResponse.success("No free slot within the booking horizon", null));
+        }
+        return ResponseEntity.ok(ApiResponse.success(slot));
+    }
+
+    /**
+     * Stream a doctor's slot changes as Server-Sent Events.
+     */
+    @GetMapping(value = "/{id}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream Availability Changes",
+            description = "Server-Sent Events 'slot-taken' and 'slot-freed' for the doctor's slots as bookings are committed. " +
+                    "Clients that fall too far behind are disconnected and should reconnect and re-read the day.")
+    public SseEmitter streamAvailability(@PathVariable UUID id) {
+        if (!doctorRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Doctor", "id", id);
+        }
+        return availabilityStreams.subscribe(id);
     }
 
     /**
@@ -110,13 +207,25 @@ public class DoctorController {
             doctors = doctorRepository.findByIsActiveTrue();
         }
         
-        List<DoctorResponse> response = doctors.stream()
-                .map(this::mapToResponse)
-                .collect(Collectors.toList());
+        List<DoctorResponse> response = mapToResponses(doctors);
         return ResponseEntity.ok(ApiResponse.success(response));
     }
 
-    private DoctorResponse mapToResponse(Doctor doctor) {
+    private List<DoctorResponse> mapToResponses(List<Doctor> doctors) {
+        Map<UUID, NextAvailableSlotDto> nextAvailable = findNextAvailable(doctors);
+        return doctors.stream()
+                .map(doctor -> mapToResponse(doctor, nextAvailable))
+                .collect(Collectors.toList());
+    }
+
+    private Map<UUID, NextAvailableSlotDto> findNextAvailable(List<Doctor> doctors) {
+        if (doctors.isEmpty()) {
+            return Map.of();
+        }
+        return nextAvailableIndex.findNextAvailable(doctors.stream().map(Doctor::getId).toList(), null);
+    }
+
+    private DoctorResponse mapToResponse(Doctor doctor, Map<UUID, NextAvailableSlotDto> nextAvailable) {
         return DoctorResponse.builder()
                 .id(doctor.getId())
                 .name(doctor.getName())
@@ -125,6 +234,7 @@ public class DoctorController {
                 .isActive(doctor.getIsActive())
                 .clinicId(doctor.getClinic().getId())
                 .clinicName(doctor.getClinic().getName())
+                .nextAvailableSlot(nextAvailable.get(doctor.getId()))
                 .build();
     }
 
@@ -0,0 +1,41 @@
+package com.example.booking_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for booking several slots in one call.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchBookingRequest {
+
+    public static final int MAX_BOOKINGS = 20;
+
+    public enum Mode {
+        ALL_OR_NOTHING,
+        BEST_EFFORT
+    }
+
+    @NotEmpty(message = "At least one booking is required")
+    @Size(max = MAX_BOOKINGS, message = "At most " + MAX_BOOKINGS + " bookings per batch")
+    @Valid
+    private List<CreateBookingRequest> bookings;
+
+    @NotNull(message = "Mode is required")
+    @Builder.Default
+    @Schema(description = "ALL_OR_NOTHING books every slot or none; BEST_EFFORT books what it can",
+            example = "ALL_OR_NOTHING")
+    private Mode mode = Mode.ALL_OR_NOTHING;
+}
@@ -0,0 +1,25 @@
+package com.example.booking_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response DTO for a batch booking request.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchBookingResponse {
+
+    private BatchBookingRequest.Mode mode;
+    private int createdCount;
+    private int rejectedCount;
+
+    // One result per requested booking, in request order
+    private List<BookingItemResult> results;
+}
@@ -0,0 +1,29 @@
+package com.example.booking_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compact form of {@link DoctorAvailabilityResponse}: every distinct slot grid is listed
+ * once and each day carries a bitmask of its available slots.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BitmaskAvailabilityResponse {
+
+    private UUID doctorId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<SlotGridDto> grids;
+
+    // One entry per day from 'from' to 'to', inclusive
+    private List<DayBitmaskDto> days;
+}
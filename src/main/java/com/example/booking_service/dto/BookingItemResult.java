@@ -0,0 +1,42 @@
+package com.example.booking_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Response DTO for one booking of a multi-booking request.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingItemResult {
+
+    public enum Status {
+        CREATED,
+        REJECTED,
+        ABORTED
+    }
+
+    // Position of the booking in the request
+    private int index;
+    private Status status;
+
+    // Requested slot, so rejected items can be matched without the request
+    private LocalDate bookingDate;
+    private LocalTime slotStartTime;
+
+    // Set when CREATED
+    private BookingResponse booking;
+
+    // Set when REJECTED or ABORTED
+    private String error;
+    private String code;
+}
@@ -0,0 +1,40 @@
+package com.example.booking_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for an asynchronous booking ticket.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookingTicketResponse {
+
+    public enum Status {
+        PENDING,
+        CREATED,
+        REJECTED
+    }
+
+    private UUID ticketId;
+    private Status status;
+
+    // Set once the ticket is CREATED
+    private BookingResponse booking;
+
+    // Set once the ticket is REJECTED
+    private String error;
+    private String code;
+
+    private OffsetDateTime submittedAt;
+    private OffsetDateTime completedAt;
+}
@@ -0,0 +1,62 @@
+package com.example.booking_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Request DTO for creating a recurring booking series.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CreateBookingSeriesRequest {
+
+    public enum Frequency {
+        WEEKLY,
+        BIWEEKLY
+    }
+
+    @NotNull(message = "Doctor ID is required")
+    @Schema(description = "Doctor UUID", example = "64446175-d541-4cc3-852f-2f3b4b4e7c2a")
+    private UUID doctorId;
+
+    @NotNull(message = "Start date is required")
+    @FutureOrPresent(message = "Start date cannot be in the past")
+    @Schema(description = "Date of the first occurrence (YYYY-MM-DD)", example = "2026-01-23", type = "string", format = "date")
+    private LocalDate startDate;
+
+    @NotNull(message = "Slot start time is required")
+    @Schema(description = "Slot start time of every occurrence (HH:mm)", example = "09:00", type = "string", format = "time")
+    private LocalTime slotStartTime;
+
+    @NotNull(message = "Frequency is required")
+    @Schema(description = "WEEKLY or BIWEEKLY", example = "WEEKLY")
+    private Frequency frequency;
+
+    @NotNull(message = "Occurrences is required")
+    @Min(value = 2, message = "A series has at least 2 occurrences")
+    @Max(value = BatchBookingRequest.MAX_BOOKINGS, message = "A series has at most " + BatchBookingRequest.MAX_BOOKINGS + " occurrences")
+    @Schema(description = "Number of appointments in the series", example = "12")
+    private Integer occurrences;
+
+    @NotNull(message = "Mode is required")
+    @Builder.Default
+    @Schema(description = "BEST_EFFORT books the free occurrences; ALL_OR_NOTHING books every occurrence or none",
+            example = "BEST_EFFORT")
+    private BatchBookingRequest.Mode mode = BatchBookingRequest.Mode.BEST_EFFORT;
+
+    @Schema(description = "Optional notes for every booking in the series", example = "Physiotherapy")
+    private String notes;
+}
@@ -0,0 +1,24 @@
+package com.example.booking_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Slots of one day in a multi-day availability response.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DayAvailabilityDto {
+
+    private LocalDate date;
+
+    // Empty when the doctor has no schedule on this day
+    private List<AvailableSlotDto> slots;
+}
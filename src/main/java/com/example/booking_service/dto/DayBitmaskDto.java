@@ -0,0 +1,30 @@
+package com.example.booking_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Availability of one day as a bitmask over the day's slot grids.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DayBitmaskDto {
+
+    private LocalDate date;
+
+    // Indexes into the response's grids, in slot order; empty when the doctor has no schedule on this day
+    @Schema(description = "Indexes of the day's grids in the response's grid list")
+    private List<Integer> grids;
+
+    @Schema(description = "Base64 bitmask over the slots of the day's grids in order, bit i = byte i/8, "
+            + "bit i%8 (least significant first); a set bit means available", example = "Pg==")
+    private String available;
+}
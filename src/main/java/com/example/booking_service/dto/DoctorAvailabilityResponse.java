@@ -0,0 +1,27 @@
+package com.example.booking_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Response DTO for a doctor's availability over a date range.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DoctorAvailabilityResponse {
+
+    private UUID doctorId;
+    private LocalDate from;
+    private LocalDate to;
+
+    // One entry per day from 'from' to 'to', inclusive
+    private List<DayAvailabilityDto> days;
+}
@@ -25,4 +25,7 @@ public class DoctorResponse {
     private boolean isActive;
     private UUID clinicId;
     private String clinicName;
+
+    // Earliest free slot within the booking horizon; omitted when there is none
+    private NextAvailableSlotDto nextAvailableSlot;
 }
@@ -0,0 +1,28 @@
+package com.example.booking_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * A doctor's earliest free slot.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class NextAvailableSlotDto {
+
+    private LocalDate date;
+
+    @Schema(description = "Slot start time", example = "09:00:00", type = "string", format = "time")
+    private LocalTime startTime;
+
+    @Schema(description = "Slot end time", example = "09:30:00", type = "string", format = "time")
+    private LocalTime endTime;
+}
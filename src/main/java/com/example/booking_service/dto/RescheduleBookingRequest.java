@@ -0,0 +1,31 @@
+package com.example.booking_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Request DTO for moving a booking to another slot of the same doctor.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class RescheduleBookingRequest {
+
+    @NotNull(message = "Booking date is required")
+    @FutureOrPresent(message = "Booking date cannot be in the past")
+    @Schema(description = "New booking date (YYYY-MM-DD)", example = "2026-01-30", type = "string", format = "date")
+    private LocalDate bookingDate;
+
+    @NotNull(message = "Slot start time is required")
+    @Schema(description = "New slot start time (HH:mm)", example = "10:00", type = "string", format = "time")
+    private LocalTime slotStartTime;
+}
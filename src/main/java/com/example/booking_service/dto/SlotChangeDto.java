@@ -0,0 +1,34 @@
+package com.example.booking_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * A slot that was just taken or freed, pushed on the availability stream.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotChangeDto {
+
+    private UUID doctorId;
+
+    private LocalDate date;
+
+    @Schema(description = "Slot start time", example = "09:00:00", type = "string", format = "time")
+    private LocalTime startTime;
+
+    @Schema(description = "Slot end time", example = "09:30:00", type = "string", format = "time")
+    private LocalTime endTime;
+
+    @Schema(description = "Whether the slot became free (true) or was taken (false)")
+    private boolean available;
+}
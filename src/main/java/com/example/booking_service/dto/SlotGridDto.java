@@ -0,0 +1,28 @@
+package com.example.booking_service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalTime;
+
+/**
+ * A run of equally long, back-to-back slots in a bitmask availability response.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotGridDto {
+
+    @Schema(description = "Start of the first slot", example = "09:00:00", type = "string", format = "time")
+    private LocalTime startTime;
+
+    @Schema(description = "Length of every slot in minutes", example = "30")
+    private int slotMinutes;
+
+    @Schema(description = "Number of slots", example = "6")
+    private int slotCount;
+}
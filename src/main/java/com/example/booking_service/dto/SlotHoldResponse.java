@@ -0,0 +1,39 @@
+package com.example.booking_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for a temporary slot hold.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class SlotHoldResponse {
+
+    private UUID holdId;
+    private UUID doctorId;
+
+    @Schema(description = "Booking date", example = "2026-01-23", type = "string", format = "date")
+    private LocalDate bookingDate;
+
+    @Schema(description = "Slot start time", example = "09:00:00", type = "string", format = "time")
+    private LocalTime slotStartTime;
+
+    @Schema(description = "Slot end time", example = "09:30:00", type = "string", format = "time")
+    private LocalTime slotEndTime;
+
+    @Schema(description = "When the hold lapses unless the slot is booked")
+    private OffsetDateTime expiresAt;
+}
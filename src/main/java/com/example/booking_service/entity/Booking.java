@@ -24,6 +24,16 @@ import java.util.UUID;
 @Builder
 public class Booking {
 
+    /**
+     * Partial unique index on (doctor_id, booking_date, slot_start_time) for active bookings (V6).
+     */
+    public static final String NO_DOUBLE_BOOKING_CONSTRAINT = "uk_bookings_no_double";
+
+    /**
+     * Exclusion constraint rejecting overlapping active bookings for the same doctor and date (V12).
+     */
+    public static final String NO_OVERLAP_CONSTRAINT = "ex_bookings_no_overlap";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -0,0 +1,52 @@
+package com.example.booking_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Read model of one doctor's day: the day's slot grids and a bitmask of free slots.
+ * Maintained by DayAvailabilityReadModel.
+ */
+@Entity
+@Table(name = "doctor_day_availability",
+        uniqueConstraints = @UniqueConstraint(name = "uk_doctor_day_availability_day",
+                columnNames = {"doctor_id", "day_date"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DoctorDayAvailability {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private UUID doctorId;
+
+    @Column(name = "day_date", nullable = false)
+    private LocalDate dayDate;
+
+    // "startMinute/slotMinutes/slotCount" per grid, joined by ';'; empty on days off
+    @Column(nullable = false, length = 500)
+    private String layout;
+
+    @Column(name = "free_mask", nullable = false)
+    private byte[] freeMask;
+
+    @Column(name = "slot_count", nullable = false)
+    private int slotCount;
+
+    @Column(name = "free_count", nullable = false)
+    private int freeCount;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
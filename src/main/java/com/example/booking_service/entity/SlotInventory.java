@@ -0,0 +1,56 @@
+package com.example.booking_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * One bookable slot of a doctor's day, materialized from DoctorSchedule
+ * for the SLOT_INVENTORY booking strategy.
+ */
+@Entity
+@Table(name = "slot_inventory",
+        uniqueConstraints = @UniqueConstraint(name = "uk_slot_inventory_slot",
+                columnNames = {"doctor_id", "slot_date", "slot_start"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SlotInventory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "doctor_id", nullable = false)
+    private UUID doctorId;
+
+    @Column(name = "slot_date", nullable = false)
+    private LocalDate slotDate;
+
+    @Column(name = "slot_start", nullable = false)
+    private LocalTime slotStart;
+
+    @Column(name = "slot_end", nullable = false)
+    private LocalTime slotEnd;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private SlotState state = SlotState.FREE;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+}
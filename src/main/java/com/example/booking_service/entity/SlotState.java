@@ -0,0 +1,9 @@
+package com.example.booking_service.entity;
+
+/**
+ * Enum representing the state of a pre-materialized inventory slot.
+ */
+public enum SlotState {
+    FREE,
+    BOOKED
+}
@@ -0,0 +1,24 @@
+package com.example.booking_service.exception;
+
+/**
+ * Exception thrown when a booking cannot be processed right now because the
+ * slot is contended. The client may retry after {@link #getRetryAfterSeconds()}.
+ */
+public class BookingBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public BookingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public BookingBusyException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, cause);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.booking_service.exception;
+
+/**
+ * Exception thrown when a booking transaction gave up waiting for a database lock
+ * (PostgreSQL lock_timeout). The client may retry after {@link #getRetryAfterSeconds()}.
+ */
+public class BookingLockTimeoutException extends BookingBusyException {
+
+    public BookingLockTimeoutException(String message, long retryAfterSeconds, Throwable cause) {
+        super(message, retryAfterSeconds, cause);
+    }
+}
@@ -1,10 +1,12 @@
 package com.example.booking_service.exception;
 
 import com.example.booking_service.dto.ApiResponse;
+import com.example.booking_service.entity.Booking;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -34,6 +36,32 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(ex.getMessage(), "BOOKING_CONFLICT"));
     }
 
+    @ExceptionHandler(BookingBusyException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBookingBusy(BookingBusyException ex) {
+        log.warn("Booking busy: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage(), "BOOKING_BUSY"));
+    }
+
+    @ExceptionHandler(BookingLockTimeoutException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBookingLockTimeout(BookingLockTimeoutException ex) {
+        log.warn("Booking lock timeout: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage(), "BOOKING_LOCK_TIMEOUT"));
+    }
+
+    @ExceptionHandler(IdempotencyKeyMismatchException.class)
+    public ResponseEntity<ApiResponse<Void>> handleIdempotencyKeyMismatch(IdempotencyKeyMismatchException ex) {
+        log.warn("Idempotency key mismatch: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_ENTITY)
+                .body(ApiResponse.error(ex.getMessage(), "IDEMPOTENCY_KEY_REUSED"));
+    }
+
     @ExceptionHandler(ResourceNotFoundException.class)
     public ResponseEntity<ApiResponse<Void>> handleResourceNotFound(ResourceNotFoundException ex) {
         log.warn("Resource not found: {}", ex.getMessage());
@@ -120,10 +148,11 @@ public class GlobalExceptionHandler {
         String message = ex.getMostSpecificCause().getMessage();
         log.warn("Data integrity violation: {}", message);
         
-        // Check for booking double-booking race condition (unique index violation)
+        // Check for booking double-booking race condition (unique index or exclusion constraint violation)
         // This happens when two concurrent requests pass application checks but 
-        // the database unique index catches the duplicate
-        if (message != null && message.contains("uk_bookings_no_double")) {
+        // the database constraint catches the duplicate or overlap
+        if (message != null && (message.contains(Booking.NO_DOUBLE_BOOKING_CONSTRAINT)
+                || message.contains(Booking.NO_OVERLAP_CONSTRAINT))) {
             log.warn("Double booking race condition caught by database constraint");
             return ResponseEntity
                     .status(HttpStatus.CONFLICT)
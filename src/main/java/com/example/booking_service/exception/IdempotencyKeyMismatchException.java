@@ -0,0 +1,11 @@
+package com.example.booking_service.exception;
+
+/**
+ * Exception thrown when an Idempotency-Key is reused with a different booking request.
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    public IdempotencyKeyMismatchException(String message) {
+        super(message);
+    }
+}
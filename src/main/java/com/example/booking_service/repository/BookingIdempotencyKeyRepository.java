@@ -0,0 +1,23 @@
+package com.example.booking_service.repository;
+
+import com.example.booking_service.entity.BookingIdempotencyKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for BookingIdempotencyKey entity.
+ */
+@Repository
+public interface BookingIdempotencyKeyRepository extends JpaRepository<BookingIdempotencyKey, UUID> {
+
+    /**
+     * Find the booking created by a user's request with the given Idempotency-Key.
+     */
+    @Query("SELECT k.bookingId FROM BookingIdempotencyKey k WHERE k.userId = :userId AND k.idempotencyKey = :key")
+    Optional<UUID> findBookingId(@Param("userId") UUID userId, @Param("key") String key);
+}
@@ -13,6 +13,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -60,6 +61,55 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
             @Param("newSlotEndTime") LocalTime newSlotEndTime
     );
 
+    /**
+     * Find ANY overlapping booking without taking a row lock.
+     * Used when conflicts are serialized by other means (advisory lock, SERIALIZABLE isolation).
+     */
+    @Query("SELECT b FROM Booking b WHERE b.doctor.id = :doctorId " +
+           "AND b.bookingDate = :bookingDate " +
+           "AND b.slotStartTime < :newSlotEndTime " +
+           "AND b.slotEndTime > :newSlotStartTime " +
+           "AND b.status NOT IN ('CANCELLED')")
+    List<Booking> findOverlappingBookings(
+            @Param("doctorId") UUID doctorId,
+            @Param("bookingDate") LocalDate bookingDate,
+            @Param("newSlotStartTime") LocalTime newSlotStartTime,
+            @Param("newSlotEndTime") LocalTime newSlotEndTime
+    );
+
+    /**
+     * Take a transaction-scoped PostgreSQL advisory lock.
+     * Released automatically on commit or rollback.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(:lockKey)", nativeQuery = true)
+    Integer acquireAdvisoryXactLock(@Param("lockKey") long lockKey);
+
+    /**
+     * Limit how long the current transaction waits for any lock (SET LOCAL lock_timeout).
+     * Takes a PostgreSQL interval such as {@code 2000ms}; reset on commit or rollback.
+     */
+    @Query(value = "SELECT set_config('lock_timeout', :timeout, true)", nativeQuery = true)
+    String setLocalLockTimeout(@Param("timeout") String timeout);
+
+    /**
+     * Find the doctor of a booking without loading the booking.
+     */
+    @Query("SELECT b.doctor.id FROM Booking b WHERE b.id = :id")
+    Optional<UUID> findDoctorIdById(@Param("id") UUID id);
+
+    /**
+     * [doctorId, bookingDate] of a booking without loading it, at most one row.
+     */
+    @Query("SELECT b.doctor.id, b.bookingDate FROM Booking b WHERE b.id = :id")
+    List<Object[]> findDoctorAndDateById(@Param("id") UUID id);
+
+    /**
+     * Find and lock a booking, reading its latest committed state.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdForUpdate(@Param("id") UUID id);
+
     /**
      * Check if a slot is already booked (without lock, for read-only checks).
      */
@@ -140,4 +190,69 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
             @Param("doctorId") UUID doctorId,
             @Param("bookingDate") LocalDate bookingDate
     );
+
+    /**
+     * Find all active bookings for a doctor between two dates (inclusive), in date and slot order.
+     * Served by idx_bookings_doctor_date; used for multi-day availability.
+     */
+    @Query("SELECT b FROM Booking b WHERE b.doctor.id = :doctorId " +
+           "AND b.bookingDate BETWEEN :fromDate AND :toDate " +
+           "AND b.status NOT IN ('CANCELLED') " +
+           "ORDER BY b.bookingDate ASC, b.slotStartTime ASC")
+    List<Booking> findActiveBookingsByDoctorAndDateRange(
+            @Param("doctorId") UUID doctorId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    /**
+     * Find all active bookings of several doctors between two dates (inclusive).
+     * Used by the first-available search to check many doctors with one query.
+     */
+    @Query("SELECT b FROM Booking b WHERE b.doctor.id IN :doctorIds " +
+           "AND b.bookingDate BETWEEN :fromDate AND :toDate " +
+           "AND b.status NOT IN ('CANCELLED')")
+    List<Booking> findActiveBookingsByDoctorsAndDateRange(
+            @Param("doctorIds") Collection<UUID> doctorIds,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    /**
+     * [doctorId, bookingDate, slotStartTime, slotEndTime] of every active booking between two dates.
+     * Used to rebuild the in-memory occupancy index without loading entities.
+     */
+    @Query("SELECT b.doctor.id, b.bookingDate, b.slotStartTime, b.slotEndTime FROM Booking b " +
+           "WHERE b.bookingDate BETWEEN :fromDate AND :toDate " +
+           "AND b.status NOT IN ('CANCELLED')")
+    List<Object[]> findActiveSlotsBetween(
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+
+    /**
+     * Find all active bookings for a doctor on several dates without locking them.
+     * Used by multi-booking writes whose strategy already serializes the days.
+     */
+    @Query("SELECT b FROM Booking b WHERE b.doctor.id = :doctorId " +
+           "AND b.bookingDate IN :bookingDates " +
+           "AND b.status NOT IN ('CANCELLED')")
+    List<Booking> findActiveBookingsByDoctorAndDates(
+            @Param("doctorId") UUID doctorId,
+            @Param("bookingDates") Collection<LocalDate> bookingDates
+    );
+
+    /**
+     * Find and lock all active bookings for a doctor on several dates, in date and slot order.
+     * Used by multi-booking writes so a whole request needs one occupancy query per doctor.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.doctor.id = :doctorId " +
+           "AND b.bookingDate IN :bookingDates " +
+           "AND b.status NOT IN ('CANCELLED') " +
+           "ORDER BY b.bookingDate ASC, b.slotStartTime ASC")
+    List<Booking> findActiveBookingsByDoctorAndDatesForUpdate(
+            @Param("doctorId") UUID doctorId,
+            @Param("bookingDates") Collection<LocalDate> bookingDates
+    );
 }
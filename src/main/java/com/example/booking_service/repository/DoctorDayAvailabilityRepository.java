@@ -0,0 +1,91 @@
+package com.example.booking_service.repository;
+
+import com.example.booking_service.entity.DoctorDayAvailability;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for DoctorDayAvailability entity.
+ * The bit update and insert statements are PostgreSQL-specific.
+ */
+@Repository
+public interface DoctorDayAvailabilityRepository extends JpaRepository<DoctorDayAvailability, UUID> {
+
+    Optional<DoctorDayAvailability> findByDoctorIdAndDayDate(UUID doctorId, LocalDate dayDate);
+
+    List<DoctorDayAvailability> findByDoctorIdAndDayDateBetween(UUID doctorId, LocalDate fromDate, LocalDate toDate);
+
+    List<DoctorDayAvailability> findByDoctorIdInAndDayDateBetween(
+            Collection<UUID> doctorIds, LocalDate fromDate, LocalDate toDate);
+
+    boolean existsByDoctorIdAndDayDate(UUID doctorId, LocalDate dayDate);
+
+    /**
+     * (day_date, layout) of a doctor's rows between two dates (inclusive).
+     */
+    @Query("SELECT a.dayDate, a.layout FROM DoctorDayAvailability a " +
+           "WHERE a.doctorId = :doctorId AND a.dayDate BETWEEN :fromDate AND :toDate")
+    List<Object[]> findDayLayouts(@Param("doctorId") UUID doctorId,
+                                  @Param("fromDate") LocalDate fromDate,
+                                  @Param("toDate") LocalDate toDate);
+
+    /**
+     * Set one slot's bit to free (1) or taken (0) and adjust the free count, in one atomic
+     * statement, provided the row was built for the same layout.
+     *
+     * @return 1 if the row was updated, 0 if it is missing or has another layout
+     */
+    @Modifying
+    @Query(value = "UPDATE doctor_day_availability " +
+                   "SET free_count = free_count + :free - get_bit(free_mask, :slotIndex), " +
+                   "    free_mask = set_bit(free_mask, :slotIndex, :free), " +
+                   "    updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE doctor_id = :doctorId AND day_date = :dayDate AND layout = :layout",
+           nativeQuery = true)
+    int markSlot(@Param("doctorId") UUID doctorId,
+                 @Param("dayDate") LocalDate dayDate,
+                 @Param("layout") String layout,
+                 @Param("slotIndex") int slotIndex,
+                 @Param("free") int free);
+
+    /**
+     * Insert a day unless it already has a row.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO doctor_day_availability (doctor_id, day_date, layout, free_mask, slot_count, free_count) " +
+                   "VALUES (:doctorId, :dayDate, :layout, :freeMask, :slotCount, :freeCount) " +
+                   "ON CONFLICT (doctor_id, day_date) DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("doctorId") UUID doctorId,
+                       @Param("dayDate") LocalDate dayDate,
+                       @Param("layout") String layout,
+                       @Param("freeMask") byte[] freeMask,
+                       @Param("slotCount") int slotCount,
+                       @Param("freeCount") int freeCount);
+
+    /**
+     * Drop a day's row if it was built for other schedules.
+     */
+    @Modifying
+    @Query("DELETE FROM DoctorDayAvailability a " +
+           "WHERE a.doctorId = :doctorId AND a.dayDate = :dayDate AND a.layout <> :layout")
+    int deleteStale(@Param("doctorId") UUID doctorId,
+                    @Param("dayDate") LocalDate dayDate,
+                    @Param("layout") String layout);
+
+    /**
+     * Drop rows of days that have passed.
+     */
+    @Modifying
+    @Query("DELETE FROM DoctorDayAvailability a WHERE a.dayDate < :date")
+    int deleteByDayDateBefore(@Param("date") LocalDate date);
+}
@@ -1,5 +1,6 @@
 package com.example.booking_service.repository;
 
+import com.example.booking_service.entity.DayOfWeek;
 import com.example.booking_service.entity.Doctor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,6 +9,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -58,4 +60,35 @@ public interface DoctorRepository extends JpaRepository<Doctor, UUID> {
      */
     @Query("SELECT d FROM Doctor d LEFT JOIN FETCH d.schedules WHERE d.id = :id")
     Doctor findByIdWithSchedules(@Param("id") UUID id);
+
+    /**
+     * Find doctors with their schedules by IDs.
+     */
+    @Query("SELECT DISTINCT d FROM Doctor d LEFT JOIN FETCH d.schedules WHERE d.id IN :ids")
+    List<Doctor> findWithSchedulesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Find active doctors with their clinic and schedules, optionally limited to a clinic,
+     * whose lower-cased specialization matches the LIKE pattern (escape character '\').
+     */
+    @Query("SELECT DISTINCT d FROM Doctor d JOIN FETCH d.clinic LEFT JOIN FETCH d.schedules " +
+           "WHERE d.isActive = true " +
+           "AND (:clinicId IS NULL OR d.clinic.id = :clinicId) " +
+           "AND LOWER(COALESCE(d.specialization, '')) LIKE :specializationPattern ESCAPE '\\'")
+    List<Doctor> findActiveDoctorsWithSchedules(@Param("clinicId") UUID clinicId,
+                                                @Param("specializationPattern") String specializationPattern);
+
+    /**
+     * Load everything a booking request needs in one statement: the user's patient,
+     * the doctor with its clinic, and the doctor's active schedules for the weekday.
+     * Returns one [Patient, Doctor, DoctorSchedule] row per schedule (a single row with a
+     * null schedule if there is none), or no rows if the patient or doctor does not exist.
+     */
+    @Query("SELECT p, d, s FROM Patient p, Doctor d JOIN FETCH d.clinic " +
+           "LEFT JOIN DoctorSchedule s ON s.doctor = d AND s.dayOfWeek = :dayOfWeek AND s.isActive = true " +
+           "WHERE p.user.id = :userId AND d.id = :doctorId " +
+           "ORDER BY s.startTime")
+    List<Object[]> findBookingContext(@Param("userId") UUID userId,
+                                      @Param("doctorId") UUID doctorId,
+                                      @Param("dayOfWeek") DayOfWeek dayOfWeek);
 }
@@ -0,0 +1,139 @@
+package com.example.booking_service.repository;
+
+import com.example.booking_service.entity.SlotInventory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for SlotInventory entity.
+ * The claim and generation statements are PostgreSQL-specific.
+ */
+@Repository
+public interface SlotInventoryRepository extends JpaRepository<SlotInventory, UUID> {
+
+    /**
+     * All inventory rows of a doctor's day, in slot order.
+     */
+    List<SlotInventory> findByDoctorIdAndSlotDateOrderBySlotStartAsc(UUID doctorId, LocalDate slotDate);
+
+    /**
+     * Inventory rows of a doctor between two dates (inclusive), in date and slot order.
+     */
+    List<SlotInventory> findByDoctorIdAndSlotDateBetweenOrderBySlotDateAscSlotStartAsc(
+            UUID doctorId, LocalDate fromDate, LocalDate toDate);
+
+    boolean existsByDoctorIdAndSlotDateAndSlotStart(UUID doctorId, LocalDate slotDate, LocalTime slotStart);
+
+    /**
+     * Claim a free slot. A row locked by a concurrent claim is skipped instead of waited on.
+     *
+     * @return 1 if the slot was claimed, 0 if it is booked, locked by another claim or not materialized
+     */
+    @Modifying
+    @Query(value = "UPDATE slot_inventory SET state = 'BOOKED', updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE id = (SELECT id FROM slot_inventory " +
+                   "            WHERE doctor_id = :doctorId AND slot_date = :slotDate " +
+                   "            AND slot_start = :slotStart AND state = 'FREE' " +
+                   "            FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int claim(@Param("doctorId") UUID doctorId,
+              @Param("slotDate") LocalDate slotDate,
+              @Param("slotStart") LocalTime slotStart);
+
+    /**
+     * Return a slot to the free pool.
+     */
+    @Modifying
+    @Query(value = "UPDATE slot_inventory SET state = 'FREE', updated_at = CURRENT_TIMESTAMP " +
+                   "WHERE doctor_id = :doctorId AND slot_date = :slotDate AND slot_start = :slotStart",
+           nativeQuery = true)
+    int release(@Param("doctorId") UUID doctorId,
+                @Param("slotDate") LocalDate slotDate,
+                @Param("slotStart") LocalTime slotStart);
+
+    /**
+     * Slots of the active schedules of active doctors between :fromDate and :toDate.
+     * New rows start BOOKED when an active booking already covers them.
+     */
+    String MATERIALIZE_SLOTS =
+            "INSERT INTO slot_inventory (doctor_id, slot_date, slot_start, slot_end, state) " +
+            "SELECT s.doctor_id, CAST(d.day AS date), CAST(t.slot AS time), " +
+            "       CAST(t.slot + make_interval(mins => s.slot_duration_minutes) AS time), " +
+            "       CASE WHEN EXISTS (SELECT 1 FROM bookings b " +
+            "                         WHERE b.doctor_id = s.doctor_id AND b.booking_date = CAST(d.day AS date) " +
+            "                         AND b.slot_start_time < CAST(t.slot + make_interval(mins => s.slot_duration_minutes) AS time) " +
+            "                         AND b.slot_end_time > CAST(t.slot AS time) " +
+            "                         AND b.status NOT IN ('CANCELLED')) " +
+            "            THEN 'BOOKED' ELSE 'FREE' END " +
+            "FROM generate_series(CAST(:fromDate AS timestamp), CAST(:toDate AS timestamp), interval '1 day') AS d(day) " +
+            "JOIN doctor_schedules s ON s.is_active AND CAST(s.day_of_week AS text) = to_char(d.day, 'FMDAY') " +
+            "JOIN doctors doc ON doc.id = s.doctor_id AND doc.is_active " +
+            "CROSS JOIN LATERAL generate_series(d.day + s.start_time, " +
+            "       d.day + s.end_time - make_interval(mins => s.slot_duration_minutes), " +
+            "       make_interval(mins => s.slot_duration_minutes)) AS t(slot) ";
+
+    /**
+     * Materialize the slots of every active doctor's active schedules between the two dates.
+     * Existing rows are kept.
+     *
+     * @return number of rows created
+     */
+    @Modifying
+    @Query(value = MATERIALIZE_SLOTS +
+                   "ON CONFLICT (doctor_id, slot_date, slot_start) DO NOTHING",
+           nativeQuery = true)
+    int materialize(@Param("fromDate") LocalDate fromDate, @Param("toDate") LocalDate toDate);
+
+    /**
+     * Materialize the slots of one doctor between the two dates, e.g. a day past the horizon
+     * that is booked before the generator reached it. Existing rows are kept.
+     *
+     * @return number of rows created
+     */
+    @Modifying
+    @Query(value = MATERIALIZE_SLOTS +
+                   "WHERE s.doctor_id = :doctorId " +
+                   "ON CONFLICT (doctor_id, slot_date, slot_start) DO NOTHING",
+           nativeQuery = true)
+    int materializeDoctor(@Param("doctorId") UUID doctorId,
+                          @Param("fromDate") LocalDate fromDate,
+                          @Param("toDate") LocalDate toDate);
+
+    /**
+     * Drop rows from :fromDate on that are no longer a slot of an active schedule of an active
+     * doctor, e.g. after a schedule's hours or slot length changed. {@link #materialize} then
+     * creates the new layout's rows.
+     *
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query(value = "DELETE FROM slot_inventory i " +
+                   "WHERE i.slot_date >= :fromDate " +
+                   "AND NOT EXISTS (SELECT 1 FROM doctor_schedules s " +
+                   "                JOIN doctors doc ON doc.id = s.doctor_id AND doc.is_active " +
+                   "                WHERE s.doctor_id = i.doctor_id AND s.is_active " +
+                   "                AND CAST(s.day_of_week AS text) = to_char(i.slot_date, 'FMDAY') " +
+                   "                AND i.slot_start >= s.start_time " +
+                   "                AND i.slot_date + i.slot_start + make_interval(mins => s.slot_duration_minutes) " +
+                   "                    <= i.slot_date + s.end_time " +
+                   "                AND i.slot_end = CAST(i.slot_start + make_interval(mins => s.slot_duration_minutes) AS time) " +
+                   "                AND CAST(EXTRACT(EPOCH FROM i.slot_start - s.start_time) AS integer) " +
+                   "                    % (s.slot_duration_minutes * 60) = 0)",
+           nativeQuery = true)
+    int deleteStale(@Param("fromDate") LocalDate fromDate);
+
+    /**
+     * Drop inventory rows of days that have passed.
+     */
+    @Modifying
+    @Query("DELETE FROM SlotInventory s WHERE s.slotDate < :date")
+    int deleteBySlotDateBefore(@Param("date") LocalDate date);
+}
@@ -52,6 +52,7 @@ public class SecurityConfig {
                         // Public endpoints
                         .requestMatchers("/api/auth/**").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasRole("ADMIN")
                         .requestMatchers("/error").permitAll()
                         .requestMatchers("/v3/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         
@@ -67,10 +68,15 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/api/doctors/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/doctors/**").hasRole("ADMIN")
                         
+                        // Availability search - public
+                        .requestMatchers(HttpMethod.GET, "/api/availability/**").permitAll()
+                        
                         // Booking endpoints - authenticated users
                         .requestMatchers("/api/bookings/my").hasRole("PATIENT")
-                        .requestMatchers(HttpMethod.POST, "/api/bookings").hasAnyRole("PATIENT", "STAFF", "ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/bookings", "/api/bookings/batch", "/api/bookings/series", "/api/bookings/async", "/api/bookings/holds").hasAnyRole("PATIENT", "STAFF", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/bookings/tickets/**").hasAnyRole("PATIENT", "STAFF", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/api/bookings/**").hasAnyRole("STAFF", "ADMIN")
+                        .requestMatchers(HttpMethod.PUT, "/api/bookings/*/reschedule").hasAnyRole("PATIENT", "STAFF", "ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/api/bookings/**").hasAnyRole("STAFF", "ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/api/bookings/**").hasAnyRole("PATIENT", "STAFF", "ADMIN")
                         
@@ -91,8 +97,8 @@ public class SecurityConfig {
         List<String> origins = Arrays.asList(allowedOrigins.split(","));
         configuration.setAllowedOrigins(origins);
         configuration.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With"));
-        configuration.setExposedHeaders(List.of("Authorization"));
+        configuration.setAllowedHeaders(List.of("Authorization", "Content-Type", "X-Requested-With", "Idempotency-Key", "If-None-Match"));
+        configuration.setExposedHeaders(List.of("Authorization", "ETag"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
         
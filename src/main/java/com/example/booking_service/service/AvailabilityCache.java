@@ -0,0 +1,136 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of a doctor's day of slots, keyed by (doctorId, date). Only the
+ * database-derived part is cached (which slots exist and which are booked); holds and
+ * the current time are applied on every read. An entry is dropped after the transaction
+ * that changed its day commits, and expires after {@code app.booking.availability-cache-ttl}
+ * to bound staleness from writes on other instances. Hits, misses, load time and
+ * evictions are exported as {@code cache.*{cache=booking.availability}}.
+ *
+ * Loads are single-flight: the cache holds a future per day, and concurrent misses for the
+ * same day wait for the one load in progress instead of querying the database themselves.
+ * The load runs on the requesting thread (inside its transaction) after the future is
+ * published, so no cache lock is held during the query. Requests that found a load in
+ * progress are counted as {@code booking.availability.coalesced}.
+ *
+ * Every (doctorId, date) also has a version that changes whenever its entry is dropped for
+ * a booking change, so clients can revalidate a day without it being loaded. Versions are
+ * drawn from one increasing sequence; a day without a version of its own reports the
+ * highest version forgotten so far, so a forgotten version is never handed out again for a
+ * different state of the day.
+ */
+@Component
+public class AvailabilityCache {
+
+    /**
+     * One slot of a day, free unless an active booking or a booked inventory row covers it.
+     */
+    public record DaySlot(LocalTime start, LocalTime end, boolean free) {
+    }
+
+    private record Key(UUID doctorId, LocalDate date) {
+    }
+
+    private final AsyncCache<Key, List<DaySlot>> days;
+    private final Counter coalesced;
+    private final Cache<Key, Long> versions;
+    private final AtomicLong versionSequence = new AtomicLong();
+    private final AtomicLong forgottenVersion = new AtomicLong();
+    private final long bootEpoch = System.currentTimeMillis();
+    private final long ttlMillis;
+
+    public AvailabilityCache(BookingProperties properties, MeterRegistry meterRegistry) {
+        this.days = Caffeine.newBuilder()
+                .maximumSize(properties.getAvailabilityCacheMaxSize())
+                .expireAfterWrite(properties.getAvailabilityCacheTtl())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, days, "booking.availability");
+        this.coalesced = Counter.builder("booking.availability.coalesced")
+                .description("Availability cache misses that shared another request's load")
+                .register(meterRegistry);
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(properties.getAvailabilityCacheMaxSize())
+                .<Key, Long>evictionListener((key, version, cause) -> forget(version))
+                .build();
+        this.ttlMillis = Math.max(1, properties.getAvailabilityCacheTtl().toMillis());
+    }
+
+    /**
+     * Slots of the doctor's day, loaded on a miss. Concurrent misses for the same day share one load.
+     */
+    public List<DaySlot> get(UUID doctorId, LocalDate date, Supplier<List<DaySlot>> loader) {
+        Key key = new Key(doctorId, date);
+        // Published as the day's in-flight marker; only the request whose future is stored loads
+        CompletableFuture<List<DaySlot>> load = new CompletableFuture<>();
+        CompletableFuture<List<DaySlot>> slots = days.get(key, (k, executor) -> load);
+        if (slots == load) {
+            try {
+                load.complete(List.copyOf(loader.get()));
+            } catch (RuntimeException ex) {
+                // A failed future is removed from the cache, so the next request loads again
+                load.completeExceptionally(ex);
+                throw ex;
+            }
+        } else if (!slots.isDone()) {
+            coalesced.increment();
+        }
+        try {
+            return slots.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    /**
+     * Drop the cached day and move its version on. The version changes after the entry is
+     * gone, so a version read before loading never describes newer slots than the ones loaded.
+     */
+    public void invalidate(UUID doctorId, LocalDate date) {
+        Key key = new Key(doctorId, date);
+        days.synchronous().invalidate(key);
+        versions.put(key, versionSequence.incrementAndGet());
+    }
+
+    /**
+     * Opaque tag of the day's database-derived slots: the boot epoch (versions restart with
+     * the process), the day's version, and the current cache TTL window. Tags roll over once
+     * per TTL, so changes made by other instances are revalidated within two TTLs.
+     */
+    public String versionTag(UUID doctorId, LocalDate date) {
+        Long version = versions.getIfPresent(new Key(doctorId, date));
+        return Long.toHexString(bootEpoch)
+                + "." + (version != null ? version : forgottenVersion.get())
+                + "." + Long.toHexString(System.currentTimeMillis() / ttlMillis);
+    }
+
+    private void forget(long version) {
+        forgottenVersion.accumulateAndGet(version, Math::max);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(event.doctorId(), event.date());
+    }
+}
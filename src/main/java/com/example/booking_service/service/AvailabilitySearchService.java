@@ -0,0 +1,228 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.dto.FirstAvailableSlotDto;
+import com.example.booking_service.entity.Booking;
+import com.example.booking_service.entity.DayOfWeek;
+import com.example.booking_service.entity.Doctor;
+import com.example.booking_service.entity.DoctorSchedule;
+import com.example.booking_service.repository.BookingRepository;
+import com.example.booking_service.repository.DoctorRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Searches free slots across many doctors at once ("anyone, soonest").
+ * Matching doctors and their schedules are loaded with one query, and bookings with
+ * one range query per window of {@value #WINDOW_DAYS} days for all of them; slots are
+ * then checked in memory against the cached slot grids. Windows held by the
+ * {@link OccupancyIndex} (single-instance deployments only) skip the booking query while
+ * the index has none of their slots booked, and days stored by the
+ * {@link DayAvailabilityReadModel} are read from their rows instead of the grids.
+ */
+@Service
+@RequiredArgsConstructor
+public class AvailabilitySearchService {
+
+    static final int WINDOW_DAYS = 7;
+    public static final int MAX_RESULTS = 50;
+
+    private final DoctorRepository doctorRepository;
+    private final BookingRepository bookingRepository;
+    private final SlotGridCache slotGrids;
+    private final SlotHoldRegistry slotHolds;
+    private final OccupancyIndex occupancyIndex;
+    private final DayAvailabilityReadModel dayAvailability;
+
+    /**
+     * Earliest free slots of the active doctors matching the filters, from the given date
+     * to the end of the booking horizon, in (date, start time, doctor name) order.
+     *
+     * @param clinicId       only doctors of this clinic, or any clinic when null
+     * @param specialization case-insensitive part of the specialization, or any when blank
+     * @param from           first date to search; today when null or in the past
+     * @param limit          maximum number of slots, clamped to 1..{@value #MAX_RESULTS}
+     */
+    @Transactional(readOnly = true)
+    public List<FirstAvailableSlotDto> findFirstAvailable(UUID clinicId, String specialization,
+                                                          LocalDate from, int limit) {
+        LocalDate today = LocalDate.now();
+        LocalDate start = from == null || from.isBefore(today) ? today : from;
+        LocalDate horizon = today.plusDays(BookingService.MAX_AVAILABILITY_DAYS);
+        int size = Math.min(Math.max(limit, 1), MAX_RESULTS);
+
+        List<Doctor> doctors = doctorRepository.findActiveDoctorsWithSchedules(clinicId, likePattern(specialization));
+        if (doctors.isEmpty()) {
+            return List.of();
+        }
+        List<UUID> doctorIds = doctors.stream().map(Doctor::getId).toList();
+
+        List<FirstAvailableSlotDto> results = new ArrayList<>(size);
+        for (LocalDate windowStart = start; !windowStart.isAfter(horizon) && results.size() < size;
+             windowStart = windowStart.plusDays(WINDOW_DAYS)) {
+            LocalDate windowEnd = windowStart.plusDays(WINDOW_DAYS - 1);
+            if (windowEnd.isAfter(horizon)) {
+                windowEnd = horizon;
+            }
+
+            Map<UUID, Map<LocalDate, List<AvailabilityCache.DaySlot>>> storedDays = dayAvailability.isEnabled()
+                    ? dayAvailability.findRange(doctorIds, windowStart, windowEnd)
+                    : Map.of();
+            long windowDays = ChronoUnit.DAYS.between(windowStart, windowEnd) + 1;
+            boolean allStored = storedDays.size() == doctors.size()
+                    && storedDays.values().stream().allMatch(days -> days.size() == windowDays);
+
+            // Loaded up front unless the read model or the occupancy index holds the whole window
+            WindowBookings bookings = new WindowBookings(doctorIds, windowStart, windowEnd);
+            if (!allStored && (!occupancyIndex.covers(windowStart) || !occupancyIndex.covers(windowEnd))) {
+                bookings.starts();
+            }
+
+            for (LocalDate date = windowStart; !date.isAfter(windowEnd) && results.size() < size;
+                 date = date.plusDays(1)) {
+                List<FirstAvailableSlotDto> daySlots = freeSlots(doctors, date, storedDays, bookings);
+                daySlots.sort(Comparator.comparing(FirstAvailableSlotDto::getStartTime)
+                        .thenComparing(FirstAvailableSlotDto::getDoctorName));
+                results.addAll(daySlots.subList(0, Math.min(daySlots.size(), size - results.size())));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * @param storedDays the window's days stored by the read model, by doctor
+     * @param bookings   the window's bookings, queried on first use
+     */
+    private List<FirstAvailableSlotDto> freeSlots(List<Doctor> doctors, LocalDate date,
+                                                  Map<UUID, Map<LocalDate, List<AvailabilityCache.DaySlot>>> storedDays,
+                                                  WindowBookings bookings) {
+        DayOfWeek dayOfWeek = DayOfWeek.valueOf(date.getDayOfWeek().name());
+        LocalTime now = date.equals(LocalDate.now()) ? LocalTime.now() : null;
+        List<FirstAvailableSlotDto> slots = new ArrayList<>();
+
+        for (Doctor doctor : doctors) {
+            List<AvailabilityCache.DaySlot> stored = storedDays.getOrDefault(doctor.getId(), Map.of()).get(date);
+            if (stored != null) {
+                for (AvailabilityCache.DaySlot slot : stored) {
+                    if (slot.free() && !(now != null && slot.start().isBefore(now))
+                            && !slotHolds.isHeld(doctor.getId(), date, slot.start())) {
+                        slots.add(toSlot(doctor, date, slot.start(), slot.end()));
+                    }
+                }
+                continue;
+            }
+            for (DoctorSchedule schedule : doctor.getSchedules()) {
+                if (schedule.getDayOfWeek() != dayOfWeek || !Boolean.TRUE.equals(schedule.getIsActive())) {
+                    continue;
+                }
+                SlotGrid grid = slotGrids.get(schedule);
+                BitSet taken = new BitSet(grid.slotCount());
+                // The index is only built on a single instance, where its "all free" answer is current;
+                // a slot it reports occupied is confirmed against the bookings
+                if (bookings.isLoaded() || anyOccupied(doctor.getId(), date, grid)) {
+                    for (LocalTime bookedStart : bookings.startsOf(doctor.getId(), date)) {
+                        int index = grid.slotIndex(bookedStart);
+                        if (index >= 0) {
+                            taken.set(index);
+                        }
+                    }
+                }
+                int firstOpen = now != null ? grid.firstSlotFrom(now) : 0;
+                for (int i = taken.nextClearBit(firstOpen); i < grid.slotCount(); i = taken.nextClearBit(i + 1)) {
+                    LocalTime startTime = grid.startOf(i);
+                    if (slotHolds.isHeld(doctor.getId(), date, startTime)) {
+                        continue;
+                    }
+                    slots.add(toSlot(doctor, date, startTime, grid.endOf(i)));
+                }
+            }
+        }
+        return slots;
+    }
+
+    private boolean anyOccupied(UUID doctorId, LocalDate date, SlotGrid grid) {
+        for (int i = 0; i < grid.slotCount(); i++) {
+            if (occupancyIndex.isOccupied(doctorId, date, grid.startOf(i), grid.endOf(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static FirstAvailableSlotDto toSlot(Doctor doctor, LocalDate date, LocalTime start, LocalTime end) {
+        return FirstAvailableSlotDto.builder()
+                .doctorId(doctor.getId())
+                .doctorName(doctor.getName())
+                .specialization(doctor.getSpecialization())
+                .clinicId(doctor.getClinic().getId())
+                .clinicName(doctor.getClinic().getName())
+                .date(date)
+                .startTime(start)
+                .endTime(end)
+                .build();
+    }
+
+    /**
+     * LIKE pattern matching the specialization anywhere, with LIKE wildcards in the input escaped.
+     */
+    static String likePattern(String specialization) {
+        if (specialization == null || specialization.isBlank()) {
+            return "%";
+        }
+        String escaped = specialization.trim().toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private record DoctorDate(UUID doctorId, LocalDate date) {
+    }
+
+    /**
+     * Booked slot starts of one search window for all doctors, loaded with one query on first use.
+     */
+    private final class WindowBookings {
+
+        private final List<UUID> doctorIds;
+        private final LocalDate from;
+        private final LocalDate to;
+        private Map<DoctorDate, List<LocalTime>> starts;
+
+        WindowBookings(List<UUID> doctorIds, LocalDate from, LocalDate to) {
+            this.doctorIds = doctorIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean isLoaded() {
+            return starts != null;
+        }
+
+        List<LocalTime> startsOf(UUID doctorId, LocalDate date) {
+            return starts().getOrDefault(new DoctorDate(doctorId, date), List.of());
+        }
+
+        Map<DoctorDate, List<LocalTime>> starts() {
+            if (starts == null) {
+                starts = new HashMap<>();
+                for (Booking booking : bookingRepository.findActiveBookingsByDoctorsAndDateRange(doctorIds, from, to)) {
+                    starts.computeIfAbsent(new DoctorDate(booking.getDoctor().getId(), booking.getBookingDate()),
+                            key -> new ArrayList<>()).add(booking.getSlotStartTime());
+                }
+            }
+            return starts;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.dto.SlotChangeDto;
+import com.example.booking_service.exception.BookingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events of slots taken and freed, fanned out per doctor. Each doctor with
+ * listeners has one {@link FanOut}; a committed {@link BookingChangedEvent} is offered to
+ * every subscriber's bounded buffer without blocking the committing thread, and buffers
+ * are written to the network on a shared, bounded sender pool. A subscriber whose buffer
+ * is full is too slow to keep up and is disconnected; it reconnects and re-reads the day.
+ * Open streams are capped per doctor and in total. Streams are local to this instance.
+ */
+@Component
+@Slf4j
+public class AvailabilityStreams {
+
+    static final String SLOT_TAKEN = "slot-taken";
+    static final String SLOT_FREED = "slot-freed";
+
+    private final ConcurrentHashMap<UUID, FanOut> fanOuts = new ConcurrentHashMap<>();
+    private final ExecutorService senders;
+    private final long timeoutMillis;
+    private final int bufferSize;
+    private final int maxPerDoctor;
+    private final long maxSubscribers;
+    private final AtomicLong subscribers = new AtomicLong();
+    private final Counter droppedCounter;
+
+    public AvailabilityStreams(BookingProperties properties, MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.senders = Executors.newFixedThreadPool(Math.max(properties.getAvailabilityStreamThreads(), 1), runnable -> {
+            Thread thread = new Thread(runnable, "availability-stream-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeoutMillis = properties.getAvailabilityStreamTimeout().toMillis();
+        this.bufferSize = Math.max(properties.getAvailabilityStreamBuffer(), 1);
+        this.maxPerDoctor = properties.getAvailabilityStreamMaxPerDoctor();
+        this.maxSubscribers = properties.getAvailabilityStreamMaxTotal();
+        Gauge.builder("booking.availability.stream.subscribers", subscribers, AtomicLong::get)
+                .description("Open availability streams")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("booking.availability.stream.dropped")
+                .description("Availability streams disconnected because the client could not keep up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open a stream of the doctor's slot changes. It ends after {@code app.booking.availability-stream-timeout}.
+     *
+     * @throws BookingBusyException if the doctor or this instance already has the maximum of open streams
+     */
+    public SseEmitter subscribe(UUID doctorId) {
+        return subscribe(doctorId, new SseEmitter(timeoutMillis));
+    }
+
+    SseEmitter subscribe(UUID doctorId, SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(doctorId, emitter);
+        if (subscribers.incrementAndGet() > maxSubscribers) {
+            subscribers.decrementAndGet();
+            throw tooManyStreams();
+        }
+        boolean[] added = {false};
+        fanOuts.compute(doctorId, (id, fanOut) -> {
+            FanOut target = fanOut != null ? fanOut : new FanOut();
+            if (target.subscribers.size() < maxPerDoctor) {
+                target.subscribers.add(subscriber);
+                added[0] = true;
+            }
+            return target.subscribers.isEmpty() ? null : target;
+        });
+        if (!added[0]) {
+            subscribers.decrementAndGet();
+            throw tooManyStreams();
+        }
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        FanOut fanOut = fanOuts.get(event.doctorId());
+        if (fanOut == null) {
+            return;
+        }
+        boolean freed = event.change() == BookingChangedEvent.Change.RELEASED;
+        // Built once: SseEventBuilder.build() mutates the builder, so it must not be shared
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event()
+                .name(freed ? SLOT_FREED : SLOT_TAKEN)
+                .data(SlotChangeDto.builder()
+                        .doctorId(event.doctorId())
+                        .date(event.date())
+                        .startTime(event.slotStart())
+                        .endTime(event.slotEnd())
+                        .available(freed)
+                        .build())
+                .build();
+        for (Subscriber subscriber : fanOut.subscribers) {
+            subscriber.offer(message);
+        }
+    }
+
+    /**
+     * Open streams for the doctor.
+     */
+    int subscriberCount(UUID doctorId) {
+        FanOut fanOut = fanOuts.get(doctorId);
+        return fanOut != null ? fanOut.subscribers.size() : 0;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        senders.shutdownNow();
+        fanOuts.values().forEach(fanOut -> fanOut.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void remove(Subscriber subscriber) {
+        fanOuts.computeIfPresent(subscriber.doctorId, (id, fanOut) -> {
+            fanOut.subscribers.remove(subscriber);
+            return fanOut.subscribers.isEmpty() ? null : fanOut;
+        });
+        subscribers.decrementAndGet();
+    }
+
+    private static BookingBusyException tooManyStreams() {
+        return new BookingBusyException("Too many availability streams are open. Please try again later.", 30);
+    }
+
+    /**
+     * The listeners of one doctor.
+     */
+    private static final class FanOut {
+
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * One open stream. The scheduled flag guarantees at most one sender writes to it at a time.
+     */
+    private final class Subscriber implements Runnable {
+
+        private final UUID doctorId;
+        private final SseEmitter emitter;
+        private final Queue<Set<ResponseBodyEmitter.DataWithMediaType>> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        Subscriber(UUID doctorId, SseEmitter emitter) {
+            this.doctorId = doctorId;
+            this.emitter = emitter;
+        }
+
+        void offer(Set<ResponseBodyEmitter.DataWithMediaType> message) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(message)) {
+                droppedCounter.increment();
+                log.debug("Availability stream for doctor {} is not keeping up, disconnecting", doctorId);
+                close();
+                emitter.complete();
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            Set<ResponseBodyEmitter.DataWithMediaType> message;
+            while (!closed.get() && (message = buffer.poll()) != null) {
+                try {
+                    emitter.send(message);
+                } catch (IOException | IllegalStateException ex) {
+                    // Client went away or the stream already ended
+                    close();
+                    emitter.completeWithError(ex);
+                    return;
+                }
+            }
+            scheduled.set(false);
+            // A message may have been added after the last poll but before the flag was cleared
+            if (!buffer.isEmpty() && !closed.get() && scheduled.compareAndSet(false, true)) {
+                senders.execute(this);
+            }
+        }
+
+        void close() {
+            if (closed.compareAndSet(false, true)) {
+                buffer.clear();
+                remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.dto.BookingResponse;
+import com.example.booking_service.exception.BookingBusyException;
+import com.example.booking_service.exception.BookingConflictException;
+import com.example.booking_service.exception.BookingLockTimeoutException;
+import com.example.booking_service.exception.ResourceNotFoundException;
+
+/**
+ * Outcome of one booking request that was processed as part of a group:
+ * either the created booking or the error that rejected it. In an all-or-nothing
+ * batch, valid requests that were not booked because another one failed are aborted.
+ */
+public record BookingAttempt(BookingResponse booking, RuntimeException error) {
+
+    private static final class BatchAbortedException extends RuntimeException {
+
+        BatchAbortedException() {
+            super("Not booked because another booking in the batch was rejected", null, false, false);
+        }
+    }
+
+    public static BookingAttempt created(BookingResponse booking) {
+        return new BookingAttempt(booking, null);
+    }
+
+    public static BookingAttempt rejected(RuntimeException error) {
+        return new BookingAttempt(null, error);
+    }
+
+    public static BookingAttempt aborted() {
+        return new BookingAttempt(null, new BatchAbortedException());
+    }
+
+    public boolean isCreated() {
+        return error == null;
+    }
+
+    public boolean isAborted() {
+        return error instanceof BatchAbortedException;
+    }
+
+    /**
+     * Error code as GlobalExceptionHandler would report it for a single request.
+     */
+    public String errorCode() {
+        if (error == null) {
+            return null;
+        }
+        if (error instanceof BatchAbortedException) {
+            return "BATCH_ABORTED";
+        }
+        if (error instanceof BookingConflictException) {
+            return "BOOKING_CONFLICT";
+        }
+        if (error instanceof BookingLockTimeoutException) {
+            return "BOOKING_LOCK_TIMEOUT";
+        }
+        if (error instanceof BookingBusyException) {
+            return "BOOKING_BUSY";
+        }
+        if (error instanceof ResourceNotFoundException) {
+            return "NOT_FOUND";
+        }
+        if (error instanceof IllegalArgumentException) {
+            return "BAD_REQUEST";
+        }
+        return "INTERNAL_ERROR";
+    }
+
+    /**
+     * Client-facing error message; unexpected errors are not exposed.
+     */
+    public String errorMessage() {
+        if (error == null) {
+            return null;
+        }
+        return "INTERNAL_ERROR".equals(errorCode()) ? "An unexpected error occurred" : error.getMessage();
+    }
+}
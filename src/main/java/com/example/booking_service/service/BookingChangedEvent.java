@@ -0,0 +1,39 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.entity.Booking;
+import com.example.booking_service.entity.DoctorSchedule;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published inside a booking write when a slot of a doctor's day is taken or released.
+ * Listeners that must only see committed state use
+ * {@code @TransactionalEventListener(phase = AFTER_COMMIT)}.
+ *
+ * @param daySchedules the doctor's active schedules for the day's weekday as already loaded by
+ *                     the write, or null when it did not load them
+ */
+public record BookingChangedEvent(UUID doctorId, LocalDate date, LocalTime slotStart, LocalTime slotEnd,
+                                  Change change, List<DoctorSchedule> daySchedules) {
+
+    public enum Change {
+        BOOKED,
+        RELEASED
+    }
+
+    public BookingChangedEvent(UUID doctorId, LocalDate date, LocalTime slotStart, LocalTime slotEnd, Change change) {
+        this(doctorId, date, slotStart, slotEnd, change, null);
+    }
+
+    public static BookingChangedEvent booked(Booking booking, List<DoctorSchedule> daySchedules) {
+        return new BookingChangedEvent(booking.getDoctor().getId(), booking.getBookingDate(),
+                booking.getSlotStartTime(), booking.getSlotEndTime(), Change.BOOKED, daySchedules);
+    }
+
+    public static BookingChangedEvent released(UUID doctorId, LocalDate date, LocalTime slotStart, LocalTime slotEnd) {
+        return new BookingChangedEvent(doctorId, date, slotStart, slotEnd, Change.RELEASED);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.booking_service.service;
+
+/**
+ * Conflict-control strategies for booking creation.
+ * Selected with the {@code app.booking.concurrency-strategy} property.
+ */
+public enum BookingConcurrencyStrategy {
+
+    /**
+     * SELECT ... FOR UPDATE on overlapping bookings before inserting.
+     */
+    PESSIMISTIC_LOCK,
+
+    /**
+     * pg_advisory_xact_lock on a hash of (doctorId, bookingDate), then a plain overlap check.
+     */
+    ADVISORY_LOCK,
+
+    /**
+     * Insert directly and map the ex_bookings_no_overlap / uk_bookings_no_double violation to a conflict.
+     */
+    INSERT_FIRST,
+
+    /**
+     * Plain overlap check under SERIALIZABLE isolation, retried on serialization failure.
+     */
+    SERIALIZABLE,
+
+    /**
+     * Route every write for a doctor through that doctor's serial mailbox and detect
+     * conflicts against its in-memory occupancy; the database only persists decisions.
+     */
+    SINGLE_WRITER,
+
+    /**
+     * Claim the pre-materialized slot_inventory row (V14) with UPDATE ... FOR UPDATE SKIP LOCKED,
+     * then insert; contended claims never wait on each other.
+     */
+    SLOT_INVENTORY
+}
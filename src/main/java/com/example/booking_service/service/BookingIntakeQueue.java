@@ -0,0 +1,200 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.dto.BookingTicketResponse;
+import com.example.booking_service.dto.CreateBookingRequest;
+import com.example.booking_service.exception.BookingBusyException;
+import com.example.booking_service.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Intake queue for asynchronous bookings (group commit).
+ * Requests are accepted immediately with a ticket; a single flusher thread collects
+ * whatever arrived within the flush interval, across all doctors, and writes it through
+ * {@link BookingService#createBookingsGrouped} in one transaction, so a burst pays one
+ * commit instead of one per booking. Outcomes are kept for the ticket retention period.
+ */
+@Component
+@Slf4j
+public class BookingIntakeQueue {
+
+    private final BookingService bookingService;
+    private final BlockingQueue<Ticket> queue;
+    private final int maxBatchSize;
+    private final long flushIntervalNanos;
+    private final Cache<UUID, Ticket> tickets;
+    private final Thread flusher;
+    private final DistributionSummary batchSizes;
+    private final Timer batchTimer;
+    private volatile boolean running = true;
+
+    public BookingIntakeQueue(BookingProperties properties,
+                              BookingService bookingService,
+                              MeterRegistry meterRegistry) {
+        this.bookingService = bookingService;
+        this.queue = new ArrayBlockingQueue<>(properties.getIntakeQueueCapacity());
+        this.maxBatchSize = Math.max(properties.getIntakeMaxBatchSize(), 1);
+        this.flushIntervalNanos = properties.getIntakeFlushInterval().toNanos();
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getIntakeTicketRetention())
+                .build();
+        this.flusher = new Thread(this::flushLoop, "booking-intake");
+        this.flusher.setDaemon(true);
+
+        Gauge.builder("booking.intake.pending", queue, BlockingQueue::size)
+                .description("Asynchronous bookings waiting for the next group commit")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("booking.intake.batch.size")
+                .description("Bookings written per group commit")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("booking.intake.batch")
+                .description("Duration of a group commit")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        flusher.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        flusher.interrupt();
+    }
+
+    /**
+     * Accept a booking request for the next group commit.
+     *
+     * @throws BookingBusyException if the intake queue is full
+     */
+    public BookingTicketResponse submit(CreateBookingRequest request, UUID userId) {
+        Ticket ticket = new Ticket(UUID.randomUUID(), new BookingSubmission(request, userId));
+        tickets.put(ticket.id, ticket);
+        if (!queue.offer(ticket)) {
+            tickets.invalidate(ticket.id);
+            log.warn("Booking intake queue is full, rejecting request for doctor {}", request.getDoctorId());
+            throw new BookingBusyException("Too many bookings are being processed. Please try again shortly.", 1);
+        }
+        return ticket.toResponse();
+    }
+
+    /**
+     * Get the state of a ticket, waiting up to {@code wait} for it to complete.
+     * Only the user who submitted the ticket can see it.
+     */
+    public CompletableFuture<BookingTicketResponse> getTicket(UUID ticketId, UUID userId, Duration wait) {
+        Ticket ticket = tickets.getIfPresent(ticketId);
+        if (ticket == null || !ticket.submission.userId().equals(userId)) {
+            throw new ResourceNotFoundException("Booking ticket", "id", ticketId);
+        }
+        if (wait.isZero() || ticket.outcome.isDone()) {
+            return CompletableFuture.completedFuture(ticket.toResponse());
+        }
+        // Time out a copy so the ticket's own outcome stays pending
+        return ticket.outcome.copy()
+                .completeOnTimeout(null, wait.toNanos(), TimeUnit.NANOSECONDS)
+                .thenApply(ignored -> ticket.toResponse());
+    }
+
+    private void flushLoop() {
+        List<Ticket> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                Ticket first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Give the rest of the burst a moment to arrive before committing
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < maxBatchSize) {
+                    Ticket next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    void flush(List<Ticket> batch) {
+        List<BookingSubmission> submissions = batch.stream().map(ticket -> ticket.submission).toList();
+        batchSizes.record(batch.size());
+        try {
+            List<BookingAttempt> attempts = batchTimer.record(() -> bookingService.createBookingsGrouped(submissions));
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(attempts.get(i));
+            }
+        } catch (RuntimeException ex) {
+            log.error("Group commit of {} bookings failed", batch.size(), ex);
+            batch.forEach(ticket -> ticket.complete(BookingAttempt.rejected(ex)));
+        }
+    }
+
+    /**
+     * A submitted booking and its eventual outcome.
+     */
+    static final class Ticket {
+
+        private final UUID id;
+        private final BookingSubmission submission;
+        private final OffsetDateTime submittedAt = OffsetDateTime.now();
+        private final CompletableFuture<BookingAttempt> outcome = new CompletableFuture<>();
+        private volatile OffsetDateTime completedAt;
+
+        Ticket(UUID id, BookingSubmission submission) {
+            this.id = id;
+            this.submission = submission;
+        }
+
+        void complete(BookingAttempt attempt) {
+            completedAt = OffsetDateTime.now();
+            outcome.complete(attempt);
+        }
+
+        BookingTicketResponse toResponse() {
+            BookingTicketResponse.BookingTicketResponseBuilder response = BookingTicketResponse.builder()
+                    .ticketId(id)
+                    .submittedAt(submittedAt);
+            BookingAttempt attempt = outcome.getNow(null);
+            if (attempt == null) {
+                return response.status(BookingTicketResponse.Status.PENDING).build();
+            }
+            response.completedAt(completedAt);
+            if (attempt.isCreated()) {
+                return response.status(BookingTicketResponse.Status.CREATED).booking(attempt.booking()).build();
+            }
+            return response.status(BookingTicketResponse.Status.REJECTED)
+                    .error(attempt.errorMessage())
+                    .code(attempt.errorCode())
+                    .build();
+        }
+    }
+}
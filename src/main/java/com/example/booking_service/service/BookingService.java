@@ -1,25 +1,58 @@
 package com.example.booking_service.service;
 
+import com.example.booking_service.config.BookingProperties;
 import com.example.booking_service.dto.AvailableSlotDto;
+import com.example.booking_service.dto.BatchBookingRequest;
+import com.example.booking_service.dto.BatchBookingResponse;
+import com.example.booking_service.dto.BitmaskAvailabilityResponse;
+import com.example.booking_service.dto.BookingItemResult;
 import com.example.booking_service.dto.BookingResponse;
 import com.example.booking_service.dto.CreateBookingRequest;
+import com.example.booking_service.dto.CreateBookingSeriesRequest;
+import com.example.booking_service.dto.DayAvailabilityDto;
+import com.example.booking_service.dto.DayBitmaskDto;
+import com.example.booking_service.dto.DoctorAvailabilityResponse;
+import com.example.booking_service.dto.RescheduleBookingRequest;
+import com.example.booking_service.dto.SlotGridDto;
+import com.example.booking_service.dto.SlotHoldResponse;
 import com.example.booking_service.entity.*;
 import com.example.booking_service.exception.BookingConflictException;
+import com.example.booking_service.exception.BookingLockTimeoutException;
+import com.example.booking_service.exception.IdempotencyKeyMismatchException;
 import com.example.booking_service.exception.ResourceNotFoundException;
 import com.example.booking_service.repository.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -30,84 +63,642 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookingService {
 
+    /**
+     * Longest range accepted by {@link #getAvailability}, matching the booking horizon.
+     */
+    public static final int MAX_AVAILABILITY_DAYS = 90;
+
     private final BookingRepository bookingRepository;
     private final DoctorRepository doctorRepository;
     private final DoctorScheduleRepository scheduleRepository;
     private final PatientRepository patientRepository;
     private final UserRepository userRepository;
+    private final BookingProperties bookingProperties;
+    private final BookingTransactionRunner transactionRunner;
+    private final SlotLockManager slotLockManager;
+    private final DoctorBookingMailboxes bookingMailboxes;
+    private final SlotHoldRegistry slotHolds;
+    private final BookingIdempotencyKeyRepository idempotencyKeyRepository;
+    private final IdempotencyKeyCache idempotencyKeyCache;
+    private final SlotInventoryRepository slotInventoryRepository;
+    private final SlotGridCache slotGrids;
+    private final AvailabilityCache availabilityCache;
+    private final OccupancyIndex occupancyIndex;
+    private final DayAvailabilityReadModel dayAvailability;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Create a new booking with double-booking prevention.
-     * Uses pessimistic locking to ensure atomicity.
+     * The conflict-control step is selected by {@code app.booking.concurrency-strategy};
+     * the transaction is opened here so SERIALIZABLE attempts can be retried as a whole.
+     * Requests for the same doctor and day first queue on an in-JVM stripe so that
+     * waiting does not hold a pooled connection. Under SINGLE_WRITER the doctor's
+     * mailbox serializes the write instead.
      */
-    @Transactional
     public BookingResponse createBooking(CreateBookingRequest request, UUID userId) {
+        return createBooking(request, userId, null);
+    }
+
+    /**
+     * Create a booking at most once per {@code Idempotency-Key}.
+     * A retry with a key that already created a booking gets that booking back without
+     * taking any booking lock; the key is stored in the same transaction as the booking.
+     *
+     * @param idempotencyKey client-chosen key, or null for a plain create
+     * @throws IdempotencyKeyMismatchException if the key was used for a different slot
+     */
+    public BookingResponse createBooking(CreateBookingRequest request, UUID userId, String idempotencyKey) {
+        if (idempotencyKey != null) {
+            if (idempotencyKey.isBlank() || idempotencyKey.length() > BookingIdempotencyKey.MAX_KEY_LENGTH) {
+                throw new IllegalArgumentException(
+                        "Idempotency-Key must be 1 to " + BookingIdempotencyKey.MAX_KEY_LENGTH + " characters");
+            }
+            Optional<BookingResponse> stored = findIdempotentBooking(request, userId, idempotencyKey);
+            if (stored.isPresent()) {
+                return stored.get();
+            }
+        }
+
+        BookingResponse response;
+        try {
+            response = doCreateBooking(request, userId, idempotencyKey);
+        } catch (BookingConflictException | DataIntegrityViolationException ex) {
+            // A concurrent retry with the same key may have committed first
+            if (idempotencyKey == null) {
+                throw ex;
+            }
+            return findIdempotentBooking(request, userId, idempotencyKey).orElseThrow(() -> ex);
+        }
+
+        if (idempotencyKey != null) {
+            idempotencyKeyCache.put(userId, idempotencyKey, response.getId());
+        }
+        slotHolds.consume(request.getDoctorId(), request.getBookingDate(), request.getSlotStartTime(), userId);
+        return response;
+    }
+
+    private BookingResponse doCreateBooking(CreateBookingRequest request, UUID userId, String idempotencyKey) {
+        BookingConcurrencyStrategy strategy = bookingProperties.getConcurrencyStrategy();
+        if (strategy == BookingConcurrencyStrategy.SINGLE_WRITER) {
+            return bookingMailboxes.execute(request.getDoctorId(), occupancy -> {
+                BookingResponse response = failFastOnLockTimeout(request.getDoctorId(), () -> transactionRunner.run(
+                        () -> doCreateBooking(request, userId, idempotencyKey, strategy, occupancy)));
+                occupancy.add(response.getBookingDate(), response.getId(),
+                        response.getSlotStartTime(), response.getSlotEndTime());
+                return response;
+            });
+        }
+
+        return failFastOnLockTimeout(request.getDoctorId(), () -> runWrite(
+                attempt -> slotLockManager.withLock(request.getDoctorId(), request.getBookingDate(), attempt),
+                () -> doCreateBooking(request, userId, idempotencyKey, strategy, null)));
+    }
+
+    /**
+     * Run a booking write in a transaction of the configured strategy: SERIALIZABLE
+     * writes run optimistically and are retried on serialization failure.
+     */
+    private <T> T runWrite(Supplier<T> action) {
+        return runWrite(Supplier::get, action);
+    }
+
+    /**
+     * {@link #runWrite(Supplier)} with each attempt run inside stripeLock, so a SERIALIZABLE
+     * retry gives the stripe up while it backs off.
+     */
+    private <T> T runWrite(Function<Supplier<T>, T> stripeLock, Supplier<T> action) {
+        if (bookingProperties.getConcurrencyStrategy() == BookingConcurrencyStrategy.SERIALIZABLE) {
+            return transactionRunner.runSerializable(bookingProperties.getSerializableMaxAttempts(), stripeLock, action);
+        }
+        return stripeLock.apply(() -> transactionRunner.run(action));
+    }
+
+    /**
+     * Run a booking transaction that may wait on database locks of the doctor's day.
+     * A lock not granted within {@code app.booking.lock-timeout} is reported as
+     * {@link BookingLockTimeoutException} and counted per doctor.
+     *
+     * @param doctorId the doctor whose day is locked, or null when several doctors are involved
+     */
+    private <T> T failFastOnLockTimeout(UUID doctorId, Supplier<T> transaction) {
+        try {
+            return transaction.get();
+        } catch (RuntimeException ex) {
+            if (!BookingTransactionRunner.isLockTimeout(ex)) {
+                throw ex;
+            }
+            String doctorTag = doctorId != null ? doctorId.toString() : "multiple";
+            Counter.builder("booking.lock.timeouts")
+                    .description("Booking transactions that gave up waiting for a database lock")
+                    .tag("doctor", doctorTag)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("Lock timeout on booking transaction for doctor {}", doctorTag);
+            long retryAfter = Math.max(1, bookingProperties.getLockTimeout().toSeconds());
+            throw new BookingLockTimeoutException(
+                    "This doctor's schedule is busy right now. Please try again shortly.", retryAfter, ex);
+        }
+    }
+
+    /**
+     * Bound lock waits of the current transaction to {@code app.booking.lock-timeout}.
+     */
+    private void applyLockTimeout() {
+        long timeoutMillis = bookingProperties.getLockTimeout().toMillis();
+        if (timeoutMillis > 0) {
+            bookingRepository.setLocalLockTimeout(timeoutMillis + "ms");
+        }
+    }
+
+    /**
+     * Look up the booking created earlier with this Idempotency-Key, cache first.
+     */
+    private Optional<BookingResponse> findIdempotentBooking(CreateBookingRequest request, UUID userId,
+                                                           String idempotencyKey) {
+        UUID bookingId = idempotencyKeyCache.get(userId, idempotencyKey);
+        boolean fromCache = bookingId != null;
+        if (!fromCache) {
+            bookingId = idempotencyKeyRepository.findBookingId(userId, idempotencyKey).orElse(null);
+            if (bookingId == null) {
+                return Optional.empty();
+            }
+            idempotencyKeyCache.put(userId, idempotencyKey, bookingId);
+        }
+
+        UUID storedId = bookingId;
+        BookingResponse stored = transactionRunner.run(() -> bookingRepository.findById(storedId)
+                .map(this::mapToResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", storedId)));
+        if (!stored.getDoctorId().equals(request.getDoctorId())
+                || !stored.getBookingDate().equals(request.getBookingDate())
+                || !stored.getSlotStartTime().equals(request.getSlotStartTime())) {
+            throw new IdempotencyKeyMismatchException("Idempotency-Key was already used for a different booking");
+        }
+
+        idempotencyKeyCache.recordReplay(fromCache);
+        log.info("Replayed booking {} for Idempotency-Key of user {}", storedId, userId);
+        return Optional.of(stored);
+    }
+
+    /**
+     * Validate and persist a booking inside the caller's transaction.
+     *
+     * @param idempotencyKey stored alongside the booking when not null
+     * @param occupancy the doctor's in-memory occupancy, only used by SINGLE_WRITER
+     */
+    private BookingResponse doCreateBooking(CreateBookingRequest request, UUID userId, String idempotencyKey,
+                                            BookingConcurrencyStrategy strategy, DoctorOccupancy occupancy) {
+        applyLockTimeout();
+        BookingLookups lookups = new BookingLookups();
+        Booking booking = prepareBooking(request, userId, lookups);
+        Doctor doctor = booking.getDoctor();
+        Patient patient = booking.getPatient();
+        LocalTime slotEndTime = booking.getSlotEndTime();
+
+        switch (strategy) {
+            case INSERT_FIRST ->
+                    // The exclusion constraint rejects any overlap, so no lock round-trip is needed
+                    booking = writeBooking(booking);
+            case ADVISORY_LOCK -> {
+                // Serialize all writers for this doctor and day, then a plain check is sufficient
+                bookingRepository.acquireAdvisoryXactLock(advisoryLockKey(doctor.getId(), request.getBookingDate()));
+                rejectOverlap(bookingRepository.findOverlappingBookings(
+                        doctor.getId(), request.getBookingDate(), request.getSlotStartTime(), slotEndTime));
+                booking = bookingRepository.save(booking);
+            }
+            case SERIALIZABLE -> {
+                // No row lock: PostgreSQL aborts one of two conflicting transactions with 40001
+                rejectOverlap(bookingRepository.findOverlappingBookings(
+                        doctor.getId(), request.getBookingDate(), request.getSlotStartTime(), slotEndTime));
+                booking = bookingRepository.save(booking);
+            }
+            case SLOT_INVENTORY -> {
+                // The claimed inventory row is the lock; a concurrent claim skips it instead of waiting
+                claimInventorySlot(doctor.getId(), request.getBookingDate(), request.getSlotStartTime());
+                booking = writeBooking(booking);
+            }
+            case SINGLE_WRITER -> {
+                // Only this doctor's mailbox writes here, so the in-memory occupancy decides
+                occupancy.findOverlap(request.getBookingDate(), request.getSlotStartTime(), slotEndTime)
+                        .ifPresent(existing -> {
+                            throw overlapConflict(existing.start(), existing.end());
+                        });
+                try {
+                    booking = writeBooking(booking);
+                } catch (BookingConflictException ex) {
+                    // Another node wrote this day; re-read it on the next request
+                    occupancy.invalidate(request.getBookingDate());
+                    throw ex;
+                }
+            }
+            default -> {
+                // CRITICAL: Check for ANY overlapping booking (not just exact time match)
+                // This prevents partial overlaps like booking 10:15 when 10:00 is already booked
+                bookingRepository.findOverlappingBookingWithLock(
+                        doctor.getId(),
+                        request.getBookingDate(),
+                        request.getSlotStartTime(),
+                        slotEndTime
+                ).ifPresent(existing -> rejectOverlap(List.of(existing)));
+
+                booking = bookingRepository.save(booking);
+            }
+        }
+        
+        if (idempotencyKey != null) {
+            idempotencyKeyRepository.save(BookingIdempotencyKey.builder()
+                    .userId(userId)
+                    .idempotencyKey(idempotencyKey)
+                    .bookingId(booking.getId())
+                    .build());
+        }
+        
+        eventPublisher.publishEvent(BookingChangedEvent.booked(booking,
+                lookups.schedules(doctor.getId(), request.getBookingDate())));
+        log.info("Created booking {} for patient {} with doctor {} on {}",
+                booking.getId(), patient.getId(), doctor.getId(), request.getBookingDate());
+
+        return mapToResponse(booking);
+    }
+
+    /**
+     * Create independent bookings from many users in a single transaction (group commit).
+     * Each request is validated on its own and checked against the existing bookings and
+     * the requests accepted before it in the same group, so one rejected request does not
+     * affect the others. Accepted bookings are inserted as one JDBC batch.
+     * The group is written through the configured concurrency strategy, holding the stripe
+     * and database locks of every requested day. SINGLE_WRITER groups of several doctors
+     * cannot run in one mailbox and rely on the ex_bookings_no_overlap constraint instead.
+     * If the database still rejects the group (a concurrent writer took one of the slots),
+     * every request is settled on its own through {@link #createBooking}.
+     *
+     * @return one attempt per submission, in submission order
+     */
+    public List<BookingAttempt> createBookingsGrouped(List<BookingSubmission> submissions) {
+        return createBookingsGrouped(submissions, false);
+    }
+
+    /**
+     * Book several slots for the current user in one transaction.
+     * ALL_OR_NOTHING creates no booking unless every slot can be booked; BEST_EFFORT
+     * creates every booking that can be made and reports the others.
+     */
+    public BatchBookingResponse createBookingBatch(BatchBookingRequest request, UUID userId) {
+        return createBookings(request.getBookings(), request.getMode(), userId);
+    }
+
+    /**
+     * Book a weekly or biweekly series for the current user in one transaction.
+     * Every occurrence is validated against the doctor's schedule and reported on its own.
+     */
+    public BatchBookingResponse createBookingSeries(CreateBookingSeriesRequest request, UUID userId) {
+        int intervalWeeks = request.getFrequency() == CreateBookingSeriesRequest.Frequency.BIWEEKLY ? 2 : 1;
+        List<CreateBookingRequest> occurrences = new ArrayList<>(request.getOccurrences());
+        for (int i = 0; i < request.getOccurrences(); i++) {
+            occurrences.add(CreateBookingRequest.builder()
+                    .doctorId(request.getDoctorId())
+                    .bookingDate(request.getStartDate().plusWeeks((long) i * intervalWeeks))
+                    .slotStartTime(request.getSlotStartTime())
+                    .notes(request.getNotes())
+                    .build());
+        }
+        return createBookings(occurrences, request.getMode(), userId);
+    }
+
+    private BatchBookingResponse createBookings(List<CreateBookingRequest> requests,
+                                                BatchBookingRequest.Mode mode, UUID userId) {
+        List<BookingSubmission> submissions = requests.stream()
+                .map(booking -> new BookingSubmission(booking, userId))
+                .toList();
+
+        List<BookingAttempt> attempts = createBookingsGrouped(submissions, mode == BatchBookingRequest.Mode.ALL_OR_NOTHING);
+
+        List<BookingItemResult> results = new ArrayList<>(attempts.size());
+        for (int i = 0; i < attempts.size(); i++) {
+            results.add(toItemResult(i, requests.get(i), attempts.get(i)));
+        }
+        long created = attempts.stream().filter(BookingAttempt::isCreated).count();
+        return BatchBookingResponse.builder()
+                .mode(mode)
+                .createdCount((int) created)
+                .rejectedCount((int) (attempts.size() - created))
+                .results(results)
+                .build();
+    }
+
+    private List<BookingAttempt> createBookingsGrouped(List<BookingSubmission> submissions, boolean allOrNothing) {
+        List<BookingAttempt> attempts;
+        try {
+            attempts = writeGroup(submissions, allOrNothing);
+        } catch (BookingConflictException | DataIntegrityViolationException ex) {
+            log.warn("Grouped insert of {} bookings rejected by the database", submissions.size());
+            if (allOrNothing) {
+                BookingConflictException conflict = new BookingConflictException(
+                        "One of the requested slots was just booked by another user. Please try again.", ex);
+                return submissions.stream().map(submission -> BookingAttempt.rejected(conflict)).toList();
+            }
+            // Settle each request on its own
+            attempts = new ArrayList<>(submissions.size());
+            for (BookingSubmission submission : submissions) {
+                attempts.add(attempt(() -> createBooking(submission.request(), submission.userId())));
+            }
+            return attempts;
+        }
+
+        for (int i = 0; i < attempts.size(); i++) {
+            if (attempts.get(i).isCreated()) {
+                CreateBookingRequest request = submissions.get(i).request();
+                slotHolds.consume(request.getDoctorId(), request.getBookingDate(), request.getSlotStartTime(),
+                        submissions.get(i).userId());
+            }
+        }
+        return attempts;
+    }
+
+    private List<BookingAttempt> writeGroup(List<BookingSubmission> submissions, boolean allOrNothing) {
+        BookingConcurrencyStrategy strategy = bookingProperties.getConcurrencyStrategy();
+        UUID doctorId = singleDoctor(submissions);
+        if (strategy == BookingConcurrencyStrategy.SINGLE_WRITER && doctorId != null) {
+            return bookingMailboxes.execute(doctorId, occupancy -> {
+                List<BookingAttempt> attempts;
+                try {
+                    attempts = failFastOnLockTimeout(doctorId, () -> transactionRunner.run(
+                            () -> doCreateBookingsGrouped(submissions, allOrNothing, strategy, occupancy)));
+                } catch (BookingConflictException | DataIntegrityViolationException ex) {
+                    // Another node wrote one of these days; re-read them on the next request
+                    submissions.forEach(submission -> occupancy.invalidate(submission.request().getBookingDate()));
+                    throw ex;
+                }
+                attempts.stream()
+                        .filter(BookingAttempt::isCreated)
+                        .map(BookingAttempt::booking)
+                        .forEach(booking -> occupancy.add(booking.getBookingDate(), booking.getId(),
+                                booking.getSlotStartTime(), booking.getSlotEndTime()));
+                return attempts;
+            });
+        }
+
+        Map<UUID, Set<LocalDate>> requestedDays = new HashMap<>();
+        submissions.forEach(submission -> requestedDays
+                .computeIfAbsent(submission.request().getDoctorId(), id -> new HashSet<>())
+                .add(submission.request().getBookingDate()));
+        return failFastOnLockTimeout(doctorId, () -> runWrite(
+                attempt -> slotLockManager.withLocks(requestedDays, attempt),
+                () -> doCreateBookingsGrouped(submissions, allOrNothing, strategy, null)));
+    }
+
+    /**
+     * Validate and persist a group of bookings inside the caller's transaction.
+     *
+     * @param occupancy the doctor's in-memory occupancy, only used by single-doctor SINGLE_WRITER groups
+     */
+    private List<BookingAttempt> doCreateBookingsGrouped(List<BookingSubmission> submissions, boolean allOrNothing,
+                                                         BookingConcurrencyStrategy strategy,
+                                                         DoctorOccupancy occupancy) {
+        applyLockTimeout();
+        BookingAttempt[] attempts = new BookingAttempt[submissions.size()];
+        BookingLookups lookups = new BookingLookups();
+        Map<Integer, Booking> prepared = new HashMap<>();
+
+        for (int i = 0; i < submissions.size(); i++) {
+            BookingSubmission submission = submissions.get(i);
+            try {
+                prepared.put(i, prepareBooking(submission.request(), submission.userId(), lookups));
+            } catch (BookingConflictException | ResourceNotFoundException | IllegalArgumentException ex) {
+                attempts[i] = BookingAttempt.rejected(ex);
+            }
+        }
+
+        // Lock days and check slots in (doctorId, date, start) order so concurrent groups cannot deadlock
+        List<Integer> lockOrder = new ArrayList<>(prepared.keySet());
+        lockOrder.sort(Comparator.comparing((Integer i) -> prepared.get(i).getDoctor().getId())
+                .thenComparing(i -> prepared.get(i).getBookingDate())
+                .thenComparing(i -> prepared.get(i).getSlotStartTime())
+                .thenComparing(i -> i));
+
+        // One occupancy query per doctor covering every requested date
+        Map<UUID, Set<LocalDate>> datesByDoctor = new LinkedHashMap<>();
+        for (int i : lockOrder) {
+            Booking booking = prepared.get(i);
+            datesByDoctor.computeIfAbsent(booking.getDoctor().getId(), id -> new TreeSet<>())
+                    .add(booking.getBookingDate());
+        }
+        boolean claimInventory = strategy == BookingConcurrencyStrategy.SLOT_INVENTORY;
+        Map<DoctorDay, List<Booking>> occupiedByDay = new HashMap<>();
+        switch (strategy) {
+            // The per-slot claims below replace the day lock
+            case SLOT_INVENTORY -> { }
+            // The mailbox occupancy already holds the doctor's bookings
+            case SINGLE_WRITER -> {
+                if (occupancy == null) {
+                    loadOccupied(datesByDoctor, occupiedByDay, true);
+                }
+            }
+            case ADVISORY_LOCK -> {
+                datesByDoctor.forEach((doctorId, dates) -> dates.forEach(date ->
+                        bookingRepository.acquireAdvisoryXactLock(advisoryLockKey(doctorId, date))));
+                loadOccupied(datesByDoctor, occupiedByDay, false);
+            }
+            // No row lock: PostgreSQL aborts one of two conflicting transactions with 40001
+            case SERIALIZABLE -> loadOccupied(datesByDoctor, occupiedByDay, false);
+            // FOR UPDATE locks the existing rows only; ex_bookings_no_overlap rejects an insert into a free gap
+            default -> loadOccupied(datesByDoctor, occupiedByDay, true);
+        }
+
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        for (int i : lockOrder) {
+            Booking booking = prepared.get(i);
+            DoctorDay day = new DoctorDay(booking.getDoctor().getId(), booking.getBookingDate());
+            List<Booking> occupied = occupiedByDay.computeIfAbsent(day, key -> new ArrayList<>());
+            try {
+                if (occupancy != null) {
+                    occupancy.findOverlap(day.date(), booking.getSlotStartTime(), booking.getSlotEndTime())
+                            .ifPresent(existing -> {
+                                throw overlapConflict(existing.start(), existing.end());
+                            });
+                }
+                rejectOverlap(occupied.stream()
+                        .filter(existing -> existing.getSlotStartTime().isBefore(booking.getSlotEndTime())
+                                && existing.getSlotEndTime().isAfter(booking.getSlotStartTime()))
+                        .toList());
+                if (claimInventory) {
+                    claimInventorySlot(day.doctorId(), day.date(), booking.getSlotStartTime());
+                }
+                occupied.add(booking);
+                acceptedIndexes.add(i);
+            } catch (BookingConflictException ex) {
+                attempts[i] = BookingAttempt.rejected(ex);
+            }
+        }
+
+        if (allOrNothing && acceptedIndexes.size() < submissions.size()) {
+            for (int i : acceptedIndexes) {
+                attempts[i] = BookingAttempt.aborted();
+                if (claimInventory) {
+                    Booking booking = prepared.get(i);
+                    slotInventoryRepository.release(booking.getDoctor().getId(), booking.getBookingDate(),
+                            booking.getSlotStartTime());
+                }
+            }
+            log.info("Batch of {} bookings rejected, nothing created", submissions.size());
+            return Arrays.asList(attempts);
+        }
+
+        acceptedIndexes.sort(Comparator.naturalOrder());
+        List<Booking> saved = bookingRepository.saveAll(acceptedIndexes.stream().map(prepared::get).toList());
+        bookingRepository.flush();
+        for (int i = 0; i < saved.size(); i++) {
+            Booking booking = saved.get(i);
+            attempts[acceptedIndexes.get(i)] = BookingAttempt.created(mapToResponse(booking));
+            eventPublisher.publishEvent(BookingChangedEvent.booked(booking,
+                    lookups.schedules(booking.getDoctor().getId(), booking.getBookingDate())));
+        }
+
+        log.info("Created {} of {} grouped bookings", saved.size(), submissions.size());
+        return Arrays.asList(attempts);
+    }
+
+    private void loadOccupied(Map<UUID, Set<LocalDate>> datesByDoctor, Map<DoctorDay, List<Booking>> occupiedByDay,
+                              boolean forUpdate) {
+        datesByDoctor.forEach((doctorId, dates) -> {
+            List<Booking> existing = forUpdate
+                    ? bookingRepository.findActiveBookingsByDoctorAndDatesForUpdate(doctorId, dates)
+                    : bookingRepository.findActiveBookingsByDoctorAndDates(doctorId, dates);
+            existing.forEach(booking -> occupiedByDay
+                    .computeIfAbsent(new DoctorDay(doctorId, booking.getBookingDate()), day -> new ArrayList<>())
+                    .add(booking));
+        });
+    }
+
+    private static UUID singleDoctor(List<BookingSubmission> submissions) {
+        Set<UUID> doctorIds = submissions.stream()
+                .map(submission -> submission.request().getDoctorId())
+                .collect(Collectors.toSet());
+        return doctorIds.size() == 1 ? doctorIds.iterator().next() : null;
+    }
+
+    private static BookingItemResult toItemResult(int index, CreateBookingRequest request, BookingAttempt attempt) {
+        BookingItemResult.BookingItemResultBuilder result = BookingItemResult.builder()
+                .index(index)
+                .bookingDate(request.getBookingDate())
+                .slotStartTime(request.getSlotStartTime());
+        if (attempt.isCreated()) {
+            return result.status(BookingItemResult.Status.CREATED).booking(attempt.booking()).build();
+        }
+        return result.status(attempt.isAborted() ? BookingItemResult.Status.ABORTED : BookingItemResult.Status.REJECTED)
+                .error(attempt.errorMessage())
+                .code(attempt.errorCode())
+                .build();
+    }
+
+    private static BookingAttempt attempt(Supplier<BookingResponse> action) {
+        try {
+            return BookingAttempt.created(action.get());
+        } catch (RuntimeException ex) {
+            return BookingAttempt.rejected(ex);
+        }
+    }
+
+    /**
+     * Validate a booking request against the patient, doctor and schedule, and build
+     * the (unsaved) booking. Does not check for conflicting bookings.
+     */
+    private Booking prepareBooking(CreateBookingRequest request, UUID userId) {
+        return prepareBooking(request, userId, new BookingLookups());
+    }
+
+    private Booking prepareBooking(CreateBookingRequest request, UUID userId, BookingLookups lookups) {
+        // Patient, doctor with clinic and the day's schedules in one round-trip
+        lookups.loadContext(userId, request.getDoctorId(),
+                DayOfWeek.valueOf(request.getBookingDate().getDayOfWeek().name()));
+
         // Get patient for this user
-        Patient patient = patientRepository.findByUserId(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Patient", "userId", userId));
+        Patient patient = lookups.patient(userId);
 
         // Get doctor
-        Doctor doctor = doctorRepository.findById(request.getDoctorId())
-                .orElseThrow(() -> new ResourceNotFoundException("Doctor", "id", request.getDoctorId()));
+        Doctor doctor = lookups.doctor(request.getDoctorId());
+
+        LocalTime slotEndTime = validateSlot(doctor, request.getBookingDate(), request.getSlotStartTime(), lookups);
 
+        // A slot held by someone else is off limits until the hold is released or expires
+        slotHolds.rejectIfHeldByOther(doctor.getId(), request.getBookingDate(), request.getSlotStartTime(), userId);
+
+        return Booking.builder()
+                .doctor(doctor)
+                .patient(patient)
+                .bookingDate(request.getBookingDate())
+                .slotStartTime(request.getSlotStartTime())
+                .slotEndTime(slotEndTime)
+                .status(BookingStatus.PENDING)
+                .notes(request.getNotes())
+                .build();
+    }
+
+    /**
+     * Validate a slot against the booking window and the doctor's slot grid.
+     *
+     * @return the slot end time
+     */
+    private LocalTime validateSlot(Doctor doctor, LocalDate bookingDate, LocalTime slotStartTime, BookingLookups lookups) {
         if (!doctor.getIsActive()) {
             throw new IllegalArgumentException("Doctor is not available for booking");
         }
 
         // Validate booking date (cannot be in the past)
         LocalDate today = LocalDate.now();
-        if (request.getBookingDate().isBefore(today)) {
+        if (bookingDate.isBefore(today)) {
             throw new IllegalArgumentException("Booking date cannot be in the past");
         }
 
         // For same-day booking, validate that slot time hasn't passed
-        if (request.getBookingDate().equals(today)) {
+        if (bookingDate.equals(today)) {
             LocalTime now = LocalTime.now();
-            if (request.getSlotStartTime().isBefore(now)) {
+            if (slotStartTime.isBefore(now)) {
                 throw new IllegalArgumentException("Cannot book a time slot that has already passed");
             }
         }
 
         // Validate booking date (max 90 days ahead)
         LocalDate maxBookingDate = LocalDate.now().plusDays(90);
-        if (request.getBookingDate().isAfter(maxBookingDate)) {
+        if (bookingDate.isAfter(maxBookingDate)) {
             throw new IllegalArgumentException("Booking date cannot be more than 90 days in the future");
         }
 
         // Get doctor's schedule for the day
-        DayOfWeek dayOfWeek = DayOfWeek.valueOf(request.getBookingDate().getDayOfWeek().name());
-        List<DoctorSchedule> schedules = scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(
-                doctor.getId(), dayOfWeek);
+        DayOfWeek dayOfWeek = DayOfWeek.valueOf(bookingDate.getDayOfWeek().name());
+        List<DoctorSchedule> schedules = lookups.schedules(doctor.getId(), dayOfWeek);
 
         if (schedules.isEmpty()) {
             throw new IllegalArgumentException("Doctor is not available on this day");
         }
 
         // Find the applicable schedule and STRICTLY validate the time slot alignment
-        DoctorSchedule applicableSchedule = null;
+        SlotGrid applicableGrid = null;
         boolean isWithinAnySchedule = false;
         
         for (DoctorSchedule schedule : schedules) {
+            SlotGrid grid = slotGrids.get(schedule);
             // First check: Is the time within schedule hours?
-            if (!request.getSlotStartTime().isBefore(schedule.getStartTime()) &&
-                request.getSlotStartTime().isBefore(schedule.getEndTime())) {
+            if (grid.covers(slotStartTime)) {
                 isWithinAnySchedule = true;
                 
                 // Second check: Is the time EXACTLY on the slot grid?
-                if (isValidSlotTime(request.getSlotStartTime(), schedule)) {
-                    applicableSchedule = schedule;
+                // This prevents arbitrary times like 10:15 when slots are at 10:00, 10:30, etc.
+                if (grid.isOnGrid(slotStartTime)) {
+                    applicableGrid = grid;
                     break;
                 }
             }
         }
 
-        if (applicableSchedule == null) {
+        if (applicableGrid == null) {
             if (!isWithinAnySchedule) {
                 // Time is completely outside doctor's schedule hours
                 DoctorSchedule firstSchedule = schedules.get(0);
                 throw new IllegalArgumentException(
                         String.format("Doctor is not available at %s. Schedule for this day is %s to %s",
-                                request.getSlotStartTime(),
+                                slotStartTime,
                                 firstSchedule.getStartTime(),
                                 firstSchedule.getEndTime()));
             } else {
@@ -121,45 +712,80 @@ public class BookingService {
             }
         }
 
-        LocalTime slotEndTime = request.getSlotStartTime().plusMinutes(applicableSchedule.getSlotDurationMinutes());
+        return slotStartTime.plusMinutes(applicableGrid.slotMinutes());
+    }
 
-        // CRITICAL: Check for ANY overlapping booking (not just exact time match)
-        // This prevents partial overlaps like booking 10:15 when 10:00 is already booked
-        bookingRepository.findOverlappingBookingWithLock(
-                doctor.getId(),
-                request.getBookingDate(),
-                request.getSlotStartTime(),
-                slotEndTime
-        ).ifPresent(existing -> {
-            throw new BookingConflictException(
-                    "This time slot conflicts with an existing booking from " + 
-                    existing.getSlotStartTime() + " to " + existing.getSlotEndTime());
-        });
+    /**
+     * Hold a free slot for the user for {@code app.booking.hold-ttl} while they complete
+     * the booking. The request is validated exactly like a booking.
+     */
+    @Transactional(readOnly = true)
+    public SlotHoldResponse holdSlot(CreateBookingRequest request, UUID userId) {
+        Booking booking = prepareBooking(request, userId);
+        rejectOverlap(bookingRepository.findOverlappingBookings(booking.getDoctor().getId(),
+                booking.getBookingDate(), booking.getSlotStartTime(), booking.getSlotEndTime()));
 
-        // Create the booking
-        Booking booking = Booking.builder()
-                .doctor(doctor)
-                .patient(patient)
-                .bookingDate(request.getBookingDate())
-                .slotStartTime(request.getSlotStartTime())
-                .slotEndTime(slotEndTime)
-                .status(BookingStatus.PENDING)
-                .notes(request.getNotes())
-                .build();
+        SlotHoldRegistry.SlotHold hold = slotHolds.hold(booking.getDoctor().getId(), booking.getBookingDate(),
+                booking.getSlotStartTime(), booking.getSlotEndTime(), userId);
 
-        booking = bookingRepository.save(booking);
-        
-        log.info("Created booking {} for patient {} with doctor {} on {}",
-                booking.getId(), patient.getId(), doctor.getId(), request.getBookingDate());
+        log.info("User {} holds slot {} {} of doctor {} until {}",
+                userId, hold.date(), hold.start(), hold.doctorId(), hold.expiresAt());
 
-        return mapToResponse(booking);
+        return SlotHoldResponse.builder()
+                .holdId(hold.id())
+                .doctorId(hold.doctorId())
+                .bookingDate(hold.date())
+                .slotStartTime(hold.start())
+                .slotEndTime(hold.end())
+                .expiresAt(hold.expiresAt())
+                .build();
+    }
+
+    /**
+     * Release a slot hold before it expires.
+     */
+    public void releaseHold(UUID holdId, UUID userId) {
+        slotHolds.release(holdId, userId);
     }
 
     /**
      * Get available time slots for a doctor on a specific date.
+     * The day's slots are served from {@link AvailabilityCache}; holds and the current time
+     * are applied on every call.
      */
-    @Transactional(readOnly = true)
     public List<AvailableSlotDto> getAvailableSlots(UUID doctorId, LocalDate date) {
+        List<AvailabilityCache.DaySlot> daySlots = availabilityCache.get(doctorId, date,
+                () -> transactionRunner.runReadOnly(() -> loadDaySlots(doctorId, date)));
+        return toAvailableSlots(doctorId, date, daySlots);
+    }
+
+    /**
+     * Entity tag of {@link #getAvailableSlots} for the day, computed without touching the database:
+     * the day's version from {@link AvailabilityCache}, the slots currently held and, for today,
+     * the current minute. Read it before the slots, so a change in between only costs a full response.
+     */
+    public String getAvailableSlotsETag(UUID doctorId, LocalDate date) {
+        long holds = 0;
+        for (LocalTime start : slotHolds.heldStarts(doctorId, date)) {
+            // Order-independent mix of the held start times
+            holds += Long.rotateLeft((start.toSecondOfDay() + 1) * 0x9E3779B97F4A7C15L, 31) * 0xBF58476D1CE4E5B9L;
+        }
+        String tag = availabilityCache.versionTag(doctorId, date) + "." + Long.toHexString(holds);
+        if (date.equals(LocalDate.now())) {
+            tag += "." + LocalTime.now().toSecondOfDay() / 60;
+        }
+        return "\"" + tag + "\"";
+    }
+
+    private List<AvailabilityCache.DaySlot> loadDaySlots(UUID doctorId, LocalDate date) {
+        if (dayAvailability.isEnabled()) {
+            // A stored day implies the doctor exists (rows cascade with the doctor)
+            List<AvailabilityCache.DaySlot> stored = dayAvailability.findDay(doctorId, date);
+            if (stored != null) {
+                return stored;
+            }
+        }
+
         // Verify doctor exists
         if (!doctorRepository.existsById(doctorId)) {
             throw new ResourceNotFoundException("Doctor", "id", doctorId);
@@ -173,39 +799,283 @@ public class BookingService {
             return List.of();
         }
 
+        if (bookingProperties.getConcurrencyStrategy() == BookingConcurrencyStrategy.SLOT_INVENTORY) {
+            List<SlotInventory> inventory = slotInventoryRepository
+                    .findByDoctorIdAndSlotDateOrderBySlotStartAsc(doctorId, date);
+            if (!inventory.isEmpty() && matchesSchedules(inventory, schedules)) {
+                return inventoryDaySlots(inventory);
+            }
+        }
+
+        if (occupancyIndex.covers(date)) {
+            List<AvailabilityCache.DaySlot> slots = indexDaySlots(doctorId, date, schedules);
+            if (slots != null) {
+                return slots;
+            }
+        }
+
         // Get existing bookings for this doctor and date
         List<Booking> existingBookings = bookingRepository.findActiveBookingsByDoctorAndDate(doctorId, date);
-        Set<LocalTime> bookedSlots = existingBookings.stream()
-                .map(Booking::getSlotStartTime)
-                .collect(Collectors.toSet());
+        return gridDaySlots(schedules, existingBookings);
+    }
 
-        // Generate all possible slots
-        List<AvailableSlotDto> slots = new ArrayList<>();
-        for (DoctorSchedule schedule : schedules) {
-            LocalTime currentTime = schedule.getStartTime();
-            while (currentTime.plusMinutes(schedule.getSlotDurationMinutes()).isBefore(schedule.getEndTime().plusSeconds(1))) {
-                LocalTime endTime = currentTime.plusMinutes(schedule.getSlotDurationMinutes());
-                boolean available = !bookedSlots.contains(currentTime);
-                
-                // For today, also check if the slot is in the past
-                if (date.equals(LocalDate.now()) && currentTime.isBefore(LocalTime.now())) {
-                    available = false;
+    /**
+     * Get availability for a doctor over a date range of up to {@value #MAX_AVAILABILITY_DAYS} days.
+     * The doctor's schedules are fetched once and the range's bookings with a single query,
+     * instead of one {@link #getAvailableSlots} round-trip set per day. When the
+     * {@link DayAvailabilityReadModel} stores every day of the range, its rows are the only query.
+     */
+    @Transactional(readOnly = true)
+    public DoctorAvailabilityResponse getAvailability(UUID doctorId, LocalDate from, LocalDate to) {
+        Map<LocalDate, List<AvailabilityCache.DaySlot>> daySlotsByDate = rangeDaySlots(doctorId, from, to);
+
+        List<DayAvailabilityDto> days = new ArrayList<>();
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            days.add(DayAvailabilityDto.builder()
+                    .date(date)
+                    .slots(toAvailableSlots(doctorId, date, daySlotsByDate.get(date)))
+                    .build());
+        }
+
+        return DoctorAvailabilityResponse.builder()
+                .doctorId(doctorId)
+                .from(from)
+                .to(to)
+                .days(days)
+                .build();
+    }
+
+    /**
+     * Slots of every day of the range, before holds and the current time are applied.
+     */
+    private Map<LocalDate, List<AvailabilityCache.DaySlot>> rangeDaySlots(UUID doctorId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new IllegalArgumentException("'to' must not be before 'from'");
+        }
+        if (from.plusDays(MAX_AVAILABILITY_DAYS).isBefore(to)) {
+            throw new IllegalArgumentException(
+                    "Availability can be requested for at most " + MAX_AVAILABILITY_DAYS + " days");
+        }
+
+        Map<LocalDate, List<AvailabilityCache.DaySlot>> storedDays = dayAvailability.isEnabled()
+                ? dayAvailability.findRange(doctorId, from, to)
+                : Map.of();
+        return storedDays.size() == ChronoUnit.DAYS.between(from, to) + 1
+                ? storedDays
+                : loadDaySlots(doctorId, from, to, storedDays);
+    }
+
+    /**
+     * Slots of every day of the range from the live tables, except the days already stored.
+     */
+    private Map<LocalDate, List<AvailabilityCache.DaySlot>> loadDaySlots(
+            UUID doctorId, LocalDate from, LocalDate to, Map<LocalDate, List<AvailabilityCache.DaySlot>> storedDays) {
+        Doctor doctor = doctorRepository.findByIdWithSchedules(doctorId);
+        if (doctor == null) {
+            throw new ResourceNotFoundException("Doctor", "id", doctorId);
+        }
+        Map<DayOfWeek, List<DoctorSchedule>> schedulesByDay = doctor.getSchedules().stream()
+                .filter(schedule -> Boolean.TRUE.equals(schedule.getIsActive()))
+                .collect(Collectors.groupingBy(DoctorSchedule::getDayOfWeek));
+
+        Map<LocalDate, List<Booking>> bookingsByDate = bookingRepository
+                .findActiveBookingsByDoctorAndDateRange(doctorId, from, to).stream()
+                .collect(Collectors.groupingBy(Booking::getBookingDate));
+        Map<LocalDate, List<SlotInventory>> inventoryByDate =
+                bookingProperties.getConcurrencyStrategy() == BookingConcurrencyStrategy.SLOT_INVENTORY
+                        ? slotInventoryRepository
+                                .findByDoctorIdAndSlotDateBetweenOrderBySlotDateAscSlotStartAsc(doctorId, from, to)
+                                .stream()
+                                .collect(Collectors.groupingBy(SlotInventory::getSlotDate))
+                        : Map.of();
+
+        Map<LocalDate, List<AvailabilityCache.DaySlot>> daySlotsByDate = new HashMap<>(storedDays);
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            if (storedDays.containsKey(date)) {
+                continue;
+            }
+            List<DoctorSchedule> schedules = schedulesByDay.getOrDefault(
+                    DayOfWeek.valueOf(date.getDayOfWeek().name()), List.of());
+            List<SlotInventory> inventory = inventoryByDate.get(date);
+            List<AvailabilityCache.DaySlot> daySlots;
+            if (schedules.isEmpty()) {
+                daySlots = List.of();
+            } else if (inventory != null && matchesSchedules(inventory, schedules)) {
+                daySlots = inventoryDaySlots(inventory);
+            } else {
+                daySlots = gridDaySlots(schedules, bookingsByDate.getOrDefault(date, List.of()));
+            }
+            daySlotsByDate.put(date, daySlots);
+        }
+        return daySlotsByDate;
+    }
+
+    /**
+     * {@link #getAvailability} as one bitmask per day, encoded straight from the day slots
+     * without building slot DTOs. Consecutive equally long slots form a grid; grids shared by
+     * several days are listed once.
+     */
+    @Transactional(readOnly = true)
+    public BitmaskAvailabilityResponse getAvailabilityBitmask(UUID doctorId, LocalDate from, LocalDate to) {
+        Map<LocalDate, List<AvailabilityCache.DaySlot>> daySlotsByDate = rangeDaySlots(doctorId, from, to);
+        Map<SlotGridDto, Integer> grids = new LinkedHashMap<>();
+        List<DayBitmaskDto> days = new ArrayList<>(daySlotsByDate.size());
+        for (LocalDate date = from; !date.isAfter(to); date = date.plusDays(1)) {
+            List<AvailabilityCache.DaySlot> slots = daySlotsByDate.get(date);
+            LocalTime now = date.equals(LocalDate.now()) ? LocalTime.now() : null;
+            List<Integer> dayGrids = new ArrayList<>();
+            BitSet available = new BitSet(slots.size());
+            int runStart = 0;
+            for (int i = 0; i < slots.size(); i++) {
+                if (isAvailable(doctorId, date, slots.get(i), now)) {
+                    available.set(i);
+                }
+                boolean runEnds = i + 1 == slots.size()
+                        || !slots.get(i + 1).start().equals(slots.get(i).end())
+                        || slotMinutes(slots.get(i + 1)) != slotMinutes(slots.get(runStart));
+                if (runEnds) {
+                    SlotGridDto grid = SlotGridDto.builder()
+                            .startTime(slots.get(runStart).start())
+                            .slotMinutes(slotMinutes(slots.get(runStart)))
+                            .slotCount(i + 1 - runStart)
+                            .build();
+                    dayGrids.add(grids.computeIfAbsent(grid, key -> grids.size()));
+                    runStart = i + 1;
                 }
+            }
+            // BitSet.toByteArray drops trailing zero bytes; pad so every slot has its bit
+            byte[] bytes = Arrays.copyOf(available.toByteArray(), (slots.size() + 7) / 8);
+            days.add(DayBitmaskDto.builder()
+                    .date(date)
+                    .grids(dayGrids)
+                    .available(Base64.getEncoder().encodeToString(bytes))
+                    .build());
+        }
 
-                slots.add(AvailableSlotDto.builder()
-                        .doctorId(doctorId)
-                        .startTime(currentTime)
-                        .endTime(endTime)
-                        .available(available)
-                        .build());
+        return BitmaskAvailabilityResponse.builder()
+                .doctorId(doctorId)
+                .from(from)
+                .to(to)
+                .grids(new ArrayList<>(grids.keySet()))
+                .days(days)
+                .build();
+    }
 
-                currentTime = endTime;
+    private static int slotMinutes(AvailabilityCache.DaySlot slot) {
+        // A slot ending at midnight has an end time "before" its start
+        return (int) Math.floorMod(Duration.between(slot.start(), slot.end()).toMinutes(), 24 * 60);
+    }
+
+    /**
+     * Slots of one day from its materialized slot_inventory rows.
+     */
+    private static List<AvailabilityCache.DaySlot> inventoryDaySlots(List<SlotInventory> inventory) {
+        return inventory.stream()
+                .map(slot -> new AvailabilityCache.DaySlot(
+                        slot.getSlotStart(), slot.getSlotEnd(), slot.getState() == SlotState.FREE))
+                .toList();
+    }
+
+    /**
+     * Whether a day's inventory rows are exactly the slots of its current schedules. Rows are
+     * only reconciled when the generator rolls, so a day whose schedule changed since then is
+     * built from the grids instead.
+     */
+    private boolean matchesSchedules(List<SlotInventory> inventory, List<DoctorSchedule> schedules) {
+        List<SlotGrid> grids = schedules.stream().map(slotGrids::get).toList();
+        if (inventory.size() != grids.stream().mapToInt(SlotGrid::slotCount).sum()) {
+            return false;
+        }
+        for (SlotInventory slot : inventory) {
+            boolean onGrid = false;
+            for (SlotGrid grid : grids) {
+                int index = grid.slotIndex(slot.getSlotStart());
+                if (index >= 0 && grid.endOf(index).equals(slot.getSlotEnd())) {
+                    onGrid = true;
+                    break;
+                }
+            }
+            if (!onGrid) {
+                return false;
             }
         }
+        return true;
+    }
 
+    /**
+     * Slots of one day generated from the schedules' compiled grids, minus the day's bookings.
+     */
+    private List<AvailabilityCache.DaySlot> gridDaySlots(List<DoctorSchedule> schedules,
+                                                         List<Booking> existingBookings) {
+        // Walk each schedule's compiled grid, marking booked slots by index
+        List<AvailabilityCache.DaySlot> slots = new ArrayList<>();
+        for (DoctorSchedule schedule : schedules) {
+            SlotGrid grid = slotGrids.get(schedule);
+            BitSet booked = new BitSet(grid.slotCount());
+            for (Booking existing : existingBookings) {
+                int index = grid.slotIndex(existing.getSlotStartTime());
+                if (index >= 0) {
+                    booked.set(index);
+                }
+            }
+            for (int i = 0; i < grid.slotCount(); i++) {
+                slots.add(new AvailabilityCache.DaySlot(grid.startOf(i), grid.endOf(i), !booked.get(i)));
+            }
+        }
         return slots;
     }
 
+    /**
+     * Slots of one day generated from the schedules' compiled grids when the occupancy index
+     * has none of them booked, or null if it has. The index is only built when this is the single
+     * instance writing bookings, so its "free" answer is current; a booked slot is confirmed
+     * against the bookings table.
+     */
+    private List<AvailabilityCache.DaySlot> indexDaySlots(UUID doctorId, LocalDate date,
+                                                          List<DoctorSchedule> schedules) {
+        List<AvailabilityCache.DaySlot> slots = new ArrayList<>();
+        for (DoctorSchedule schedule : schedules) {
+            SlotGrid grid = slotGrids.get(schedule);
+            for (int i = 0; i < grid.slotCount(); i++) {
+                LocalTime start = grid.startOf(i);
+                LocalTime end = grid.endOf(i);
+                if (occupancyIndex.isOccupied(doctorId, date, start, end)) {
+                    return null;
+                }
+                slots.add(new AvailabilityCache.DaySlot(start, end, true));
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * Apply holds and, for today, the current time to a day's slots.
+     */
+    private List<AvailableSlotDto> toAvailableSlots(UUID doctorId, LocalDate date,
+                                                    List<AvailabilityCache.DaySlot> daySlots) {
+        LocalTime now = date.equals(LocalDate.now()) ? LocalTime.now() : null;
+        List<AvailableSlotDto> slots = new ArrayList<>(daySlots.size());
+        for (AvailabilityCache.DaySlot slot : daySlots) {
+            slots.add(AvailableSlotDto.builder()
+                    .doctorId(doctorId)
+                    .startTime(slot.start())
+                    .endTime(slot.end())
+                    .available(isAvailable(doctorId, date, slot, now))
+                    .build());
+        }
+        return slots;
+    }
+
+    /**
+     * @param now the current time when the date is today, otherwise null
+     */
+    private boolean isAvailable(UUID doctorId, LocalDate date, AvailabilityCache.DaySlot slot, LocalTime now) {
+        // For today, slots before the current time are in the past
+        return slot.free()
+                && !(now != null && slot.start().isBefore(now))
+                && !slotHolds.isHeld(doctorId, date, slot.start());
+    }
+
     /**
      * Get bookings for a doctor on a specific date.
      */
@@ -293,24 +1163,22 @@ public class BookingService {
      * PATIENT can only cancel their own bookings.
      * STAFF/ADMIN can cancel any booking.
      */
-    @Transactional
     public BookingResponse cancelBooking(UUID bookingId, UUID userId, String reason) {
+        if (bookingProperties.getConcurrencyStrategy() == BookingConcurrencyStrategy.SINGLE_WRITER) {
+            return bookingMailboxes.execute(findDoctorIdOfBooking(bookingId), occupancy -> {
+                BookingResponse response = transactionRunner.run(() -> doCancelBooking(bookingId, userId, reason));
+                occupancy.remove(response.getBookingDate(), response.getId());
+                return response;
+            });
+        }
+        return runWrite(() -> doCancelBooking(bookingId, userId, reason));
+    }
+
+    private BookingResponse doCancelBooking(UUID bookingId, UUID userId, String reason) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
 
-        // Get the user to check their role
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
-
-        // PATIENT can only cancel their own bookings
-        if (user.getRole() == UserRole.PATIENT) {
-            Patient patient = patientRepository.findByUserId(userId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Patient", "userId", userId));
-            if (!booking.getPatient().getId().equals(patient.getId())) {
-                throw new IllegalArgumentException("You can only cancel your own bookings");
-            }
-        }
-        // STAFF and ADMIN can cancel any booking (no additional check needed)
+        requireOwnerOrStaff(booking, userId, "cancel");
 
         if (booking.getStatus() == BookingStatus.CANCELLED) {
             throw new IllegalArgumentException("Booking is already cancelled");
@@ -323,17 +1191,151 @@ public class BookingService {
         booking.setStatus(BookingStatus.CANCELLED);
         booking.setCancellationReason(reason);
         booking = bookingRepository.save(booking);
+        if (bookingProperties.getConcurrencyStrategy() == BookingConcurrencyStrategy.SLOT_INVENTORY) {
+            slotInventoryRepository.release(booking.getDoctor().getId(), booking.getBookingDate(),
+                    booking.getSlotStartTime());
+        }
 
+        eventPublisher.publishEvent(BookingChangedEvent.released(booking.getDoctor().getId(),
+                booking.getBookingDate(), booking.getSlotStartTime(), booking.getSlotEndTime()));
         log.info("Cancelled booking {} with reason: {}", bookingId, reason);
 
         return mapToResponse(booking);
     }
 
+    /**
+     * Move a booking to another slot of the same doctor in one transaction.
+     * The row is updated in place, so the old slot is released and the new one taken
+     * atomically; no other patient can grab either of them in between.
+     */
+    public BookingResponse rescheduleBooking(UUID bookingId, RescheduleBookingRequest request, UUID userId) {
+        BookingConcurrencyStrategy strategy = bookingProperties.getConcurrencyStrategy();
+        Object[] source = bookingRepository.findDoctorAndDateById(bookingId).stream()
+                .findFirst()
+                .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
+        UUID doctorId = (UUID) source[0];
+        LocalDate previousDate = (LocalDate) source[1];
+        if (strategy == BookingConcurrencyStrategy.SINGLE_WRITER) {
+            return bookingMailboxes.execute(doctorId, occupancy -> {
+                Rescheduled rescheduled = failFastOnLockTimeout(doctorId, () -> transactionRunner.run(
+                        () -> doRescheduleBooking(bookingId, doctorId, previousDate, request, userId, strategy)));
+                BookingResponse response = rescheduled.booking();
+                occupancy.remove(rescheduled.previousDate(), response.getId());
+                occupancy.add(response.getBookingDate(), response.getId(),
+                        response.getSlotStartTime(), response.getSlotEndTime());
+                return response;
+            });
+        }
+
+        // Both days' stripes, taken in index order like a grouped write
+        Map<UUID, SortedSet<LocalDate>> days =
+                Map.of(doctorId, new TreeSet<>(List.of(previousDate, request.getBookingDate())));
+        return failFastOnLockTimeout(doctorId, () -> runWrite(
+                attempt -> slotLockManager.withLocks(days, attempt),
+                () -> doRescheduleBooking(bookingId, doctorId, previousDate, request, userId, strategy)).booking());
+    }
+
+    /**
+     * @param doctorId     the booking's doctor as read before the transaction
+     * @param previousDate the booking's date as read before the transaction; its day is locked
+     *                     before the booking itself is read
+     */
+    private Rescheduled doRescheduleBooking(UUID bookingId, UUID doctorId, LocalDate previousDate,
+                                            RescheduleBookingRequest request, UUID userId,
+                                            BookingConcurrencyStrategy strategy) {
+        applyLockTimeout();
+        LocalDate targetDate = request.getBookingDate();
+        LocalTime targetStart = request.getSlotStartTime();
+
+        // Lock both days in date order before the booking so two crossing reschedules cannot deadlock
+        SortedSet<LocalDate> days = new TreeSet<>(List.of(previousDate, targetDate));
+        if (strategy == BookingConcurrencyStrategy.ADVISORY_LOCK) {
+            days.forEach(day -> bookingRepository.acquireAdvisoryXactLock(advisoryLockKey(doctorId, day)));
+        }
+        List<Booking> dayBookings = switch (strategy) {
+            case SERIALIZABLE, SLOT_INVENTORY -> List.of();
+            default -> bookingRepository.findActiveBookingsByDoctorAndDatesForUpdate(doctorId, days);
+        };
+
+        // Locked read of the latest state: a cancel or reschedule that committed first is seen, never overwritten
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
+        requireOwnerOrStaff(booking, userId, "reschedule");
+
+        if (booking.getStatus() != BookingStatus.PENDING && booking.getStatus() != BookingStatus.CONFIRMED) {
+            throw new IllegalArgumentException("Only pending or confirmed bookings can be rescheduled");
+        }
+        if (!booking.getBookingDate().equals(previousDate)) {
+            throw new BookingConflictException("This booking was just changed by another request. Please try again.");
+        }
+        if (previousDate.equals(targetDate) && booking.getSlotStartTime().equals(targetStart)) {
+            throw new IllegalArgumentException("Booking is already scheduled at this slot");
+        }
+
+        Doctor doctor = booking.getDoctor();
+        BookingLookups lookups = new BookingLookups();
+        LocalTime targetEnd = validateSlot(doctor, targetDate, targetStart, lookups);
+        slotHolds.rejectIfHeldByOther(doctor.getId(), targetDate, targetStart, userId);
+
+        if (strategy == BookingConcurrencyStrategy.SLOT_INVENTORY) {
+            claimInventorySlot(doctor.getId(), targetDate, targetStart);
+            slotInventoryRepository.release(doctor.getId(), previousDate, booking.getSlotStartTime());
+        }
+        List<Booking> occupied = switch (strategy) {
+            case SERIALIZABLE, SLOT_INVENTORY ->
+                    bookingRepository.findOverlappingBookings(doctor.getId(), targetDate, targetStart, targetEnd);
+            default -> dayBookings;
+        };
+        rejectOverlap(occupied.stream()
+                .filter(existing -> !existing.getId().equals(bookingId))
+                .filter(existing -> existing.getBookingDate().equals(targetDate)
+                        && existing.getSlotStartTime().isBefore(targetEnd)
+                        && existing.getSlotEndTime().isAfter(targetStart))
+                .toList());
+
+        LocalTime previousStart = booking.getSlotStartTime();
+        LocalTime previousEnd = booking.getSlotEndTime();
+        booking.setBookingDate(targetDate);
+        booking.setSlotStartTime(targetStart);
+        booking.setSlotEndTime(targetEnd);
+        booking = writeBooking(booking);
+        slotHolds.consume(doctor.getId(), targetDate, targetStart, userId);
+
+        eventPublisher.publishEvent(BookingChangedEvent.released(doctor.getId(), previousDate, previousStart, previousEnd));
+        eventPublisher.publishEvent(BookingChangedEvent.booked(booking, lookups.schedules(doctor.getId(), targetDate)));
+        log.info("Rescheduled booking {} from {} {} to {} {}", bookingId, previousDate, previousStart,
+                targetDate, targetStart);
+        return new Rescheduled(previousDate, mapToResponse(booking));
+    }
+
+    /**
+     * PATIENT users may only change their own bookings; STAFF and ADMIN may change any.
+     */
+    private void requireOwnerOrStaff(Booking booking, UUID userId, String action) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", "id", userId));
+
+        if (user.getRole() == UserRole.PATIENT) {
+            Patient patient = patientRepository.findByUserId(userId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Patient", "userId", userId));
+            if (!booking.getPatient().getId().equals(patient.getId())) {
+                throw new IllegalArgumentException("You can only " + action + " your own bookings");
+            }
+        }
+    }
+
     /**
      * Confirm a booking (staff/admin only).
      */
-    @Transactional
     public BookingResponse confirmBooking(UUID bookingId) {
+        if (bookingProperties.getConcurrencyStrategy() == BookingConcurrencyStrategy.SINGLE_WRITER) {
+            return bookingMailboxes.execute(findDoctorIdOfBooking(bookingId),
+                    occupancy -> transactionRunner.run(() -> doConfirmBooking(bookingId)));
+        }
+        return runWrite(() -> doConfirmBooking(bookingId));
+    }
+
+    private BookingResponse doConfirmBooking(UUID bookingId) {
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
 
@@ -349,6 +1351,14 @@ public class BookingService {
         return mapToResponse(booking);
     }
 
+    /**
+     * Resolve the doctor of a booking so the write can be routed to the doctor's mailbox.
+     */
+    private UUID findDoctorIdOfBooking(UUID bookingId) {
+        return bookingRepository.findDoctorIdById(bookingId)
+                .orElseThrow(() -> new ResourceNotFoundException("Booking", "id", bookingId));
+    }
+
     /**
      * Map Booking entity to BookingResponse DTO.
      */
@@ -377,26 +1387,127 @@ public class BookingService {
     }
 
     /**
-     * Validate that the requested slot time is EXACTLY on the schedule's slot grid.
-     * This prevents arbitrary times like 10:15 when slots are at 10:00, 10:30, etc.
-     * 
-     * @param requestedTime The time to validate
-     * @param schedule The doctor's schedule
-     * @return true if the time is valid (on the grid), false otherwise
+     * Throw a BookingConflictException describing the first overlapping booking, if any.
      */
-    private boolean isValidSlotTime(LocalTime requestedTime, DoctorSchedule schedule) {
-        LocalTime current = schedule.getStartTime();
-        LocalTime end = schedule.getEndTime();
-        int slotDuration = schedule.getSlotDurationMinutes();
-        
-        // Walk through all valid slot times and check for exact match
-        while (current.plusMinutes(slotDuration).isBefore(end.plusSeconds(1))) {
-            if (current.equals(requestedTime)) {
-                return true; // Found exact match on the grid
+    private void rejectOverlap(List<Booking> overlapping) {
+        if (!overlapping.isEmpty()) {
+            Booking existing = overlapping.get(0);
+            throw overlapConflict(existing.getSlotStartTime(), existing.getSlotEndTime());
+        }
+    }
+
+    private BookingConflictException overlapConflict(LocalTime existingStart, LocalTime existingEnd) {
+        return new BookingConflictException(
+                "This time slot conflicts with an existing booking from " + 
+                existingStart + " to " + existingEnd);
+    }
+
+    /**
+     * Claim a slot_inventory row for a booking. A day outside the materialized horizon is
+     * materialized on demand first.
+     *
+     * @throws BookingConflictException if the slot is booked or being claimed by another transaction
+     */
+    private void claimInventorySlot(UUID doctorId, LocalDate date, LocalTime start) {
+        if (slotInventoryRepository.claim(doctorId, date, start) == 1) {
+            return;
+        }
+        if (!slotInventoryRepository.existsByDoctorIdAndSlotDateAndSlotStart(doctorId, date, start)
+                && slotInventoryRepository.materializeDoctor(doctorId, date, date) > 0
+                && slotInventoryRepository.claim(doctorId, date, start) == 1) {
+            return;
+        }
+        throw new BookingConflictException("This time slot is no longer available. Please select a different time.");
+    }
+
+    /**
+     * Advisory lock key for a doctor's day.
+     * Collisions only cause unrelated days to serialize, never a missed conflict.
+     */
+    static long advisoryLockKey(UUID doctorId, LocalDate bookingDate) {
+        long hash = doctorId.getMostSignificantBits() ^ doctorId.getLeastSignificantBits();
+        return 31 * hash + bookingDate.toEpochDay();
+    }
+
+    /**
+     * Insert or update a booking and flush immediately so that a slot constraint violation
+     * surfaces here as a BookingConflictException instead of at commit time.
+     */
+    private Booking writeBooking(Booking booking) {
+        try {
+            return bookingRepository.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException ex) {
+            String message = ex.getMostSpecificCause().getMessage();
+            if (message != null && (message.contains(Booking.NO_OVERLAP_CONSTRAINT)
+                    || message.contains(Booking.NO_DOUBLE_BOOKING_CONSTRAINT))) {
+                throw new BookingConflictException(
+                        "This time slot conflicts with an existing booking", ex);
             }
-            current = current.plusMinutes(slotDuration);
+            throw ex;
+        }
+    }
+
+    private record DoctorDay(UUID doctorId, LocalDate date) {
+    }
+
+    private record DoctorWeekday(UUID doctorId, DayOfWeek dayOfWeek) {
+    }
+
+    private record Rescheduled(LocalDate previousDate, BookingResponse booking) {
+    }
+
+    /**
+     * Patient, doctor and schedule lookups, memoized for one create call so that
+     * multi-booking requests load each of them only once.
+     */
+    private final class BookingLookups {
+
+        private final Map<UUID, Patient> patients = new HashMap<>();
+        private final Map<UUID, Doctor> doctors = new HashMap<>();
+        private final Map<DoctorWeekday, List<DoctorSchedule>> schedules = new HashMap<>();
+
+        Patient patient(UUID userId) {
+            return patients.computeIfAbsent(userId, id -> patientRepository.findByUserId(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Patient", "userId", id)));
+        }
+
+        Doctor doctor(UUID doctorId) {
+            return doctors.computeIfAbsent(doctorId, id -> doctorRepository.findById(id)
+                    .orElseThrow(() -> new ResourceNotFoundException("Doctor", "id", id)));
+        }
+
+        /**
+         * Prefetch the patient, doctor and weekday schedules of a request with one query,
+         * unless they are all memoized already. When the patient or doctor does not exist
+         * nothing is cached, and the single lookups below report which one is missing.
+         */
+        void loadContext(UUID userId, UUID doctorId, DayOfWeek dayOfWeek) {
+            DoctorWeekday weekday = new DoctorWeekday(doctorId, dayOfWeek);
+            if (patients.containsKey(userId) && doctors.containsKey(doctorId) && schedules.containsKey(weekday)) {
+                return;
+            }
+            List<Object[]> rows = doctorRepository.findBookingContext(userId, doctorId, dayOfWeek);
+            if (rows.isEmpty()) {
+                return;
+            }
+            List<DoctorSchedule> daySchedules = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                if (row[2] != null) {
+                    daySchedules.add((DoctorSchedule) row[2]);
+                }
+            }
+            patients.putIfAbsent(userId, (Patient) rows.get(0)[0]);
+            doctors.putIfAbsent(doctorId, (Doctor) rows.get(0)[1]);
+            schedules.putIfAbsent(weekday, daySchedules);
+        }
+
+        List<DoctorSchedule> schedules(UUID doctorId, LocalDate date) {
+            return schedules(doctorId, DayOfWeek.valueOf(date.getDayOfWeek().name()));
+        }
+
+        List<DoctorSchedule> schedules(UUID doctorId, DayOfWeek dayOfWeek) {
+            return schedules.computeIfAbsent(new DoctorWeekday(doctorId, dayOfWeek),
+                    key -> scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(key.doctorId(), key.dayOfWeek()));
         }
-        
-        return false; // Requested time is not on the slot grid
     }
 }
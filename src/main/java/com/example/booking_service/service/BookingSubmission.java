@@ -0,0 +1,11 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.dto.CreateBookingRequest;
+
+import java.util.UUID;
+
+/**
+ * A booking request together with the user who submitted it.
+ */
+public record BookingSubmission(CreateBookingRequest request, UUID userId) {
+}
@@ -0,0 +1,206 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.exception.BookingBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Runs booking writes in their own transaction with the isolation level
+ * required by the configured concurrency strategy.
+ * SERIALIZABLE transactions are retried when PostgreSQL aborts them with a
+ * serialization failure (SQLSTATE 40001), after a jittered exponential backoff.
+ * Retries draw from a shared budget that every transaction refills by a fraction
+ * of a retry, so a hot spot cannot turn into a retry storm.
+ */
+@Component
+@Slf4j
+public class BookingTransactionRunner {
+
+    private static final String SERIALIZATION_FAILURE = "40001";
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    private final TransactionTemplate readCommitted;
+    private final TransactionTemplate readOnly;
+    private final TransactionTemplate serializable;
+    private final long backoffBaseNanos;
+    private final long backoffMaxNanos;
+    private final double budgetRatio;
+    private final double budgetCapacity;
+    private double budgetTokens;
+    private final LongAdder serializationRetries = new LongAdder();
+    private final Counter retryCounter;
+    private final Counter committedCounter;
+    private final Counter exhaustedCounter;
+    private final Counter budgetExhaustedCounter;
+    private final Counter failedCounter;
+
+    public BookingTransactionRunner(PlatformTransactionManager transactionManager,
+                                    BookingProperties properties,
+                                    MeterRegistry meterRegistry) {
+        this.readCommitted = new TransactionTemplate(transactionManager);
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.serializable = new TransactionTemplate(transactionManager);
+        this.serializable.setIsolationLevel(TransactionDefinition.ISOLATION_SERIALIZABLE);
+        this.backoffBaseNanos = properties.getSerializableBackoffBase().toNanos();
+        this.backoffMaxNanos = properties.getSerializableBackoffMax().toNanos();
+        this.budgetRatio = properties.getSerializableRetryBudgetRatio();
+        this.budgetCapacity = Math.max(properties.getSerializableRetryBudgetMax(), 1);
+        this.budgetTokens = budgetCapacity;
+
+        this.retryCounter = Counter.builder("booking.serializable.retries")
+                .description("SERIALIZABLE booking transactions retried after a serialization failure")
+                .register(meterRegistry);
+        this.committedCounter = outcomeCounter(meterRegistry, "committed");
+        this.exhaustedCounter = outcomeCounter(meterRegistry, "attempts_exhausted");
+        this.budgetExhaustedCounter = outcomeCounter(meterRegistry, "budget_exhausted");
+        this.failedCounter = outcomeCounter(meterRegistry, "failed");
+    }
+
+    /**
+     * Run the action in a transaction with the default isolation level.
+     */
+    public <T> T run(Supplier<T> action) {
+        return readCommitted.execute(status -> action.get());
+    }
+
+    /**
+     * Run the action in a read-only transaction.
+     */
+    public <T> T runReadOnly(Supplier<T> action) {
+        return readOnly.execute(status -> action.get());
+    }
+
+    /**
+     * Run the action in a SERIALIZABLE transaction, retrying it on serialization failure.
+     *
+     * @param maxAttempts total attempts including the first one
+     * @throws BookingBusyException if the transaction still fails after the last attempt
+     *                              or the retry budget is spent
+     */
+    public <T> T runSerializable(int maxAttempts, Supplier<T> action) {
+        return runSerializable(maxAttempts, Supplier::get, action);
+    }
+
+    /**
+     * {@link #runSerializable(int, Supplier)} with every attempt, transaction included, run through
+     * aroundAttempt, e.g. to hold an in-JVM lock during the attempt but not during the backoff.
+     */
+    public <T> T runSerializable(int maxAttempts, Function<Supplier<T>, T> aroundAttempt, Supplier<T> action) {
+        depositRetryBudget();
+        int attempt = 1;
+        while (true) {
+            try {
+                T result = aroundAttempt.apply(() -> serializable.execute(status -> action.get()));
+                committedCounter.increment();
+                return result;
+            } catch (RuntimeException ex) {
+                if (!isSerializationFailure(ex)) {
+                    failedCounter.increment();
+                    throw ex;
+                }
+                if (attempt >= maxAttempts) {
+                    exhaustedCounter.increment();
+                    throw concurrentChanges(ex);
+                }
+                if (!withdrawRetryBudget()) {
+                    budgetExhaustedCounter.increment();
+                    log.warn("Serialization retry budget exhausted, failing attempt {}/{}", attempt, maxAttempts);
+                    throw concurrentChanges(ex);
+                }
+                serializationRetries.increment();
+                retryCounter.increment();
+                log.debug("Serialization failure on attempt {}/{}, retrying", attempt, maxAttempts);
+                backOff(attempt, ex);
+                attempt++;
+            }
+        }
+    }
+
+    /**
+     * Total number of SERIALIZABLE retries since startup.
+     */
+    public long getSerializationRetries() {
+        return serializationRetries.sum();
+    }
+
+    /**
+     * Walk the cause chain for a JDBC serialization failure.
+     * Depending on where PostgreSQL detects it (statement or commit) the
+     * failure reaches us wrapped in different Spring/Hibernate exceptions.
+     */
+    static boolean isSerializationFailure(Throwable ex) {
+        return hasSqlState(ex, SERIALIZATION_FAILURE);
+    }
+
+    /**
+     * Walk the cause chain for a PostgreSQL lock_timeout (SQLSTATE 55P03).
+     */
+    static boolean isLockTimeout(Throwable ex) {
+        return hasSqlState(ex, LOCK_NOT_AVAILABLE);
+    }
+
+    private static boolean hasSqlState(Throwable ex, String sqlState) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException && sqlState.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private synchronized void depositRetryBudget() {
+        budgetTokens = Math.min(budgetCapacity, budgetTokens + budgetRatio);
+    }
+
+    private synchronized boolean withdrawRetryBudget() {
+        if (budgetTokens < 1) {
+            return false;
+        }
+        budgetTokens -= 1;
+        return true;
+    }
+
+    /**
+     * Sleep a random time up to base * 2^(attempt - 1), capped at the maximum ("full jitter").
+     */
+    private void backOff(int attempt, RuntimeException cause) {
+        long ceiling = Math.min(backoffMaxNanos, backoffBaseNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw concurrentChanges(cause);
+        }
+    }
+
+    private BookingBusyException concurrentChanges(RuntimeException cause) {
+        return new BookingBusyException(
+                "The booking could not be completed because of concurrent changes. Please try again.",
+                Math.max(1, Duration.ofNanos(backoffMaxNanos).toSeconds()), cause);
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("booking.serializable.outcomes")
+                .description("Final outcome of SERIALIZABLE booking transactions")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
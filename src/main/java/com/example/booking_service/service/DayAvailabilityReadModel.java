@@ -0,0 +1,255 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.entity.Booking;
+import com.example.booking_service.entity.DayOfWeek;
+import com.example.booking_service.entity.Doctor;
+import com.example.booking_service.entity.DoctorDayAvailability;
+import com.example.booking_service.entity.DoctorSchedule;
+import com.example.booking_service.repository.BookingRepository;
+import com.example.booking_service.repository.DoctorDayAvailabilityRepository;
+import com.example.booking_service.repository.DoctorRepository;
+import com.example.booking_service.repository.DoctorScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains the doctor_day_availability read model when {@code app.booking.day-availability-enabled}
+ * is set: one row per active doctor and day of the booking horizon with the day's slot layout
+ * and a bitmask of free slots, so availability reads are a single indexed row lookup.
+ *
+ * Every {@link BookingChangedEvent} flips its slot's bit in the publishing transaction, so the
+ * row commits or rolls back with the booking. A row that is missing or was built for other
+ * schedules is rebuilt from that transaction's view of the day first. Rows of days entering the
+ * horizon, and rows whose schedules changed, are regenerated at startup and on
+ * {@code app.booking.day-availability-cron}.
+ *
+ * The row is shared by every slot of the day, so under SERIALIZABLE two bookings of different
+ * slots of the same doctor's day conflict on it and one of them is retried.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DayAvailabilityReadModel {
+
+    private final BookingProperties bookingProperties;
+    private final DoctorDayAvailabilityRepository availabilityRepository;
+    private final DoctorRepository doctorRepository;
+    private final DoctorScheduleRepository scheduleRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingTransactionRunner transactionRunner;
+    private final SlotGridCache slotGrids;
+
+    public boolean isEnabled() {
+        return bookingProperties.isDayAvailabilityEnabled();
+    }
+
+    /**
+     * The stored slots of the doctor's day, or null if the day has no row.
+     */
+    public List<AvailabilityCache.DaySlot> findDay(UUID doctorId, LocalDate date) {
+        return availabilityRepository.findByDoctorIdAndDayDate(doctorId, date)
+                .map(DayAvailabilityReadModel::decode)
+                .orElse(null);
+    }
+
+    /**
+     * The stored slots of the doctor's days between two dates (inclusive); days without a row are absent.
+     */
+    public Map<LocalDate, List<AvailabilityCache.DaySlot>> findRange(UUID doctorId, LocalDate from, LocalDate to) {
+        return availabilityRepository.findByDoctorIdAndDayDateBetween(doctorId, from, to).stream()
+                .collect(Collectors.toMap(DoctorDayAvailability::getDayDate, DayAvailabilityReadModel::decode));
+    }
+
+    /**
+     * {@link #findRange} for several doctors with one query, by doctor id.
+     */
+    public Map<UUID, Map<LocalDate, List<AvailabilityCache.DaySlot>>> findRange(Collection<UUID> doctorIds,
+                                                                                LocalDate from, LocalDate to) {
+        Map<UUID, Map<LocalDate, List<AvailabilityCache.DaySlot>>> days = new HashMap<>();
+        for (DoctorDayAvailability row : availabilityRepository.findByDoctorIdInAndDayDateBetween(doctorIds, from, to)) {
+            days.computeIfAbsent(row.getDoctorId(), id -> new HashMap<>()).put(row.getDayDate(), decode(row));
+        }
+        return days;
+    }
+
+    /**
+     * Flip the slot's bit inside the transaction that changed the booking.
+     */
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        if (!isEnabled() || !inHorizon(event.date())) {
+            return;
+        }
+        UUID doctorId = event.doctorId();
+        LocalDate date = event.date();
+        // The write has usually loaded the day's schedules already; cancel and the old day of a reschedule have not
+        List<DoctorSchedule> schedules = event.daySchedules() != null
+                ? event.daySchedules()
+                : scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(
+                        doctorId, DayOfWeek.valueOf(date.getDayOfWeek().name()));
+        List<SlotGrid> grids = grids(schedules);
+        String layout = layout(grids);
+        int slotIndex = slotIndex(grids, event.slotStart());
+        int free = event.change() == BookingChangedEvent.Change.RELEASED ? 1 : 0;
+        if (slotIndex >= 0 && availabilityRepository.markSlot(doctorId, date, layout, slotIndex, free) == 1) {
+            return;
+        }
+
+        // Missing or built for other schedules. The delete waits for writers of the old row,
+        // so the rebuild below sees their bookings; the bit is set again afterwards in case a
+        // concurrent transaction inserted the row from a view without this booking.
+        availabilityRepository.deleteStale(doctorId, date, layout);
+        if (!availabilityRepository.existsByDoctorIdAndDayDate(doctorId, date)) {
+            insert(doctorId, date, grids, bookingRepository.findActiveBookingsByDoctorAndDate(doctorId, date));
+        }
+        if (slotIndex >= 0) {
+            availabilityRepository.markSlot(doctorId, date, layout, slotIndex, free);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        roll();
+    }
+
+    /**
+     * Drop past days and generate rows for days of the horizon that have none or were built
+     * for other schedules, one doctor per transaction.
+     */
+    @Scheduled(cron = "${app.booking.day-availability-cron:0 20 0 * * *}")
+    public void roll() {
+        if (!isEnabled()) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate lastDay = today.plusDays(BookingService.MAX_AVAILABILITY_DAYS);
+        int dropped = transactionRunner.run(() -> availabilityRepository.deleteByDayDateBefore(today));
+        int created = 0;
+        for (Doctor doctor : doctorRepository.findAllActiveDoctorsWithSchedules()) {
+            created += transactionRunner.run(() -> generate(doctor, today, lastDay));
+        }
+        log.info("Day availability rolled to {}: {} days created, {} past days dropped", lastDay, created, dropped);
+    }
+
+    private int generate(Doctor doctor, LocalDate firstDay, LocalDate lastDay) {
+        Map<LocalDate, String> layouts = new HashMap<>();
+        for (Object[] row : availabilityRepository.findDayLayouts(doctor.getId(), firstDay, lastDay)) {
+            layouts.put((LocalDate) row[0], (String) row[1]);
+        }
+        Map<LocalDate, List<Booking>> bookingsByDate = bookingRepository
+                .findActiveBookingsByDoctorAndDateRange(doctor.getId(), firstDay, lastDay).stream()
+                .collect(Collectors.groupingBy(Booking::getBookingDate));
+        Map<DayOfWeek, List<DoctorSchedule>> schedulesByDay = doctor.getSchedules().stream()
+                .filter(schedule -> Boolean.TRUE.equals(schedule.getIsActive()))
+                .collect(Collectors.groupingBy(DoctorSchedule::getDayOfWeek));
+
+        int created = 0;
+        for (LocalDate date = firstDay; !date.isAfter(lastDay); date = date.plusDays(1)) {
+            List<SlotGrid> grids = grids(schedulesByDay.getOrDefault(
+                    DayOfWeek.valueOf(date.getDayOfWeek().name()), List.of()));
+            String layout = layout(grids);
+            String existing = layouts.get(date);
+            if (layout.equals(existing)) {
+                continue;
+            }
+            if (existing != null) {
+                // Schedules changed since the row was built
+                availabilityRepository.deleteStale(doctor.getId(), date, layout);
+            }
+            created += insert(doctor.getId(), date, grids, bookingsByDate.getOrDefault(date, List.of()));
+        }
+        return created;
+    }
+
+    private int insert(UUID doctorId, LocalDate date, List<SlotGrid> grids, List<Booking> bookings) {
+        int slotCount = grids.stream().mapToInt(SlotGrid::slotCount).sum();
+        BitSet free = new BitSet(slotCount);
+        free.set(0, slotCount);
+        for (Booking booking : bookings) {
+            int index = slotIndex(grids, booking.getSlotStartTime());
+            if (index >= 0) {
+                free.clear(index);
+            }
+        }
+        return availabilityRepository.insertIfAbsent(doctorId, date, layout(grids),
+                toBytes(free, slotCount), slotCount, free.cardinality());
+    }
+
+    private boolean inHorizon(LocalDate date) {
+        LocalDate today = LocalDate.now();
+        return !date.isBefore(today) && !date.isAfter(today.plusDays(BookingService.MAX_AVAILABILITY_DAYS));
+    }
+
+    /**
+     * The schedules' grids in slot order.
+     */
+    private List<SlotGrid> grids(List<DoctorSchedule> schedules) {
+        return schedules.stream()
+                .map(slotGrids::get)
+                .sorted(Comparator.comparing(grid -> grid.startMinuteOf(0)))
+                .toList();
+    }
+
+    static String layout(List<SlotGrid> grids) {
+        return grids.stream()
+                .map(grid -> grid.startMinuteOf(0) + "/" + grid.slotMinutes() + "/" + grid.slotCount())
+                .collect(Collectors.joining(";"));
+    }
+
+    /**
+     * Position of the slot starting at the time across the day's grids, or -1 if none does.
+     */
+    static int slotIndex(List<SlotGrid> grids, LocalTime start) {
+        int offset = 0;
+        for (SlotGrid grid : grids) {
+            int index = grid.slotIndex(start);
+            if (index >= 0) {
+                return offset + index;
+            }
+            offset += grid.slotCount();
+        }
+        return -1;
+    }
+
+    static List<AvailabilityCache.DaySlot> decode(DoctorDayAvailability row) {
+        if (row.getLayout().isEmpty()) {
+            return List.of();
+        }
+        BitSet free = BitSet.valueOf(row.getFreeMask());
+        List<AvailabilityCache.DaySlot> slots = new ArrayList<>(row.getSlotCount());
+        for (String part : row.getLayout().split(";")) {
+            String[] fields = part.split("/");
+            int startMinute = Integer.parseInt(fields[0]);
+            int slotMinutes = Integer.parseInt(fields[1]);
+            int count = Integer.parseInt(fields[2]);
+            for (int i = 0; i < count; i++) {
+                LocalTime start = LocalTime.MIDNIGHT.plusMinutes(startMinute + (long) i * slotMinutes);
+                slots.add(new AvailabilityCache.DaySlot(start, start.plusMinutes(slotMinutes), free.get(slots.size())));
+            }
+        }
+        return slots;
+    }
+
+    // BitSet.toByteArray drops trailing zero bytes; every slot needs its bit
+    private static byte[] toBytes(BitSet bits, int size) {
+        return Arrays.copyOf(bits.toByteArray(), (size + 7) / 8);
+    }
+}
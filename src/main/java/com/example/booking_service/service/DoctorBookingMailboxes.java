@@ -0,0 +1,247 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.exception.BookingBusyException;
+import com.example.booking_service.exception.ResourceNotFoundException;
+import com.example.booking_service.repository.BookingRepository;
+import com.example.booking_service.repository.DoctorRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Single-writer booking execution: every write for a doctor is routed to that
+ * doctor's serial mailbox, so at most one write per doctor runs at a time and
+ * conflicts are decided against the mailbox's in-memory {@link DoctorOccupancy}
+ * instead of by waiting on database locks.
+ * Mailboxes drain on a shared, bounded worker pool; a mailbox keeps a worker
+ * only while it has queued work. A mailbox is only created for an existing doctor
+ * and is dropped once it has been idle longer than the occupancy TTL.
+ */
+@Component
+@Slf4j
+public class DoctorBookingMailboxes {
+
+    // Tasks a mailbox runs before yielding its worker to other doctors
+    private static final int DRAIN_BATCH = 32;
+
+    private final ConcurrentHashMap<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+    private final BookingRepository bookingRepository;
+    private final DoctorRepository doctorRepository;
+    private final int queueCapacity;
+    private final long timeoutNanos;
+    private final long occupancyTtlNanos;
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter rejectedCounter;
+
+    public DoctorBookingMailboxes(BookingProperties properties,
+                                  BookingRepository bookingRepository,
+                                  DoctorRepository doctorRepository,
+                                  MeterRegistry meterRegistry) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(properties.getSingleWriterThreads(), 1), runnable -> {
+            Thread thread = new Thread(runnable, "booking-mailbox-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.bookingRepository = bookingRepository;
+        this.doctorRepository = doctorRepository;
+        this.queueCapacity = properties.getSingleWriterQueueCapacity();
+        this.timeoutNanos = properties.getSingleWriterTimeout().toNanos();
+        this.occupancyTtlNanos = properties.getSingleWriterOccupancyTtl().toNanos();
+        Gauge.builder("booking.mailbox.pending", pending, AtomicLong::get)
+                .description("Booking writes queued in per-doctor mailboxes")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("booking.mailbox.rejected")
+                .description("Booking writes rejected because a doctor's mailbox was full or too slow")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the task on the doctor's mailbox and wait for its result.
+     * A task that has not started within the configured timeout is withdrawn and the
+     * caller gets a {@link BookingBusyException}; a task that already started is
+     * always awaited, so the caller never misses the outcome of a committed write.
+     *
+     * @throws ResourceNotFoundException if the doctor has no mailbox yet and does not exist
+     */
+    public <T> T execute(UUID doctorId, Function<DoctorOccupancy, T> task) {
+        if (!mailboxes.containsKey(doctorId) && !doctorRepository.existsById(doctorId)) {
+            throw new ResourceNotFoundException("Doctor", "id", doctorId);
+        }
+        Task<T> queued = new Task<>(task);
+        boolean[] accepted = {false};
+        // Offered under the entry's lock, so evictIdle cannot drop a mailbox that just received work
+        mailboxes.compute(doctorId, (id, mailbox) -> {
+            Mailbox target = mailbox != null ? mailbox : new Mailbox(id);
+            accepted[0] = target.offer(queued);
+            return target;
+        });
+        if (!accepted[0]) {
+            rejectedCounter.increment();
+            log.warn("Booking mailbox for doctor {} is full", doctorId);
+            throw new BookingBusyException(
+                    "This doctor is receiving many bookings right now. Please try again shortly.", 1);
+        }
+
+        try {
+            try {
+                return queued.result.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException ex) {
+                if (queued.withdraw()) {
+                    rejectedCounter.increment();
+                    log.warn("Booking write for doctor {} timed out in its mailbox", doctorId);
+                    throw new BookingBusyException(
+                            "This doctor is receiving many bookings right now. Please try again shortly.",
+                            Math.max(1, TimeUnit.NANOSECONDS.toSeconds(timeoutNanos)));
+                }
+                return queued.result.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new BookingBusyException("Booking request was interrupted", 1, ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    /**
+     * Drop mailboxes that have had no work for longer than the occupancy TTL; their
+     * occupancy would be reloaded on next use anyway.
+     */
+    @Scheduled(fixedDelayString = "${app.booking.single-writer-occupancy-ttl:30s}",
+            initialDelayString = "${app.booking.single-writer-occupancy-ttl:30s}")
+    public void evictIdle() {
+        long idleSince = System.nanoTime() - occupancyTtlNanos;
+        for (UUID doctorId : mailboxes.keySet()) {
+            mailboxes.computeIfPresent(doctorId, (id, mailbox) -> mailbox.isIdleSince(idleSince) ? null : mailbox);
+        }
+    }
+
+    int mailboxCount() {
+        return mailboxes.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    /**
+     * A queued write. Moves from PENDING to either RUNNING (picked up by the mailbox)
+     * or WITHDRAWN (caller gave up), never both.
+     */
+    private static final class Task<T> {
+
+        private static final int PENDING = 0;
+        private static final int RUNNING = 1;
+        private static final int WITHDRAWN = 2;
+
+        private final Function<DoctorOccupancy, T> work;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+
+        Task(Function<DoctorOccupancy, T> work) {
+            this.work = work;
+        }
+
+        boolean withdraw() {
+            return state.compareAndSet(PENDING, WITHDRAWN);
+        }
+
+        void run(DoctorOccupancy occupancy) {
+            if (!state.compareAndSet(PENDING, RUNNING)) {
+                return;
+            }
+            try {
+                result.complete(work.apply(occupancy));
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        }
+    }
+
+    /**
+     * Serial queue for one doctor. The scheduled flag guarantees at most one worker
+     * drains it at a time; the occupancy is only touched by that worker.
+     */
+    private final class Mailbox implements Runnable {
+
+        private final Queue<Task<?>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+        private final AtomicInteger scheduled = new AtomicInteger();
+        private final DoctorOccupancy occupancy;
+        private volatile long lastOfferNanos = System.nanoTime();
+
+        Mailbox(UUID doctorId) {
+            this.occupancy = new DoctorOccupancy(
+                    date -> bookingRepository.findActiveBookingsByDoctorAndDate(doctorId, date),
+                    occupancyTtlNanos);
+        }
+
+        boolean offer(Task<?> task) {
+            lastOfferNanos = System.nanoTime();
+            if (size.incrementAndGet() > queueCapacity) {
+                size.decrementAndGet();
+                return false;
+            }
+            queue.add(task);
+            pending.incrementAndGet();
+            if (scheduled.compareAndSet(0, 1)) {
+                workers.execute(this);
+            }
+            return true;
+        }
+
+        /**
+         * Nothing queued or running, and no offer since the given time.
+         */
+        boolean isIdleSince(long nanos) {
+            return size.get() == 0 && scheduled.get() == 0 && lastOfferNanos - nanos < 0;
+        }
+
+        @Override
+        public void run() {
+            Task<?> task;
+            int drained = 0;
+            while (drained < DRAIN_BATCH && (task = queue.poll()) != null) {
+                size.decrementAndGet();
+                pending.decrementAndGet();
+                task.run(occupancy);
+                drained++;
+            }
+            if (drained == DRAIN_BATCH && !queue.isEmpty()) {
+                // Still busy: go to the back of the worker queue so other doctors get a turn
+                workers.execute(this);
+                return;
+            }
+            scheduled.set(0);
+            // A task may have been added after the last poll but before the flag was cleared
+            if (!queue.isEmpty() && scheduled.compareAndSet(0, 1)) {
+                workers.execute(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.entity.Booking;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * In-memory occupancy of one doctor's days, owned by that doctor's booking mailbox.
+ * NOT thread-safe: it is only ever touched by the single writer draining the mailbox.
+ * Each day is loaded from the database on first use and reloaded after a TTL, so
+ * writes made by other nodes are picked up; the database constraints remain the
+ * final authority.
+ */
+class DoctorOccupancy {
+
+    /**
+     * An occupied [start, end) range of an active booking.
+     */
+    record Interval(UUID bookingId, LocalTime start, LocalTime end) {
+
+        boolean overlaps(LocalTime otherStart, LocalTime otherEnd) {
+            return start.isBefore(otherEnd) && end.isAfter(otherStart);
+        }
+    }
+
+    private record Day(long loadedAtNanos, List<Interval> intervals) {
+    }
+
+    private final Function<LocalDate, List<Booking>> loader;
+    private final long ttlNanos;
+    private final Map<LocalDate, Day> days = new HashMap<>();
+
+    DoctorOccupancy(Function<LocalDate, List<Booking>> loader, long ttlNanos) {
+        this.loader = loader;
+        this.ttlNanos = ttlNanos;
+    }
+
+    /**
+     * Find an active booking overlapping [start, end) on the given date.
+     */
+    Optional<Interval> findOverlap(LocalDate date, LocalTime start, LocalTime end) {
+        return day(date).intervals().stream()
+                .filter(interval -> interval.overlaps(start, end))
+                .findFirst();
+    }
+
+    /**
+     * Record a committed booking. Ignored if the day is not loaded; it will be read on next use.
+     */
+    void add(LocalDate date, UUID bookingId, LocalTime start, LocalTime end) {
+        Day day = days.get(date);
+        if (day != null) {
+            day.intervals().add(new Interval(bookingId, start, end));
+        }
+    }
+
+    /**
+     * Forget a booking that was cancelled.
+     */
+    void remove(LocalDate date, UUID bookingId) {
+        Day day = days.get(date);
+        if (day != null) {
+            day.intervals().removeIf(interval -> interval.bookingId().equals(bookingId));
+        }
+    }
+
+    /**
+     * Drop the cached day, e.g. after the database reported a conflict we did not see.
+     */
+    void invalidate(LocalDate date) {
+        days.remove(date);
+    }
+
+    private Day day(LocalDate date) {
+        Day day = days.get(date);
+        long now = System.nanoTime();
+        if (day == null || now - day.loadedAtNanos() > ttlNanos) {
+            LocalDate today = LocalDate.now();
+            days.keySet().removeIf(loaded -> loaded.isBefore(today));
+
+            List<Interval> intervals = new ArrayList<>();
+            for (Booking booking : loader.apply(date)) {
+                intervals.add(new Interval(booking.getId(), booking.getSlotStartTime(), booking.getSlotEndTime()));
+            }
+            day = new Day(now, intervals);
+            days.put(date, day);
+        }
+        return day;
+    }
+}
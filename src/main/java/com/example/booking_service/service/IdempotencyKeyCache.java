@@ -0,0 +1,64 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Bounded in-memory front of the booking_idempotency_keys table: (user, Idempotency-Key)
+ * to the id of the booking the first request created. Hits and misses are exported as
+ * {@code cache.gets{cache=booking.idempotency}}; replays are counted by where they were
+ * found.
+ */
+@Component
+public class IdempotencyKeyCache {
+
+    private record Key(UUID userId, String idempotencyKey) {
+    }
+
+    private final Cache<Key, UUID> bookingIds;
+    private final Counter cacheReplays;
+    private final Counter databaseReplays;
+
+    public IdempotencyKeyCache(BookingProperties properties, MeterRegistry meterRegistry) {
+        this.bookingIds = Caffeine.newBuilder()
+                .maximumSize(properties.getIdempotencyCacheMaxSize())
+                .expireAfterWrite(properties.getIdempotencyCacheTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, bookingIds, "booking.idempotency");
+        this.cacheReplays = replayCounter(meterRegistry, "cache");
+        this.databaseReplays = replayCounter(meterRegistry, "database");
+    }
+
+    /**
+     * Booking id stored for the key, or null on a miss.
+     */
+    public UUID get(UUID userId, String idempotencyKey) {
+        return bookingIds.getIfPresent(new Key(userId, idempotencyKey));
+    }
+
+    public void put(UUID userId, String idempotencyKey, UUID bookingId) {
+        bookingIds.put(new Key(userId, idempotencyKey), bookingId);
+    }
+
+    /**
+     * Count a retry answered from the cache ({@code fromCache}) or from the durable table.
+     */
+    public void recordReplay(boolean fromCache) {
+        (fromCache ? cacheReplays : databaseReplays).increment();
+    }
+
+    private static Counter replayCounter(MeterRegistry meterRegistry, String source) {
+        return Counter.builder("booking.idempotency.replays")
+                .description("Booking retries answered with the stored result")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.dto.NextAvailableSlotDto;
+import com.example.booking_service.entity.Booking;
+import com.example.booking_service.entity.DayOfWeek;
+import com.example.booking_service.entity.Doctor;
+import com.example.booking_service.entity.DoctorSchedule;
+import com.example.booking_service.exception.ResourceNotFoundException;
+import com.example.booking_service.repository.BookingRepository;
+import com.example.booking_service.repository.DoctorRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Collectors;
+
+/**
+ * Per-doctor index of taken slots over the booking horizon, answering "the next free slot
+ * on or after T" by scanning a bitmap instead of days of availability. Each doctor keeps
+ * their day grids and one bit per slot of the horizon (a few hundred bytes), and the cache
+ * is bounded by that weight ({@code app.booking.next-available-max-memory}). A doctor's index
+ * is built on first use from their schedules and bookings, patched by
+ * {@link BookingChangedEvent}s after commit, and rebuilt after
+ * {@code app.booking.next-available-refresh}, which also rolls the horizon forward and picks
+ * up schedule changes. Hits and misses are exported as {@code cache.*{cache=booking.next-available}}.
+ */
+@Component
+public class NextAvailableIndex {
+
+    private static final int CHANGE_STRIPES = 1024;
+
+    private final DoctorRepository doctorRepository;
+    private final BookingRepository bookingRepository;
+    private final BookingTransactionRunner transactionRunner;
+    private final SlotGridCache slotGrids;
+    private final SlotHoldRegistry slotHolds;
+    private final Cache<UUID, DoctorSlots> doctors;
+    // Bumped per doctor stripe by every applied change, so bulk loads that raced with a change
+    // of the same doctor are not cached
+    private final AtomicLongArray changes = new AtomicLongArray(CHANGE_STRIPES);
+
+    public NextAvailableIndex(DoctorRepository doctorRepository, BookingRepository bookingRepository,
+                              BookingTransactionRunner transactionRunner, SlotGridCache slotGrids,
+                              SlotHoldRegistry slotHolds, BookingProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.doctorRepository = doctorRepository;
+        this.bookingRepository = bookingRepository;
+        this.transactionRunner = transactionRunner;
+        this.slotGrids = slotGrids;
+        this.slotHolds = slotHolds;
+        this.doctors = Caffeine.newBuilder()
+                .maximumWeight(properties.getNextAvailableMaxMemory().toBytes())
+                .weigher((UUID id, DoctorSlots slots) -> slots.weight())
+                .expireAfterWrite(properties.getNextAvailableRefresh())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, doctors, "booking.next-available");
+    }
+
+    /**
+     * The doctor's first free, unheld slot starting on or after {@code after} (or now, if later),
+     * or null if there is none within the booking horizon.
+     *
+     * @throws ResourceNotFoundException if the doctor does not exist
+     */
+    public NextAvailableSlotDto findNextAvailable(UUID doctorId, LocalDateTime after) {
+        DoctorSlots slots = doctors.get(doctorId, id -> {
+            DoctorSlots loaded = load(List.of(id)).get(id);
+            if (loaded == null) {
+                throw new ResourceNotFoundException("Doctor", "id", id);
+            }
+            return loaded;
+        });
+        return slots.next(doctorId, after);
+    }
+
+    /**
+     * {@link #findNextAvailable} for several doctors, loading every missing index with two queries.
+     * Doctors without a free slot or that do not exist are left out.
+     */
+    public Map<UUID, NextAvailableSlotDto> findNextAvailable(Collection<UUID> doctorIds, LocalDateTime after) {
+        Map<UUID, DoctorSlots> slotsById = new HashMap<>(doctors.getAllPresent(doctorIds));
+        Set<UUID> missing = new HashSet<>(doctorIds);
+        missing.removeAll(slotsById.keySet());
+        if (!missing.isEmpty()) {
+            Map<UUID, Long> changesBefore = new HashMap<>();
+            missing.forEach(id -> changesBefore.put(id, changes.get(stripe(id))));
+            Map<UUID, DoctorSlots> loaded = load(missing);
+            slotsById.putAll(loaded);
+            loaded.forEach((id, slots) -> {
+                if (changes.get(stripe(id)) == changesBefore.get(id)) {
+                    doctors.asMap().putIfAbsent(id, slots);
+                }
+            });
+        }
+
+        Map<UUID, NextAvailableSlotDto> next = new HashMap<>();
+        slotsById.forEach((id, slots) -> {
+            NextAvailableSlotDto slot = slots.next(id, after);
+            if (slot != null) {
+                next.put(id, slot);
+            }
+        });
+        return next;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        changes.incrementAndGet(stripe(event.doctorId()));
+        // Waits for a load of the same doctor in progress, so a load that read before the commit is patched too
+        doctors.asMap().computeIfPresent(event.doctorId(), (id, slots) -> {
+            slots.apply(event);
+            return slots;
+        });
+    }
+
+    private static int stripe(UUID doctorId) {
+        return Math.floorMod(doctorId.hashCode(), CHANGE_STRIPES);
+    }
+
+    private Map<UUID, DoctorSlots> load(Collection<UUID> doctorIds) {
+        LocalDate firstDay = LocalDate.now();
+        LocalDate lastDay = firstDay.plusDays(BookingService.MAX_AVAILABILITY_DAYS);
+        return transactionRunner.runReadOnly(() -> {
+            Map<UUID, List<Booking>> bookingsByDoctor = bookingRepository
+                    .findActiveBookingsByDoctorsAndDateRange(doctorIds, firstDay, lastDay).stream()
+                    .collect(Collectors.groupingBy(booking -> booking.getDoctor().getId()));
+            Map<UUID, DoctorSlots> loaded = new HashMap<>();
+            for (Doctor doctor : doctorRepository.findWithSchedulesByIdIn(doctorIds)) {
+                loaded.put(doctor.getId(), build(doctor,
+                        bookingsByDoctor.getOrDefault(doctor.getId(), List.of()), firstDay, lastDay));
+            }
+            return loaded;
+        });
+    }
+
+    private DoctorSlots build(Doctor doctor, List<Booking> bookings, LocalDate firstDay, LocalDate lastDay) {
+        Map<DayOfWeek, List<SlotGrid>> grids = new EnumMap<>(DayOfWeek.class);
+        if (Boolean.TRUE.equals(doctor.getIsActive())) {
+            for (DoctorSchedule schedule : doctor.getSchedules()) {
+                if (Boolean.TRUE.equals(schedule.getIsActive())) {
+                    grids.computeIfAbsent(schedule.getDayOfWeek(), day -> new ArrayList<>())
+                            .add(slotGrids.get(schedule));
+                }
+            }
+        }
+
+        DoctorSlots slots = new DoctorSlots(grids, firstDay, lastDay);
+        for (Booking booking : bookings) {
+            slots.take(booking.getBookingDate(), booking.getSlotStartTime(), booking.getSlotEndTime());
+        }
+        return slots;
+    }
+
+    /**
+     * Slots of one doctor over the horizon: the day's grids back to back, one bit per slot
+     * set while it is taken. Synchronized; patches and lookups are short.
+     */
+    private final class DoctorSlots {
+
+        private final Map<DayOfWeek, List<SlotGrid>> grids;
+        private final LocalDate firstDay;
+        // Bit offset of each day; the last entry is the total slot count
+        private final int[] dayOffsets;
+        private final BitSet taken;
+
+        DoctorSlots(Map<DayOfWeek, List<SlotGrid>> grids, LocalDate firstDay, LocalDate lastDay) {
+            this.grids = grids;
+            this.firstDay = firstDay;
+            int days = (int) ChronoUnit.DAYS.between(firstDay, lastDay) + 1;
+            this.dayOffsets = new int[days + 1];
+            for (int day = 0; day < days; day++) {
+                dayOffsets[day + 1] = dayOffsets[day]
+                        + gridsOf(firstDay.plusDays(day)).stream().mapToInt(SlotGrid::slotCount).sum();
+            }
+            this.taken = new BitSet(dayOffsets[days]);
+        }
+
+        /**
+         * Approximate retained size in bytes.
+         */
+        int weight() {
+            return 64 + dayOffsets.length * 4 + dayOffsets[dayOffsets.length - 1] / 8;
+        }
+
+        synchronized NextAvailableSlotDto next(UUID doctorId, LocalDateTime after) {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime from = after == null || after.isBefore(now) ? now : after;
+            LocalDate date = from.toLocalDate().isBefore(firstDay) ? firstDay : from.toLocalDate();
+            for (int day = dayIndex(date); day >= 0 && day < dayOffsets.length - 1; day++, date = date.plusDays(1)) {
+                LocalTime notBefore = date.equals(from.toLocalDate()) ? from.toLocalTime() : LocalTime.MIDNIGHT;
+                // Grids of a day may overlap; the earliest free start of any of them wins
+                SlotGrid bestGrid = null;
+                int bestIndex = -1;
+                int offset = dayOffsets[day];
+                for (SlotGrid grid : gridsOf(date)) {
+                    for (int i = grid.firstSlotFrom(notBefore); i < grid.slotCount(); i++) {
+                        if (!taken.get(offset + i) && !slotHolds.isHeld(doctorId, date, grid.startOf(i))) {
+                            if (bestGrid == null || grid.startOf(i).isBefore(bestGrid.startOf(bestIndex))) {
+                                bestGrid = grid;
+                                bestIndex = i;
+                            }
+                            break;
+                        }
+                    }
+                    offset += grid.slotCount();
+                }
+                if (bestGrid != null) {
+                    return NextAvailableSlotDto.builder()
+                            .date(date)
+                            .startTime(bestGrid.startOf(bestIndex))
+                            .endTime(bestGrid.endOf(bestIndex))
+                            .build();
+                }
+            }
+            return null;
+        }
+
+        synchronized void apply(BookingChangedEvent event) {
+            if (event.change() == BookingChangedEvent.Change.BOOKED) {
+                take(event.date(), event.slotStart(), event.slotEnd());
+            } else {
+                release(event.date(), event.slotStart(), event.slotEnd());
+            }
+        }
+
+        /**
+         * Mark every slot starting within the booking as taken.
+         */
+        synchronized void take(LocalDate date, LocalTime start, LocalTime end) {
+            mark(date, start, end, true);
+        }
+
+        /**
+         * Free every slot starting within the released booking, the same slots {@link #take} marked.
+         */
+        synchronized void release(LocalDate date, LocalTime start, LocalTime end) {
+            mark(date, start, end, false);
+        }
+
+        private void mark(LocalDate date, LocalTime start, LocalTime end, boolean value) {
+            int day = dayIndex(date);
+            if (day < 0 || day >= dayOffsets.length - 1) {
+                return;
+            }
+            int offset = dayOffsets[day];
+            for (SlotGrid grid : gridsOf(date)) {
+                for (int i = grid.firstSlotFrom(start); i < grid.slotCount(); i++) {
+                    LocalTime slotStart = grid.startOf(i);
+                    // A booking ending at midnight has an end "before" its start
+                    if (end.isAfter(start) && !slotStart.isBefore(end)) {
+                        break;
+                    }
+                    taken.set(offset + i, value);
+                }
+                offset += grid.slotCount();
+            }
+        }
+
+        private int dayIndex(LocalDate date) {
+            return (int) ChronoUnit.DAYS.between(firstDay, date);
+        }
+
+        private List<SlotGrid> gridsOf(LocalDate date) {
+            return grids.getOrDefault(DayOfWeek.valueOf(date.getDayOfWeek().name()), List.of());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.repository.BookingRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * In-memory occupancy of every doctor over the booking horizon (today + 90 days).
+ * Each doctor has one {@link AtomicLongArray} holding a bitmap per day, one bit per
+ * {@value #UNIT_MINUTES}-minute unit of the day (5 longs per day, about 3.6 KB per doctor),
+ * with a bit set while an active booking covers the unit. There is no per-slot object.
+ *
+ * The index is rebuilt from the bookings table at startup and every
+ * {@code app.booking.occupancy-index-refresh} (which also rolls the horizon and picks up
+ * writes from other instances), and patched by {@link BookingChangedEvent}s after commit.
+ * Callers must check {@link #covers} first and fall back to the database otherwise.
+ *
+ * Between refreshes the index only sees this instance's writes, so a "free" answer is only
+ * as good as the claim that no other instance books: the index is built only when
+ * {@code app.booking.occupancy-index-single-instance} is set.
+ */
+@Component
+@Slf4j
+public class OccupancyIndex {
+
+    static final int UNIT_MINUTES = 5;
+    static final int UNITS_PER_DAY = 24 * 60 / UNIT_MINUTES;
+    static final int WORDS_PER_DAY = (UNITS_PER_DAY + 63) / 64;
+    static final int DAYS = BookingService.MAX_AVAILABILITY_DAYS + 1;
+
+    /**
+     * Bitmaps valid for the days [firstDay, firstDay + DAYS).
+     */
+    private record Snapshot(LocalDate firstDay, Map<UUID, AtomicLongArray> doctors) {
+    }
+
+    private final BookingRepository bookingRepository;
+    private final BookingTransactionRunner transactionRunner;
+    private final boolean enabled;
+    private final Supplier<LocalDate> today;
+
+    private volatile Snapshot snapshot;
+    // Events seen while a rebuild is reading the database, replayed onto the new snapshot
+    private List<BookingChangedEvent> pendingDuringRebuild;
+
+    @Autowired
+    public OccupancyIndex(BookingRepository bookingRepository, BookingTransactionRunner transactionRunner,
+                          BookingProperties properties, MeterRegistry meterRegistry) {
+        this(bookingRepository, transactionRunner,
+                properties.isOccupancyIndexEnabled() && properties.isOccupancyIndexSingleInstance(), LocalDate::now);
+        Gauge.builder("booking.occupancy.doctors", this, index -> index.doctorCount())
+                .description("Doctors with at least one booking in the occupancy index")
+                .register(meterRegistry);
+    }
+
+    OccupancyIndex(BookingRepository bookingRepository, BookingTransactionRunner transactionRunner,
+                   boolean enabled, Supplier<LocalDate> today) {
+        this.bookingRepository = bookingRepository;
+        this.transactionRunner = transactionRunner;
+        this.enabled = enabled;
+        this.today = today;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        rebuild();
+    }
+
+    /**
+     * Reload every active booking of the horizon from the database.
+     */
+    @Scheduled(fixedDelayString = "${app.booking.occupancy-index-refresh:1m}",
+            initialDelayString = "${app.booking.occupancy-index-refresh:1m}")
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        LocalDate firstDay = today.get();
+        Map<UUID, AtomicLongArray> doctors = new ConcurrentHashMap<>();
+        try {
+            List<Object[]> rows = transactionRunner.runReadOnly(() ->
+                    bookingRepository.findActiveSlotsBetween(firstDay, firstDay.plusDays(DAYS - 1)));
+            for (Object[] row : rows) {
+                mark(doctors, firstDay, (UUID) row[0], (LocalDate) row[1], (LocalTime) row[2], (LocalTime) row[3], true);
+            }
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                pendingDuringRebuild = null;
+            }
+            log.warn("Occupancy index rebuild failed, keeping the previous index", ex);
+            return;
+        }
+
+        synchronized (this) {
+            for (BookingChangedEvent event : pendingDuringRebuild) {
+                apply(doctors, firstDay, event);
+            }
+            pendingDuringRebuild = null;
+            snapshot = new Snapshot(firstDay, doctors);
+        }
+        log.debug("Occupancy index rebuilt from {} for {} doctors", firstDay, doctors.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onBookingChanged(BookingChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            apply(current.doctors(), current.firstDay(), event);
+        }
+        if (pendingDuringRebuild != null) {
+            pendingDuringRebuild.add(event);
+        }
+    }
+
+    /**
+     * Whether the index holds the date. When false, ask the database.
+     */
+    public boolean covers(LocalDate date) {
+        Snapshot current = snapshot;
+        return current != null && dayIndex(current.firstDay(), date) >= 0;
+    }
+
+    /**
+     * Whether an active booking overlaps [start, end) on the date. Only meaningful if {@link #covers} the date.
+     */
+    public boolean isOccupied(UUID doctorId, LocalDate date, LocalTime start, LocalTime end) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return false;
+        }
+        int day = dayIndex(current.firstDay(), date);
+        AtomicLongArray bits = current.doctors().get(doctorId);
+        if (day < 0 || bits == null) {
+            return false;
+        }
+        int base = day * WORDS_PER_DAY * 64;
+        for (int unit = startUnit(start), last = endUnit(start, end); unit < last; unit++) {
+            int bit = base + unit;
+            if ((bits.get(bit >>> 6) & (1L << (bit & 63))) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int doctorCount() {
+        Snapshot current = snapshot;
+        return current != null ? current.doctors().size() : 0;
+    }
+
+    private static void apply(Map<UUID, AtomicLongArray> doctors, LocalDate firstDay, BookingChangedEvent event) {
+        mark(doctors, firstDay, event.doctorId(), event.date(), event.slotStart(), event.slotEnd(),
+                event.change() == BookingChangedEvent.Change.BOOKED);
+    }
+
+    private static void mark(Map<UUID, AtomicLongArray> doctors, LocalDate firstDay, UUID doctorId, LocalDate date,
+                             LocalTime start, LocalTime end, boolean occupied) {
+        int day = dayIndex(firstDay, date);
+        if (day < 0) {
+            return;
+        }
+        AtomicLongArray bits = doctors.computeIfAbsent(doctorId, id -> new AtomicLongArray(DAYS * WORDS_PER_DAY));
+        int base = day * WORDS_PER_DAY * 64;
+        // A booking sets every unit it touches but clears only the units it fully covers, since a
+        // unit it only partly covers may be shared with a neighbouring booking
+        int first = occupied ? startUnit(start) : ceilUnit(start.toSecondOfDay());
+        int last = occupied ? endUnit(start, end) : endSecond(start, end) / (UNIT_MINUTES * 60);
+        for (int unit = first; unit < last; unit++) {
+            int bit = base + unit;
+            long mask = 1L << (bit & 63);
+            if (occupied) {
+                bits.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+            } else {
+                bits.getAndAccumulate(bit >>> 6, mask, (word, m) -> word & ~m);
+            }
+        }
+    }
+
+    private static int dayIndex(LocalDate firstDay, LocalDate date) {
+        long day = date.toEpochDay() - firstDay.toEpochDay();
+        return day >= 0 && day < DAYS ? (int) day : -1;
+    }
+
+    // Units partly covered count as covered, so off-unit times err on the side of "occupied"
+    private static int startUnit(LocalTime start) {
+        return (start.getHour() * 60 + start.getMinute()) / UNIT_MINUTES;
+    }
+
+    private static int endUnit(LocalTime start, LocalTime end) {
+        return Math.min(UNITS_PER_DAY, ceilUnit(endSecond(start, end)));
+    }
+
+    private static int ceilUnit(int second) {
+        return (second + UNIT_MINUTES * 60 - 1) / (UNIT_MINUTES * 60);
+    }
+
+    private static int endSecond(LocalTime start, LocalTime end) {
+        return end.compareTo(start) <= 0 ? 24 * 3600 : end.toSecondOfDay();
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.entity.DoctorSchedule;
+
+import java.time.LocalTime;
+
+/**
+ * Immutable slot grid of one DoctorSchedule, kept as minute-of-day offsets.
+ * Slot {@code i} starts at {@code startMinute + i * slotMinutes}; only slots that end
+ * by the schedule's end time are part of the grid. Lookups are O(1) arithmetic
+ * instead of walking the schedule with {@code LocalTime.plusMinutes}.
+ */
+public final class SlotGrid {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final LocalTime scheduleStart;
+    private final LocalTime scheduleEnd;
+    private final int startMinute;
+    private final int endMinute;
+    private final int slotMinutes;
+    private final int slotCount;
+
+    private SlotGrid(LocalTime start, LocalTime end, int slotMinutes) {
+        if (slotMinutes <= 0) {
+            throw new IllegalArgumentException("Slot duration must be positive");
+        }
+        this.scheduleStart = start;
+        this.scheduleEnd = end;
+        this.startMinute = minuteOfDay(start);
+        this.endMinute = minuteOfDay(end);
+        this.slotMinutes = slotMinutes;
+        this.slotCount = Math.max(0, (endMinute - startMinute) / slotMinutes);
+    }
+
+    public static SlotGrid of(DoctorSchedule schedule) {
+        return of(schedule.getStartTime(), schedule.getEndTime(), schedule.getSlotDurationMinutes());
+    }
+
+    public static SlotGrid of(LocalTime start, LocalTime end, int slotMinutes) {
+        return new SlotGrid(start, end, slotMinutes);
+    }
+
+    /**
+     * Whether this grid was compiled from the schedule's current hours and slot duration.
+     */
+    public boolean matches(DoctorSchedule schedule) {
+        return scheduleStart.equals(schedule.getStartTime())
+                && scheduleEnd.equals(schedule.getEndTime())
+                && slotMinutes == schedule.getSlotDurationMinutes();
+    }
+
+    /**
+     * Whether the time falls within the schedule's hours, on the grid or not.
+     */
+    public boolean covers(LocalTime time) {
+        return !time.isBefore(scheduleStart) && time.isBefore(scheduleEnd);
+    }
+
+    /**
+     * Index of the slot starting exactly at the time, or -1 if the time is not on the grid.
+     */
+    public int slotIndex(LocalTime time) {
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            return -1;
+        }
+        int offset = minuteOfDay(time) - startMinute;
+        if (offset < 0 || offset % slotMinutes != 0) {
+            return -1;
+        }
+        int index = offset / slotMinutes;
+        return index < slotCount ? index : -1;
+    }
+
+    public boolean isOnGrid(LocalTime time) {
+        return slotIndex(time) >= 0;
+    }
+
+    /**
+     * Index of the first slot that starts at or after the time; {@link #slotCount()} if none.
+     */
+    public int firstSlotFrom(LocalTime time) {
+        int offset = minuteOfDay(time) - startMinute + (time.getSecond() != 0 || time.getNano() != 0 ? 1 : 0);
+        if (offset <= 0) {
+            return 0;
+        }
+        return Math.min(slotCount, (offset + slotMinutes - 1) / slotMinutes);
+    }
+
+    public int slotCount() {
+        return slotCount;
+    }
+
+    public int slotMinutes() {
+        return slotMinutes;
+    }
+
+    public int startMinuteOf(int index) {
+        return startMinute + index * slotMinutes;
+    }
+
+    public LocalTime startOf(int index) {
+        return LocalTime.ofSecondOfDay(startMinuteOf(index) * 60L);
+    }
+
+    public LocalTime endOf(int index) {
+        return LocalTime.ofSecondOfDay((startMinuteOf(index + 1) % MINUTES_PER_DAY) * 60L);
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+}
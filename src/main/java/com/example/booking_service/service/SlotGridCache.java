@@ -0,0 +1,34 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.entity.DoctorSchedule;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Compiled {@link SlotGrid} per DoctorSchedule id. A grid is rebuilt only when the
+ * schedule's hours or slot duration no longer match the ones it was compiled from.
+ */
+@Component
+public class SlotGridCache {
+
+    private static final int MAX_SCHEDULES = 10_000;
+
+    private final Cache<UUID, SlotGrid> grids = Caffeine.newBuilder()
+            .maximumSize(MAX_SCHEDULES)
+            .build();
+
+    public SlotGrid get(DoctorSchedule schedule) {
+        if (schedule.getId() == null) {
+            return SlotGrid.of(schedule);
+        }
+        SlotGrid grid = grids.getIfPresent(schedule.getId());
+        if (grid == null || !grid.matches(schedule)) {
+            grid = SlotGrid.of(schedule);
+            grids.put(schedule.getId(), grid);
+        }
+        return grid;
+    }
+}
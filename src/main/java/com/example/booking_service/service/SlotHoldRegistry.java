@@ -0,0 +1,212 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.exception.BookingConflictException;
+import com.example.booking_service.exception.ResourceNotFoundException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Short-lived holds on (doctor, date, slot start) taken while a patient completes the
+ * booking form. Holds live in Caffeine caches with expire-after-write, so an expired
+ * hold is reclaimed by the cache's own amortized maintenance instead of a sweeper,
+ * and reads never see it. A user holds at most {@code app.booking.hold-max-per-user} slots
+ * at a time, and the caches are bounded by {@code app.booking.hold-max-active}.
+ * Held slots are also indexed per doctor and day, so listing a day's holds costs the
+ * size of that day, not of every hold. Holds are local to this instance.
+ */
+@Component
+public class SlotHoldRegistry {
+
+    /**
+     * An active hold on one slot.
+     */
+    public record SlotHold(UUID id, UUID userId, UUID doctorId, LocalDate date,
+                           LocalTime start, LocalTime end, OffsetDateTime expiresAt) {
+    }
+
+    private record SlotKey(UUID doctorId, LocalDate date, LocalTime start) {
+
+        DayKey day() {
+            return new DayKey(doctorId, date);
+        }
+    }
+
+    private record DayKey(UUID doctorId, LocalDate date) {
+    }
+
+    private final Duration ttl;
+    private final int maxPerUser;
+    private final Cache<SlotKey, SlotHold> holdsBySlot;
+    private final Cache<UUID, SlotKey> slotsByHoldId;
+    private final Cache<UUID, Set<SlotKey>> slotsByUser;
+    private final ConcurrentMap<DayKey, Set<SlotKey>> slotsByDay = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SlotHoldRegistry(BookingProperties properties, MeterRegistry meterRegistry) {
+        this(properties.getHoldTtl(), properties.getHoldMaxPerUser(), properties.getHoldMaxActive(),
+                Ticker.systemTicker());
+        Gauge.builder("booking.holds.active", holdsBySlot, Cache::estimatedSize)
+                .description("Slot holds currently active")
+                .register(meterRegistry);
+    }
+
+    SlotHoldRegistry(Duration ttl, int maxPerUser, long maxActive, Ticker ticker) {
+        this.ttl = ttl;
+        this.maxPerUser = Math.max(maxPerUser, 1);
+        this.holdsBySlot = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxActive)
+                .ticker(ticker)
+                .<SlotKey, SlotHold>evictionListener((key, hold, cause) -> unindex(key))
+                .build();
+        this.slotsByHoldId = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxActive).ticker(ticker).build();
+        // Outlives the user's last hold by at most one TTL
+        this.slotsByUser = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxActive).ticker(ticker).build();
+    }
+
+    /**
+     * Hold a slot for the user. Holding a slot the user already holds restarts its TTL.
+     *
+     * @throws BookingConflictException if another user holds the slot, or the user already
+     *                                  holds the maximum number of slots
+     */
+    public SlotHold hold(UUID doctorId, LocalDate date, LocalTime start, LocalTime end, UUID userId) {
+        SlotKey key = new SlotKey(doctorId, date, start);
+        SlotHold[] placed = new SlotHold[1];
+        // Per-user compute serializes the user's holds, so the cap cannot be raced past
+        slotsByUser.asMap().compute(userId, (id, keys) -> {
+            Set<SlotKey> active = new HashSet<>();
+            if (keys != null) {
+                for (SlotKey held : keys) {
+                    SlotHold hold = holdsBySlot.getIfPresent(held);
+                    if (hold != null && hold.userId().equals(userId)) {
+                        active.add(held);
+                    }
+                }
+            }
+            if (!active.contains(key) && active.size() >= maxPerUser) {
+                throw new BookingConflictException("You already hold " + maxPerUser
+                        + " slots. Book or release one of them before holding another.");
+            }
+            placed[0] = place(key, doctorId, date, start, end, userId);
+            active.add(key);
+            return active;
+        });
+        return placed[0];
+    }
+
+    private SlotHold place(SlotKey key, UUID doctorId, LocalDate date, LocalTime start, LocalTime end, UUID userId) {
+        ConcurrentMap<SlotKey, SlotHold> holds = holdsBySlot.asMap();
+        while (true) {
+            SlotHold existing = holds.get(key);
+            if (existing != null && !existing.userId().equals(userId)) {
+                throw heldByOther();
+            }
+            UUID id = existing != null ? existing.id() : UUID.randomUUID();
+            SlotHold hold = new SlotHold(id, userId, doctorId, date, start, end, OffsetDateTime.now().plus(ttl));
+            boolean stored = existing == null
+                    ? holds.putIfAbsent(key, hold) == null
+                    : holds.replace(key, existing, hold);
+            if (stored) {
+                slotsByHoldId.put(id, key);
+                slotsByDay.computeIfAbsent(key.day(), day -> ConcurrentHashMap.newKeySet()).add(key);
+                return hold;
+            }
+            // Lost a race with another holder or an expiry; look again
+        }
+    }
+
+    /**
+     * Reject a booking of a slot that another user holds.
+     */
+    public void rejectIfHeldByOther(UUID doctorId, LocalDate date, LocalTime start, UUID userId) {
+        SlotHold hold = holdsBySlot.getIfPresent(new SlotKey(doctorId, date, start));
+        if (hold != null && !hold.userId().equals(userId)) {
+            throw heldByOther();
+        }
+    }
+
+    /**
+     * Whether anyone holds the slot.
+     */
+    public boolean isHeld(UUID doctorId, LocalDate date, LocalTime start) {
+        return holdsBySlot.getIfPresent(new SlotKey(doctorId, date, start)) != null;
+    }
+
+    /**
+     * Start times of the doctor's held slots on the date, in no particular order.
+     */
+    public List<LocalTime> heldStarts(UUID doctorId, LocalDate date) {
+        Set<SlotKey> keys = slotsByDay.get(new DayKey(doctorId, date));
+        if (keys == null) {
+            return List.of();
+        }
+        // The index may still list a hold that expired but was not yet evicted
+        return keys.stream()
+                .filter(key -> holdsBySlot.getIfPresent(key) != null)
+                .map(SlotKey::start)
+                .toList();
+    }
+
+    /**
+     * Release a hold by id. Only the holder can release it.
+     */
+    public void release(UUID holdId, UUID userId) {
+        SlotKey key = slotsByHoldId.getIfPresent(holdId);
+        SlotHold hold = key != null ? holdsBySlot.getIfPresent(key) : null;
+        if (hold == null || !hold.id().equals(holdId) || !hold.userId().equals(userId)) {
+            throw new ResourceNotFoundException("Slot hold", "id", holdId);
+        }
+        holdsBySlot.asMap().remove(key, hold);
+        slotsByHoldId.invalidate(holdId);
+        unindex(key);
+    }
+
+    /**
+     * Drop the user's hold on a slot they have just booked.
+     */
+    public void consume(UUID doctorId, LocalDate date, LocalTime start, UUID userId) {
+        SlotKey key = new SlotKey(doctorId, date, start);
+        SlotHold hold = holdsBySlot.getIfPresent(key);
+        if (hold != null && hold.userId().equals(userId)) {
+            holdsBySlot.asMap().remove(key, hold);
+            slotsByHoldId.invalidate(hold.id());
+            unindex(key);
+        }
+    }
+
+    /**
+     * Drop a slot from the day index unless it is held again. A hold placed concurrently
+     * is stored before it is indexed, so it is never dropped here.
+     */
+    private void unindex(SlotKey key) {
+        slotsByDay.computeIfPresent(key.day(), (day, keys) -> {
+            if (!holdsBySlot.asMap().containsKey(key)) {
+                keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static BookingConflictException heldByOther() {
+        return new BookingConflictException(
+                "This time slot is temporarily held by another patient. Please select a different time.");
+    }
+}
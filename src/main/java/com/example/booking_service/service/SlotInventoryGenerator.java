@@ -0,0 +1,52 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.repository.SlotInventoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Keeps the slot_inventory table materialized over the booking horizon
+ * (today + {@value BookingService#MAX_AVAILABILITY_DAYS} days) for the SLOT_INVENTORY strategy.
+ * Runs at startup and then on {@code app.booking.slot-inventory-cron}: rows of past
+ * days are dropped, rows that no longer match their day's schedules are deleted, and the
+ * missing slots of the horizon are generated from DoctorSchedule in one set-based
+ * statement. Generation is idempotent.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SlotInventoryGenerator {
+
+    private final BookingProperties bookingProperties;
+    private final SlotInventoryRepository slotInventoryRepository;
+    private final BookingTransactionRunner transactionRunner;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        roll();
+    }
+
+    @Scheduled(cron = "${app.booking.slot-inventory-cron:0 15 0 * * *}")
+    public void roll() {
+        if (bookingProperties.getConcurrencyStrategy() != BookingConcurrencyStrategy.SLOT_INVENTORY) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate lastDay = today.plusDays(BookingService.MAX_AVAILABILITY_DAYS);
+        transactionRunner.run(() -> {
+            int dropped = slotInventoryRepository.deleteBySlotDateBefore(today);
+            int stale = slotInventoryRepository.deleteStale(today);
+            int created = slotInventoryRepository.materialize(today, lastDay);
+            log.info("Slot inventory rolled to {}: {} slots created, {} past and {} stale slots dropped",
+                    lastDay, created, dropped, stale);
+            return created;
+        });
+    }
+}
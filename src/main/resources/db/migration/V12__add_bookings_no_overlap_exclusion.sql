@@ -0,0 +1,17 @@
+-- V12: Database-enforced overlap prevention for bookings
+-- uk_bookings_no_double only rejects bookings with the exact same start time,
+-- so two concurrent requests for overlapping ranges on an empty slot could both
+-- pass the application check. The exclusion constraint rejects ANY overlapping
+-- active booking for the same doctor and date, which lets the application insert
+-- first and skip the SELECT ... FOR UPDATE round-trip.
+
+-- btree_gist provides GiST operator classes for scalar types (uuid, date)
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Half-open range [start, end): back-to-back slots (09:00-09:30, 09:30-10:00) do not overlap
+ALTER TABLE bookings
+    ADD CONSTRAINT ex_bookings_no_overlap EXCLUDE USING gist (
+        doctor_id WITH =,
+        booking_date WITH =,
+        tsrange(booking_date + slot_start_time, booking_date + slot_end_time, '[)') WITH &&
+    ) WHERE (status NOT IN ('CANCELLED'));
@@ -0,0 +1,15 @@
+-- V13: Idempotency keys for POST /api/bookings
+-- Written in the same transaction as the booking, so a retry either finds the key or no booking exists
+
+CREATE TABLE booking_idempotency_keys (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    user_id UUID NOT NULL,
+    idempotency_key VARCHAR(64) NOT NULL,
+    booking_id UUID NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_idempotency_keys_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_idempotency_keys_booking FOREIGN KEY (booking_id) REFERENCES bookings(id) ON DELETE CASCADE
+);
+
+-- A key identifies one booking per user
+CREATE UNIQUE INDEX uk_idempotency_keys_user_key ON booking_idempotency_keys(user_id, idempotency_key);
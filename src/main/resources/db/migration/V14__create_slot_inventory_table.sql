@@ -0,0 +1,23 @@
+-- V14: Pre-materialized slot inventory for the SLOT_INVENTORY booking strategy
+-- One row per (doctor, date, slot start) across the booking horizon, generated from
+-- doctor_schedules by SlotInventoryGenerator. A booking claims its row with
+-- UPDATE ... WHERE state = 'FREE' ... FOR UPDATE SKIP LOCKED, so contended claims never wait.
+
+CREATE TABLE slot_inventory (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    doctor_id UUID NOT NULL,
+    slot_date DATE NOT NULL,
+    slot_start TIME NOT NULL,
+    slot_end TIME NOT NULL,
+    state VARCHAR(20) NOT NULL DEFAULT 'FREE',
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_slot_inventory_doctor FOREIGN KEY (doctor_id) REFERENCES doctors(id) ON DELETE CASCADE,
+    CONSTRAINT uk_slot_inventory_slot UNIQUE (doctor_id, slot_date, slot_start),
+    CONSTRAINT chk_slot_inventory_state CHECK (state IN ('FREE', 'BOOKED')),
+    CONSTRAINT chk_slot_inventory_time CHECK (slot_start < slot_end)
+);
+
+-- Availability and "any free slot" lookups only scan free rows
+CREATE INDEX idx_slot_inventory_free ON slot_inventory(doctor_id, slot_date, slot_start) WHERE state = 'FREE';
+CREATE INDEX idx_slot_inventory_free_by_date ON slot_inventory(slot_date, slot_start) WHERE state = 'FREE';
@@ -0,0 +1,22 @@
+-- V15: Denormalized availability read model, one row per (doctor, day) over the booking horizon
+-- layout lists the day's slot grids as "startMinute/slotMinutes/slotCount" joined by ';'.
+-- free_mask has one bit per slot in layout order (bit i = byte i/8, bit i%8, least
+-- significant first); a set bit is a free slot. Booking writes flip bits in their own
+-- transaction; DayAvailabilityReadModel generates the days entering the horizon.
+
+CREATE TABLE doctor_day_availability (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    doctor_id UUID NOT NULL,
+    day_date DATE NOT NULL,
+    layout VARCHAR(500) NOT NULL,
+    free_mask BYTEA NOT NULL,
+    slot_count INTEGER NOT NULL,
+    free_count INTEGER NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT fk_doctor_day_availability_doctor FOREIGN KEY (doctor_id) REFERENCES doctors(id) ON DELETE CASCADE,
+    CONSTRAINT uk_doctor_day_availability_day UNIQUE (doctor_id, day_date),
+    CONSTRAINT chk_doctor_day_availability_counts CHECK (free_count >= 0 AND free_count <= slot_count)
+);
+
+-- Cross-doctor search reads every doctor of a window of days
+CREATE INDEX idx_doctor_day_availability_day ON doctor_day_availability(day_date, doctor_id);
@@ -0,0 +1,256 @@
+package com.example.booking_service.benchmark;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.dto.CreateBookingRequest;
+import com.example.booking_service.entity.*;
+import com.example.booking_service.exception.BookingConflictException;
+import com.example.booking_service.repository.*;
+import com.example.booking_service.service.BookingConcurrencyStrategy;
+import com.example.booking_service.service.BookingService;
+import com.example.booking_service.service.BookingTransactionRunner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Side-by-side benchmark of the booking concurrency strategies.
+ * Runs the same contended workload (many patients racing for a few days of one
+ * doctor's slots) against each strategy and prints throughput, latency
+ * percentiles and conflict/retry counts.
+ *
+ * Requires a PostgreSQL database migrated by Flyway (the exclusion constraint and
+ * advisory locks are PostgreSQL features), so it only runs when
+ * BENCHMARK_DATABASE_URL is set. Workload size can be tuned with
+ * -Dbenchmark.threads, -Dbenchmark.attemptsPerThread and -Dbenchmark.days.
+ * The JVM stripe lock and the occupancy index are switched off, so same-day writers
+ * reach the database and the numbers compare the strategies rather than the stripe lock.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=${BENCHMARK_DATABASE_URL}",
+        "spring.datasource.username=${BENCHMARK_DATABASE_USERNAME:postgres}",
+        "spring.datasource.password=${BENCHMARK_DATABASE_PASSWORD:}",
+        "spring.datasource.hikari.maximum-pool-size=20",
+        "spring.jpa.show-sql=false",
+        "app.jwt.secret=benchmarkSecretKeyForJwtTokenGenerationMustBeLongEnough256Bits",
+        "app.jwt.access-token-expiration-ms=900000",
+        "app.jwt.refresh-token-expiration-ms=86400000",
+        "app.rate-limit.requests-per-minute=100",
+        "server.port=0",
+        "logging.level.org.springframework.security=WARN",
+        "logging.level.com.example.booking_service=WARN",
+        // Measure the database strategies themselves, not in-JVM queuing or index pre-filtering
+        "app.booking.stripe-lock-enabled=false",
+        "app.booking.occupancy-index-enabled=false"
+})
+@EnabledIfEnvironmentVariable(named = "BENCHMARK_DATABASE_URL", matches = ".+")
+class BookingConcurrencyBenchmark {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 32);
+    private static final int ATTEMPTS_PER_THREAD = Integer.getInteger("benchmark.attemptsPerThread", 50);
+    private static final int DAYS = Integer.getInteger("benchmark.days", 3);
+    private static final LocalTime DAY_START = LocalTime.of(8, 0);
+    private static final LocalTime DAY_END = LocalTime.of(16, 0);
+    private static final int SLOT_MINUTES = 30;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingProperties bookingProperties;
+    @Autowired
+    private BookingTransactionRunner transactionRunner;
+    @Autowired
+    private ClinicRepository clinicRepository;
+    @Autowired
+    private DoctorRepository doctorRepository;
+    @Autowired
+    private DoctorScheduleRepository scheduleRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PatientRepository patientRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Clinic clinic;
+    private Doctor doctor;
+    private final List<User> users = new ArrayList<>();
+
+    @BeforeEach
+    void createFixture() {
+        clinic = clinicRepository.save(Clinic.builder()
+                .name("Benchmark Clinic")
+                .address("Benchmark Street 1")
+                .isActive(true)
+                .build());
+        doctor = doctorRepository.save(Doctor.builder()
+                .clinic(clinic)
+                .name("Dr. Benchmark")
+                .specialization("General Practitioner")
+                .isActive(true)
+                .build());
+        for (DayOfWeek day : DayOfWeek.values()) {
+            scheduleRepository.save(DoctorSchedule.builder()
+                    .doctor(doctor)
+                    .dayOfWeek(day)
+                    .startTime(DAY_START)
+                    .endTime(DAY_END)
+                    .slotDurationMinutes(SLOT_MINUTES)
+                    .isActive(true)
+                    .build());
+        }
+        for (int i = 0; i < THREADS; i++) {
+            User user = userRepository.save(User.builder()
+                    .email("bench-" + UUID.randomUUID() + "@example.com")
+                    .passwordHash("not-a-real-hash")
+                    .name("Benchmark Patient " + i)
+                    .role(UserRole.PATIENT)
+                    .isActive(true)
+                    .build());
+            patientRepository.save(Patient.builder()
+                    .user(user)
+                    .name(user.getName())
+                    .build());
+            users.add(user);
+        }
+    }
+
+    @AfterEach
+    void deleteFixture() {
+        jdbcTemplate.update("DELETE FROM bookings WHERE doctor_id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM doctor_schedules WHERE doctor_id = ?", doctor.getId());
+        doctorRepository.deleteById(doctor.getId());
+        clinicRepository.deleteById(clinic.getId());
+        for (User user : users) {
+            jdbcTemplate.update("DELETE FROM patients WHERE user_id = ?", user.getId());
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void compareStrategies() throws Exception {
+        BookingConcurrencyStrategy original = bookingProperties.getConcurrencyStrategy();
+        List<Result> results = new ArrayList<>();
+        try {
+            for (BookingConcurrencyStrategy strategy : BookingConcurrencyStrategy.values()) {
+                bookingProperties.setConcurrencyStrategy(strategy);
+                results.add(run(strategy));
+                jdbcTemplate.update("DELETE FROM bookings WHERE doctor_id = ?", doctor.getId());
+                jdbcTemplate.update("DELETE FROM slot_inventory WHERE doctor_id = ?", doctor.getId());
+            }
+        } finally {
+            bookingProperties.setConcurrencyStrategy(original);
+        }
+
+        System.out.printf("%nBooking concurrency benchmark: %d threads x %d attempts over %d days x %d slots%n",
+                THREADS, ATTEMPTS_PER_THREAD, DAYS, slotsPerDay());
+        System.out.printf("%-17s %9s %7s %9s %8s %7s %10s %9s %9s%n",
+                "strategy", "attempts", "booked", "conflicts", "retries", "errors", "ops/s", "p50 ms", "p99 ms");
+        for (Result r : results) {
+            System.out.printf("%-17s %9d %7d %9d %8d %7d %10.1f %9.2f %9.2f%n",
+                    r.strategy(), r.attempts(), r.booked(), r.conflicts(), r.retries(), r.errors(),
+                    r.throughput(), r.percentileMillis(0.50), r.percentileMillis(0.99));
+        }
+    }
+
+    private Result run(BookingConcurrencyStrategy strategy) throws InterruptedException {
+        LocalDate firstDay = LocalDate.now().plusDays(1);
+        long[] latencies = new long[THREADS * ATTEMPTS_PER_THREAD];
+        AtomicLong booked = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        long retriesBefore = transactionRunner.getSerializationRetries();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            final int thread = t;
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        CreateBookingRequest request = new CreateBookingRequest();
+                        request.setDoctorId(doctor.getId());
+                        request.setBookingDate(firstDay.plusDays(random.nextInt(DAYS)));
+                        request.setSlotStartTime(DAY_START.plusMinutes((long) random.nextInt(slotsPerDay()) * SLOT_MINUTES));
+
+                        long began = System.nanoTime();
+                        try {
+                            bookingService.createBooking(request, users.get(thread).getId());
+                            booked.incrementAndGet();
+                        } catch (BookingConflictException ex) {
+                            conflicts.incrementAndGet();
+                        } catch (RuntimeException ex) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[thread * ATTEMPTS_PER_THREAD + i] = System.nanoTime() - began;
+                    }
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        done.await(10, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - began;
+        executor.shutdownNow();
+
+        // Whatever the strategy, no slot may end up double-booked
+        Integer doubleBooked = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM bookings a JOIN bookings b ON a.doctor_id = b.doctor_id " +
+                "AND a.booking_date = b.booking_date AND a.id < b.id " +
+                "AND a.slot_start_time < b.slot_end_time AND a.slot_end_time > b.slot_start_time " +
+                "WHERE a.doctor_id = ? AND a.status <> 'CANCELLED' AND b.status <> 'CANCELLED'",
+                Integer.class, doctor.getId());
+        assertThat(doubleBooked).as("overlapping bookings under %s", strategy).isZero();
+
+        Arrays.sort(latencies);
+        return new Result(strategy, latencies, elapsed, booked.get(), conflicts.get(),
+                transactionRunner.getSerializationRetries() - retriesBefore, errors.get());
+    }
+
+    private static int slotsPerDay() {
+        return (DAY_END.toSecondOfDay() - DAY_START.toSecondOfDay()) / 60 / SLOT_MINUTES;
+    }
+
+    private record Result(BookingConcurrencyStrategy strategy, long[] sortedLatencies, long elapsedNanos,
+                          long booked, long conflicts, long retries, long errors) {
+
+        long attempts() {
+            return sortedLatencies.length;
+        }
+
+        double throughput() {
+            return attempts() / (elapsedNanos / 1_000_000_000.0);
+        }
+
+        double percentileMillis(double percentile) {
+            int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
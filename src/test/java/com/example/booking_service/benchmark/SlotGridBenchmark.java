@@ -0,0 +1,121 @@
+package com.example.booking_service.benchmark;
+
+import com.example.booking_service.entity.DayOfWeek;
+import com.example.booking_service.entity.DoctorSchedule;
+import com.example.booking_service.service.AvailabilityCache;
+import com.example.booking_service.service.SlotGrid;
+import com.example.booking_service.service.SlotGridCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JMH benchmark of the per-request slot grid work: validating a requested start time
+ * and enumerating a day's slots, walking the schedule with {@code LocalTime.plusMinutes}
+ * (the previous implementation) versus the cached {@link SlotGrid}. Both enumerations build
+ * the same list of {@link AvailabilityCache.DaySlot}s that available slots are served from,
+ * so the comparison covers the whole per-slot cost including the LocalTime values.
+ *
+ * Runs only when -Dbenchmark.jmh=true is set:
+ * {@code ./mvnw test -Dtest=SlotGridBenchmark -Dbenchmark.jmh=true}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotGridBenchmark {
+
+    private DoctorSchedule schedule;
+    private SlotGridCache slotGrids;
+    private LocalTime lateSlot;
+
+    @Setup
+    public void setUp() {
+        schedule = DoctorSchedule.builder()
+                .id(UUID.randomUUID())
+                .dayOfWeek(DayOfWeek.MONDAY)
+                .startTime(LocalTime.of(8, 0))
+                .endTime(LocalTime.of(20, 0))
+                .slotDurationMinutes(15)
+                .build();
+        slotGrids = new SlotGridCache();
+        lateSlot = LocalTime.of(19, 30);
+    }
+
+    @Benchmark
+    public boolean validateByWalking() {
+        LocalTime current = schedule.getStartTime();
+        LocalTime end = schedule.getEndTime();
+        int slotDuration = schedule.getSlotDurationMinutes();
+        while (current.plusMinutes(slotDuration).isBefore(end.plusSeconds(1))) {
+            if (current.equals(lateSlot)) {
+                return true;
+            }
+            current = current.plusMinutes(slotDuration);
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean validateWithGrid() {
+        return slotGrids.get(schedule).isOnGrid(lateSlot);
+    }
+
+    @Benchmark
+    public List<AvailabilityCache.DaySlot> enumerateByWalking() {
+        List<AvailabilityCache.DaySlot> slots = new ArrayList<>();
+        LocalTime current = schedule.getStartTime();
+        while (current.plusMinutes(schedule.getSlotDurationMinutes()).isBefore(schedule.getEndTime().plusSeconds(1))) {
+            LocalTime endTime = current.plusMinutes(schedule.getSlotDurationMinutes());
+            slots.add(new AvailabilityCache.DaySlot(current, endTime, true));
+            current = endTime;
+        }
+        return slots;
+    }
+
+    @Benchmark
+    public List<AvailabilityCache.DaySlot> enumerateWithGrid() {
+        SlotGrid grid = slotGrids.get(schedule);
+        List<AvailabilityCache.DaySlot> slots = new ArrayList<>(grid.slotCount());
+        for (int i = 0; i < grid.slotCount(); i++) {
+            slots.add(new AvailabilityCache.DaySlot(grid.startOf(i), grid.endOf(i), true));
+        }
+        return slots;
+    }
+
+    @Test
+    void enumerations_ProduceSameSlots() {
+        setUp();
+        assertThat(enumerateWithGrid()).isEqualTo(enumerateByWalking()).hasSize(48);
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark.jmh", matches = "true")
+    void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SlotGridBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
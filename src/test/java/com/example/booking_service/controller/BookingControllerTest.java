@@ -1,10 +1,16 @@
 package com.example.booking_service.controller;
 
+import com.example.booking_service.dto.ApiResponse;
+import com.example.booking_service.dto.BatchBookingRequest;
+import com.example.booking_service.dto.BatchBookingResponse;
 import com.example.booking_service.dto.BookingResponse;
 import com.example.booking_service.dto.CreateBookingRequest;
 import com.example.booking_service.entity.BookingStatus;
 import com.example.booking_service.entity.User;
 import com.example.booking_service.entity.UserRole;
+import com.example.booking_service.dto.BookingTicketResponse;
+import com.example.booking_service.dto.SlotHoldResponse;
+import com.example.booking_service.service.BookingIntakeQueue;
 import com.example.booking_service.service.BookingService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -32,6 +38,8 @@ class BookingControllerTest {
 
     @Mock
     private BookingService bookingService;
+    @Mock
+    private BookingIntakeQueue bookingIntakeQueue;
 
     @InjectMocks
     private BookingController bookingController;
@@ -67,16 +75,86 @@ class BookingControllerTest {
         request.setBookingDate(LocalDate.now().plusDays(7));
         request.setSlotStartTime(LocalTime.of(9, 0));
 
-        when(bookingService.createBooking(any(), any())).thenReturn(bookingResponse);
+        when(bookingService.createBooking(any(), any(), any())).thenReturn(bookingResponse);
 
         // Act
-        ResponseEntity<?> response = bookingController.createBooking(request, patientUser);
+        ResponseEntity<?> response = bookingController.createBooking(request, "retry-key-1", patientUser);
 
         // Assert
         assertThat(response.getStatusCode().value()).isEqualTo(200);
         assertThat(response.getBody()).isNotNull();
     }
 
+    @Test
+    @DisplayName("createBookingAsync - Returns 202 with ticket location")
+    void createBookingAsync_Returns202() {
+        // Arrange
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(UUID.randomUUID());
+        request.setBookingDate(LocalDate.now().plusDays(7));
+        request.setSlotStartTime(LocalTime.of(9, 0));
+        BookingTicketResponse ticket = BookingTicketResponse.builder()
+                .ticketId(UUID.randomUUID())
+                .status(BookingTicketResponse.Status.PENDING)
+                .build();
+
+        when(bookingIntakeQueue.submit(request, patientUser.getId())).thenReturn(ticket);
+
+        // Act
+        ResponseEntity<?> response = bookingController.createBookingAsync(request, patientUser);
+
+        // Assert
+        assertThat(response.getStatusCode().value()).isEqualTo(202);
+        assertThat(response.getHeaders().getLocation())
+                .hasToString("/api/bookings/tickets/" + ticket.getTicketId());
+    }
+
+    @Test
+    @DisplayName("createBookingBatch - Returns 409 when an all-or-nothing batch books nothing")
+    void createBookingBatch_AllOrNothingRejected_Returns409() {
+        // Arrange
+        BatchBookingRequest request = BatchBookingRequest.builder()
+                .bookings(List.of(new CreateBookingRequest(), new CreateBookingRequest()))
+                .build();
+        BatchBookingResponse batch = BatchBookingResponse.builder()
+                .mode(BatchBookingRequest.Mode.ALL_OR_NOTHING)
+                .createdCount(0)
+                .rejectedCount(2)
+                .results(List.of())
+                .build();
+
+        when(bookingService.createBookingBatch(request, patientUser.getId())).thenReturn(batch);
+
+        // Act
+        ResponseEntity<ApiResponse<BatchBookingResponse>> response =
+                bookingController.createBookingBatch(request, patientUser);
+
+        // Assert
+        assertThat(response.getStatusCode().value()).isEqualTo(409);
+        assertThat(response.getBody().getCode()).isEqualTo("BATCH_REJECTED");
+        assertThat(response.getBody().getData()).isSameAs(batch);
+    }
+
+    @Test
+    @DisplayName("holdSlot - Returns 201 with hold")
+    void holdSlot_Returns201() {
+        // Arrange
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(UUID.randomUUID());
+        request.setBookingDate(LocalDate.now().plusDays(7));
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(bookingService.holdSlot(request, patientUser.getId()))
+                .thenReturn(SlotHoldResponse.builder().holdId(UUID.randomUUID()).build());
+
+        // Act
+        ResponseEntity<?> response = bookingController.holdSlot(request, patientUser);
+
+        // Assert
+        assertThat(response.getStatusCode().value()).isEqualTo(201);
+        assertThat(response.getBody()).isNotNull();
+    }
+
     @Test
     @DisplayName("getMyBookings - Returns paginated response")
     void getMyBookings_HasPagination() {
@@ -1,10 +1,14 @@
 package com.example.booking_service.controller;
 
+import com.example.booking_service.dto.ApiResponse;
 import com.example.booking_service.dto.AvailableSlotDto;
+import com.example.booking_service.dto.DoctorResponse;
+import com.example.booking_service.dto.NextAvailableSlotDto;
 import com.example.booking_service.entity.Clinic;
 import com.example.booking_service.entity.Doctor;
 import com.example.booking_service.repository.DoctorRepository;
 import com.example.booking_service.service.BookingService;
+import com.example.booking_service.service.NextAvailableIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -15,17 +19,24 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,6 +48,9 @@ class DoctorControllerTest {
     @Mock
     private BookingService bookingService;
 
+    @Mock
+    private NextAvailableIndex nextAvailableIndex;
+
     @InjectMocks
     private DoctorController doctorController;
 
@@ -90,6 +104,25 @@ class DoctorControllerTest {
         assertThat(response.getBody()).isNotNull();
     }
 
+    @Test
+    @DisplayName("getDoctor - Includes the next available slot")
+    void getDoctor_IncludesNextAvailable() {
+        // Arrange
+        NextAvailableSlotDto next = NextAvailableSlotDto.builder()
+                .date(LocalDate.now().plusDays(1))
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(9, 30))
+                .build();
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(nextAvailableIndex.findNextAvailable(List.of(doctorId), null)).thenReturn(Map.of(doctorId, next));
+
+        // Act
+        ResponseEntity<ApiResponse<DoctorResponse>> response = doctorController.getDoctor(doctorId);
+
+        // Assert
+        assertThat(response.getBody().getData().getNextAvailableSlot()).isEqualTo(next);
+    }
+
     @Test
     @DisplayName("getAvailableSlots - Returns slots array")
     void getAvailableSlots_Success() {
@@ -101,14 +134,40 @@ class DoctorControllerTest {
                         .available(true)
                         .build()
         );
+        when(bookingService.getAvailableSlotsETag(eq(doctorId), any(LocalDate.class))).thenReturn("\"v1\"");
         when(bookingService.getAvailableSlots(eq(doctorId), any(LocalDate.class))).thenReturn(slots);
 
         // Act
         ResponseEntity<?> response = doctorController.getAvailableSlots(
-                doctorId, LocalDate.now().plusDays(7));
+                doctorId, LocalDate.now().plusDays(7), webRequest(null));
 
         // Assert
         assertThat(response.getStatusCode().value()).isEqualTo(200);
         assertThat(response.getBody()).isNotNull();
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"v1\"");
+    }
+
+    @Test
+    @DisplayName("getAvailableSlots - Returns 304 without loading slots when If-None-Match matches")
+    void getAvailableSlots_ETagMatches_NotModified() {
+        // Arrange
+        LocalDate date = LocalDate.now().plusDays(7);
+        when(bookingService.getAvailableSlotsETag(doctorId, date)).thenReturn("\"v1\"");
+
+        // Act
+        ResponseEntity<?> response = doctorController.getAvailableSlots(doctorId, date, webRequest("\"v1\""));
+
+        // Assert
+        assertThat(response.getStatusCode().value()).isEqualTo(304);
+        assertThat(response.getBody()).isNull();
+        verify(bookingService, never()).getAvailableSlots(any(), any());
+    }
+
+    private static ServletWebRequest webRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/doctors/id/available-slots");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return new ServletWebRequest(request, new MockHttpServletResponse());
     }
 }
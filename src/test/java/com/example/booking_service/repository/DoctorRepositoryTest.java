@@ -0,0 +1,119 @@
+package com.example.booking_service.repository;
+
+import com.example.booking_service.entity.Clinic;
+import com.example.booking_service.entity.DayOfWeek;
+import com.example.booking_service.entity.Doctor;
+import com.example.booking_service.entity.DoctorSchedule;
+import com.example.booking_service.entity.Patient;
+import com.example.booking_service.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+class DoctorRepositoryTest {
+
+    @Autowired
+    private DoctorRepository doctorRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID userId;
+    private UUID doctorId;
+
+    @BeforeEach
+    void setUp() {
+        User user = entityManager.persist(User.builder()
+                .email("patient@example.com")
+                .passwordHash("$2a$10$hashedPassword")
+                .name("Patient")
+                .build());
+        entityManager.persist(Patient.builder().user(user).name("Patient").build());
+        Clinic clinic = entityManager.persist(Clinic.builder().name("Clinic").address("Street 1").build());
+        Doctor doctor = entityManager.persist(Doctor.builder().clinic(clinic).name("Dr. Smith").build());
+        entityManager.persist(schedule(doctor, DayOfWeek.MONDAY, LocalTime.of(13, 0), LocalTime.of(16, 0), true));
+        entityManager.persist(schedule(doctor, DayOfWeek.MONDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), true));
+        entityManager.persist(schedule(doctor, DayOfWeek.MONDAY, LocalTime.of(17, 0), LocalTime.of(19, 0), false));
+        entityManager.persist(schedule(doctor, DayOfWeek.TUESDAY, LocalTime.of(8, 0), LocalTime.of(12, 0), true));
+        entityManager.flush();
+        entityManager.clear();
+        userId = user.getId();
+        doctorId = doctor.getId();
+    }
+
+    @Test
+    @DisplayName("findBookingContext - Loads the patient, doctor, clinic and the day's active schedules in one query")
+    void findBookingContext_OneQuery() {
+        // Arrange
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        // Act
+        List<Object[]> rows = doctorRepository.findBookingContext(userId, doctorId, DayOfWeek.MONDAY);
+        Doctor doctor = (Doctor) rows.get(0)[1];
+        String clinicName = doctor.getClinic().getName();
+
+        // Assert
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(Hibernate.isInitialized(doctor.getClinic())).isTrue();
+        assertThat(clinicName).isEqualTo("Clinic");
+        assertThat(rows).allSatisfy(row -> {
+            assertThat(((Patient) row[0]).getName()).isEqualTo("Patient");
+            assertThat(row[1]).isSameAs(doctor);
+        });
+        assertThat(rows).extracting(row -> ((DoctorSchedule) row[2]).getStartTime())
+                .containsExactly(LocalTime.of(8, 0), LocalTime.of(13, 0));
+    }
+
+    @Test
+    @DisplayName("findBookingContext - A day without schedules returns one row with a null schedule")
+    void findBookingContext_NoSchedules_NullSchedule() {
+        // Act
+        List<Object[]> rows = doctorRepository.findBookingContext(userId, doctorId, DayOfWeek.SUNDAY);
+
+        // Assert
+        assertThat(rows).hasSize(1);
+        assertThat(rows.get(0)[1]).isInstanceOf(Doctor.class);
+        assertThat(rows.get(0)[2]).isNull();
+    }
+
+    @Test
+    @DisplayName("findBookingContext - Unknown patient or doctor returns no rows")
+    void findBookingContext_Unknown_Empty() {
+        // Act & Assert
+        assertThat(doctorRepository.findBookingContext(UUID.randomUUID(), doctorId, DayOfWeek.MONDAY)).isEmpty();
+        assertThat(doctorRepository.findBookingContext(userId, UUID.randomUUID(), DayOfWeek.MONDAY)).isEmpty();
+    }
+
+    private static DoctorSchedule schedule(Doctor doctor, DayOfWeek dayOfWeek, LocalTime start, LocalTime end,
+                                           boolean active) {
+        return DoctorSchedule.builder()
+                .doctor(doctor)
+                .dayOfWeek(dayOfWeek)
+                .startTime(start)
+                .endTime(end)
+                .isActive(active)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AvailabilityCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityCache cache;
+    private UUID doctorId;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new AvailabilityCache(new BookingProperties(), meterRegistry);
+        doctorId = UUID.randomUUID();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @DisplayName("get - Concurrent misses for the same day share one load and are counted as coalesced")
+    void get_ConcurrentMisses_ShareOneLoad() throws Exception {
+        // Arrange
+        int callers = 8;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<AvailabilityCache.DaySlot> slots =
+                List.of(new AvailabilityCache.DaySlot(LocalTime.of(9, 0), LocalTime.of(9, 30), true));
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            // Act
+            List<Future<List<AvailabilityCache.DaySlot>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(doctorId, date, () -> {
+                loads.incrementAndGet();
+                loadStarted.countDown();
+                await(release);
+                return slots;
+            })));
+            assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> cache.get(doctorId, date, () -> {
+                    loads.incrementAndGet();
+                    return slots;
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            // Assert
+            for (Future<List<AvailabilityCache.DaySlot>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(slots);
+            }
+            assertThat(loads).hasValue(1);
+            assertThat(meterRegistry.counter("booking.availability.coalesced").count()).isEqualTo(callers - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("get - Hits are not counted as coalesced")
+    void get_Hit_NotCoalesced() {
+        // Arrange
+        cache.get(doctorId, date, List::of);
+
+        // Act
+        cache.get(doctorId, date, List::of);
+
+        // Assert
+        assertThat(meterRegistry.counter("booking.availability.coalesced").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("get - A failed load is rethrown and not cached")
+    void get_LoadFails_NotCached() {
+        // Arrange
+        IllegalStateException failure = new IllegalStateException("database down");
+
+        // Act & Assert
+        assertThatThrownBy(() -> cache.get(doctorId, date, () -> {
+            throw failure;
+        })).isSameAs(failure);
+        assertThat(cache.get(doctorId, date, List::of)).isEmpty();
+        assertThat(meterRegistry.counter("booking.availability.coalesced").count()).isZero();
+    }
+
+    @Test
+    @DisplayName("versionTag - Changes when the day changes and only for that day")
+    void versionTag_ChangesWithDay() {
+        // Arrange
+        String initial = cache.versionTag(doctorId, date);
+
+        // Act
+        cache.invalidate(doctorId, date);
+        String changed = cache.versionTag(doctorId, date);
+        String otherDay = cache.versionTag(doctorId, date.plusDays(1));
+
+        // Assert
+        assertThat(changed).isNotEqualTo(initial);
+        assertThat(otherDay).isEqualTo(initial);
+        assertThat(cache.versionTag(doctorId, date)).isEqualTo(changed);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
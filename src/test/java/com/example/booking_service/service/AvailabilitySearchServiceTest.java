@@ -0,0 +1,127 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.dto.FirstAvailableSlotDto;
+import com.example.booking_service.entity.*;
+import com.example.booking_service.repository.BookingRepository;
+import com.example.booking_service.repository.DoctorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilitySearchServiceTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Spy
+    private SlotGridCache slotGrids = new SlotGridCache();
+    @Spy
+    private SlotHoldRegistry slotHolds = new SlotHoldRegistry(new BookingProperties(), new SimpleMeterRegistry());
+    @Mock
+    private OccupancyIndex occupancyIndex;
+    @Mock
+    private DayAvailabilityReadModel dayAvailability;
+
+    @InjectMocks
+    private AvailabilitySearchService availabilitySearchService;
+
+    private Clinic clinic;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        clinic = Clinic.builder().id(UUID.randomUUID()).name("Test Clinic").build();
+        tomorrow = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @DisplayName("findFirstAvailable - Merges doctors' free slots in time order with one booking query per window")
+    void findFirstAvailable_MergesDoctorsInTimeOrder() {
+        // Arrange
+        Doctor early = doctor("Dr. Early", LocalTime.of(9, 0));
+        Doctor late = doctor("Dr. Late", LocalTime.of(9, 30));
+        Booking booked = Booking.builder()
+                .doctor(early)
+                .bookingDate(tomorrow)
+                .slotStartTime(LocalTime.of(9, 0))
+                .slotEndTime(LocalTime.of(9, 30))
+                .build();
+        when(doctorRepository.findActiveDoctorsWithSchedules(clinic.getId(), "%general%"))
+                .thenReturn(List.of(early, late));
+        when(bookingRepository.findActiveBookingsByDoctorsAndDateRange(anyCollection(), eq(tomorrow), any()))
+                .thenReturn(List.of(booked));
+
+        // Act
+        List<FirstAvailableSlotDto> slots =
+                availabilitySearchService.findFirstAvailable(clinic.getId(), "General", tomorrow, 3);
+
+        // Assert
+        assertThat(slots).extracting(FirstAvailableSlotDto::getDoctorName, FirstAvailableSlotDto::getStartTime)
+                .containsExactly(
+                        tuple("Dr. Early", LocalTime.of(9, 30)),
+                        tuple("Dr. Late", LocalTime.of(9, 30)),
+                        tuple("Dr. Early", LocalTime.of(10, 0)));
+        assertThat(slots).allSatisfy(slot -> assertThat(slot.getDate()).isEqualTo(tomorrow));
+        verify(bookingRepository, times(1)).findActiveBookingsByDoctorsAndDateRange(anyCollection(), any(), any());
+    }
+
+    @Test
+    @DisplayName("findFirstAvailable - Returns nothing without querying bookings when no doctor matches")
+    void findFirstAvailable_NoDoctors_ReturnsEmpty() {
+        // Arrange
+        when(doctorRepository.findActiveDoctorsWithSchedules(isNull(), eq("%"))).thenReturn(List.of());
+
+        // Act
+        List<FirstAvailableSlotDto> slots = availabilitySearchService.findFirstAvailable(null, " ", null, 10);
+
+        // Assert
+        assertThat(slots).isEmpty();
+        verifyNoInteractions(bookingRepository);
+    }
+
+    @Test
+    @DisplayName("likePattern - Escapes LIKE wildcards in the specialization")
+    void likePattern_EscapesWildcards() {
+        assertThat(AvailabilitySearchService.likePattern("100%_Care")).isEqualTo("%100\\%\\_care%");
+    }
+
+    private Doctor doctor(String name, LocalTime start) {
+        Doctor doctor = Doctor.builder()
+                .id(UUID.randomUUID())
+                .name(name)
+                .specialization("General")
+                .clinic(clinic)
+                .isActive(true)
+                .schedules(new ArrayList<>())
+                .build();
+        doctor.getSchedules().add(DoctorSchedule.builder()
+                .id(UUID.randomUUID())
+                .doctor(doctor)
+                .dayOfWeek(DayOfWeek.valueOf(tomorrow.getDayOfWeek().name()))
+                .startTime(start)
+                .endTime(LocalTime.of(12, 0))
+                .slotDurationMinutes(30)
+                .isActive(true)
+                .build());
+        return doctor;
+    }
+}
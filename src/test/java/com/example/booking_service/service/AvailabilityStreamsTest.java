@@ -0,0 +1,176 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.dto.SlotChangeDto;
+import com.example.booking_service.exception.BookingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AvailabilityStreamsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityStreams streams;
+    private UUID doctorId;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        BookingProperties properties = new BookingProperties();
+        properties.setAvailabilityStreamBuffer(2);
+        properties.setAvailabilityStreamMaxPerDoctor(3);
+        properties.setAvailabilityStreamMaxTotal(4);
+        streams = new AvailabilityStreams(properties, meterRegistry);
+        doctorId = UUID.randomUUID();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        streams.shutdown();
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - Pushes each change to every stream of the doctor only")
+    void onBookingChanged_FansOutToDoctorStreams() throws Exception {
+        // Arrange
+        RecordingEmitter first = new RecordingEmitter(new CountDownLatch(0), 2);
+        RecordingEmitter second = new RecordingEmitter(new CountDownLatch(0), 2);
+        RecordingEmitter otherDoctor = new RecordingEmitter(new CountDownLatch(0), 1);
+        streams.subscribe(doctorId, first);
+        streams.subscribe(doctorId, second);
+        streams.subscribe(UUID.randomUUID(), otherDoctor);
+
+        // Act
+        streams.onBookingChanged(changed(LocalTime.of(9, 0), BookingChangedEvent.Change.BOOKED));
+        streams.onBookingChanged(changed(LocalTime.of(9, 0), BookingChangedEvent.Change.RELEASED));
+
+        // Assert
+        assertThat(first.delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(second.delivered.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(first.sent).hasSize(2);
+        assertThat(otherDoctor.sent).isEmpty();
+        assertThat(streams.subscriberCount(doctorId)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - Every stream gets the same single event frame")
+    void onBookingChanged_SeveralStreams_SameFrame() throws Exception {
+        // Arrange
+        List<RecordingEmitter> emitters = List.of(
+                new RecordingEmitter(new CountDownLatch(0), 1),
+                new RecordingEmitter(new CountDownLatch(0), 1),
+                new RecordingEmitter(new CountDownLatch(0), 1));
+        emitters.forEach(emitter -> streams.subscribe(doctorId, emitter));
+
+        // Act
+        streams.onBookingChanged(changed(LocalTime.of(9, 0), BookingChangedEvent.Change.BOOKED));
+
+        // Assert
+        for (RecordingEmitter emitter : emitters) {
+            assertThat(emitter.delivered.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(emitter.sent).hasSize(1);
+            assertThat(emitter.sent.get(0)).extracting(ResponseBodyEmitter.DataWithMediaType::getData)
+                    .containsExactly("event:" + AvailabilityStreams.SLOT_TAKEN + "\ndata:",
+                            SlotChangeDto.builder()
+                                    .doctorId(doctorId)
+                                    .date(date)
+                                    .startTime(LocalTime.of(9, 0))
+                                    .endTime(LocalTime.of(9, 30))
+                                    .available(false)
+                                    .build(),
+                            "\n\n");
+        }
+    }
+
+    @Test
+    @DisplayName("subscribe - Rejects streams over the per-doctor and total caps")
+    void subscribe_OverCap_ThrowsBusy() {
+        // Arrange
+        for (int i = 0; i < 3; i++) {
+            streams.subscribe(doctorId, new RecordingEmitter(new CountDownLatch(0), 0));
+        }
+        streams.subscribe(UUID.randomUUID(), new RecordingEmitter(new CountDownLatch(0), 0));
+
+        // Act & Assert
+        assertThatThrownBy(() -> streams.subscribe(doctorId, new RecordingEmitter(new CountDownLatch(0), 0)))
+                .isInstanceOf(BookingBusyException.class);
+        assertThatThrownBy(() -> streams.subscribe(UUID.randomUUID(), new RecordingEmitter(new CountDownLatch(0), 0)))
+                .isInstanceOf(BookingBusyException.class);
+        assertThat(streams.subscriberCount(doctorId)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - Disconnects a stream whose buffer is full")
+    void onBookingChanged_SlowConsumer_Dropped() {
+        // Arrange
+        CountDownLatch unblock = new CountDownLatch(1);
+        RecordingEmitter slow = new RecordingEmitter(unblock, 1);
+        streams.subscribe(doctorId, slow);
+
+        // Act
+        for (int hour = 9; hour < 13; hour++) {
+            streams.onBookingChanged(changed(LocalTime.of(hour, 0), BookingChangedEvent.Change.BOOKED));
+        }
+        unblock.countDown();
+
+        // Assert
+        assertThat(streams.subscriberCount(doctorId)).isZero();
+        assertThat(slow.completed).isTrue();
+        assertThat(meterRegistry.counter("booking.availability.stream.dropped").count()).isEqualTo(1);
+    }
+
+    private BookingChangedEvent changed(LocalTime start, BookingChangedEvent.Change change) {
+        return new BookingChangedEvent(doctorId, date, start, start.plusMinutes(30), change);
+    }
+
+    /**
+     * Records sent events instead of writing them; sends block until the gate opens.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final CountDownLatch gate;
+        private final CountDownLatch delivered;
+        private final List<Set<DataWithMediaType>> sent = new CopyOnWriteArrayList<>();
+        private volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch gate, int expected) {
+            this.gate = gate;
+            this.delivered = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(Set<DataWithMediaType> items) throws IOException {
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IOException(ex);
+            }
+            sent.add(items);
+            delivered.countDown();
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.dto.BookingResponse;
+import com.example.booking_service.dto.BookingTicketResponse;
+import com.example.booking_service.dto.CreateBookingRequest;
+import com.example.booking_service.exception.BookingBusyException;
+import com.example.booking_service.exception.BookingConflictException;
+import com.example.booking_service.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntakeQueueTest {
+
+    @Mock
+    private BookingService bookingService;
+
+    private BookingProperties properties;
+    private BookingIntakeQueue intakeQueue;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BookingProperties();
+        properties.setIntakeFlushInterval(Duration.ofMillis(200));
+        properties.setIntakeQueueCapacity(2);
+        intakeQueue = new BookingIntakeQueue(properties, bookingService, new SimpleMeterRegistry());
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        intakeQueue.stop();
+    }
+
+    @Test
+    @DisplayName("submit - Requests arriving together are written in one group commit")
+    void submit_Burst_WrittenInOneGroup() throws Exception {
+        // Arrange
+        BookingResponse created = BookingResponse.builder().id(UUID.randomUUID()).build();
+        when(bookingService.createBookingsGrouped(anyList())).thenReturn(List.of(
+                BookingAttempt.created(created),
+                BookingAttempt.rejected(new BookingConflictException("This time slot conflicts"))));
+
+        // Act
+        BookingTicketResponse first = intakeQueue.submit(request(9), userId);
+        BookingTicketResponse second = intakeQueue.submit(request(9), userId);
+        intakeQueue.start();
+        BookingTicketResponse firstOutcome = intakeQueue
+                .getTicket(first.getTicketId(), userId, Duration.ofSeconds(5)).get();
+        BookingTicketResponse secondOutcome = intakeQueue
+                .getTicket(second.getTicketId(), userId, Duration.ofSeconds(5)).get();
+
+        // Assert
+        assertThat(first.getStatus()).isEqualTo(BookingTicketResponse.Status.PENDING);
+        assertThat(firstOutcome.getStatus()).isEqualTo(BookingTicketResponse.Status.CREATED);
+        assertThat(firstOutcome.getBooking().getId()).isEqualTo(created.getId());
+        assertThat(secondOutcome.getStatus()).isEqualTo(BookingTicketResponse.Status.REJECTED);
+        assertThat(secondOutcome.getCode()).isEqualTo("BOOKING_CONFLICT");
+        verify(bookingService, times(1)).createBookingsGrouped(argThat(submissions -> submissions.size() == 2));
+    }
+
+    @Test
+    @DisplayName("submit - Rejects with BookingBusyException when the queue is full")
+    void submit_QueueFull_ThrowsBusy() {
+        // Arrange
+        intakeQueue.submit(request(9), userId);
+        intakeQueue.submit(request(10), userId);
+
+        // Act & Assert
+        assertThatThrownBy(() -> intakeQueue.submit(request(11), userId))
+                .isInstanceOf(BookingBusyException.class);
+    }
+
+    @Test
+    @DisplayName("getTicket - Hides tickets of other users")
+    void getTicket_OtherUser_ThrowsNotFound() {
+        // Arrange
+        BookingTicketResponse ticket = intakeQueue.submit(request(9), userId);
+
+        // Act & Assert
+        assertThatThrownBy(() -> intakeQueue.getTicket(ticket.getTicketId(), UUID.randomUUID(), Duration.ZERO))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("getTicket - Returns pending ticket when the wait elapses")
+    void getTicket_WaitElapses_StillPending() throws Exception {
+        // Arrange
+        BookingTicketResponse ticket = intakeQueue.submit(request(9), userId);
+
+        // Act
+        BookingTicketResponse response = intakeQueue
+                .getTicket(ticket.getTicketId(), userId, Duration.ofMillis(50)).get();
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(BookingTicketResponse.Status.PENDING);
+        assertThat(intakeQueue.getTicket(ticket.getTicketId(), userId, Duration.ZERO).get().getStatus())
+                .isEqualTo(BookingTicketResponse.Status.PENDING);
+    }
+
+    private CreateBookingRequest request(int hour) {
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(UUID.randomUUID());
+        request.setBookingDate(LocalDate.now().plusDays(7));
+        request.setSlotStartTime(LocalTime.of(hour, 0));
+        return request;
+    }
+}
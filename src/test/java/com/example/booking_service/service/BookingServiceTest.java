@@ -1,36 +1,67 @@
 package com.example.booking_service.service;
 
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.dto.AvailableSlotDto;
+import com.example.booking_service.dto.BitmaskAvailabilityResponse;
+import com.example.booking_service.dto.SlotGridDto;
+import com.example.booking_service.dto.BatchBookingRequest;
+import com.example.booking_service.dto.BatchBookingResponse;
+import com.example.booking_service.dto.BookingItemResult;
 import com.example.booking_service.dto.BookingResponse;
 import com.example.booking_service.dto.CreateBookingRequest;
+import com.example.booking_service.dto.CreateBookingSeriesRequest;
+import com.example.booking_service.dto.DayAvailabilityDto;
+import com.example.booking_service.dto.DoctorAvailabilityResponse;
+import com.example.booking_service.dto.RescheduleBookingRequest;
+import com.example.booking_service.dto.SlotHoldResponse;
 import com.example.booking_service.entity.*;
 import com.example.booking_service.exception.BookingConflictException;
+import com.example.booking_service.exception.BookingLockTimeoutException;
+import com.example.booking_service.exception.IdempotencyKeyMismatchException;
 import com.example.booking_service.exception.ResourceNotFoundException;
 import com.example.booking_service.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceTest {
 
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
     @Mock
     private BookingRepository bookingRepository;
     @Mock
@@ -41,6 +72,35 @@ class BookingServiceTest {
     private DoctorScheduleRepository scheduleRepository;
     @Mock
     private UserRepository userRepository;
+    @Spy
+    private BookingProperties bookingProperties = new BookingProperties();
+    @Spy
+    private BookingTransactionRunner transactionRunner =
+            new BookingTransactionRunner(mock(PlatformTransactionManager.class), new BookingProperties(),
+                    new SimpleMeterRegistry());
+    @Spy
+    private SlotLockManager slotLockManager =
+            new SlotLockManager(new BookingProperties(), new SimpleMeterRegistry());
+    @Mock
+    private DoctorBookingMailboxes bookingMailboxes;
+    @Mock
+    private BookingIdempotencyKeyRepository idempotencyKeyRepository;
+    @Mock
+    private SlotInventoryRepository slotInventoryRepository;
+    @Spy
+    private IdempotencyKeyCache idempotencyKeyCache = new IdempotencyKeyCache(new BookingProperties(), meterRegistry);
+    @Spy
+    private SlotGridCache slotGrids = new SlotGridCache();
+    @Spy
+    private AvailabilityCache availabilityCache = new AvailabilityCache(new BookingProperties(), new SimpleMeterRegistry());
+    @Mock
+    private OccupancyIndex occupancyIndex;
+    @Mock
+    private DayAvailabilityReadModel dayAvailability;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private SlotHoldRegistry slotHolds = new SlotHoldRegistry(new BookingProperties(), new SimpleMeterRegistry());
 
     @InjectMocks
     private BookingService bookingService;
@@ -137,6 +197,7 @@ class BookingServiceTest {
         assertThat(response).isNotNull();
         assertThat(response.getStatus()).isEqualTo(BookingStatus.PENDING);
         verify(bookingRepository).save(any(Booking.class));
+        verify(slotLockManager).withLock(eq(doctorId), eq(nextMonday), any());
     }
 
     @Test
@@ -162,6 +223,33 @@ class BookingServiceTest {
                 .hasMessageContaining("conflicts with an existing booking");
     }
 
+    @Test
+    @DisplayName("createBooking - Fails fast with a retryable lock timeout and counts it per doctor")
+    void createBooking_LockTimeout_ThrowsLockTimeout() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findOverlappingBookingWithLock(any(), any(), any(), any()))
+                .thenThrow(new PessimisticLockingFailureException("lock timeout",
+                        new SQLException("canceling statement due to lock timeout", "55P03")));
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.createBooking(request, userId))
+                .isInstanceOf(BookingLockTimeoutException.class)
+                .satisfies(ex -> assertThat(((BookingLockTimeoutException) ex).getRetryAfterSeconds()).isEqualTo(2));
+        verify(bookingRepository).setLocalLockTimeout("2000ms");
+        assertThat(meterRegistry.counter("booking.lock.timeouts", "doctor", doctorId.toString()).count())
+                .isEqualTo(1);
+    }
+
     @Test
     @DisplayName("createBooking - Throws exception when booking date exceeds 90 days")
     void createBooking_MaxDateExceeded_ThrowsBadRequest() {
@@ -275,126 +363,1234 @@ class BookingServiceTest {
     }
 
     @Test
-    @DisplayName("cancelBooking - Patient can cancel own booking")
-    void cancelBooking_AsPatient_OwnBooking_Success() {
+    @DisplayName("createBooking - Loads patient, doctor and schedules with one context query")
+    void createBooking_LoadsContextInOneQuery() {
         // Arrange
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.INSERT_FIRST);
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        List<Object[]> context = new ArrayList<>();
+        context.add(new Object[]{patient, doctor, schedule});
+        when(doctorRepository.findBookingContext(userId, doctorId, DayOfWeek.MONDAY)).thenReturn(context);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        BookingResponse response = bookingService.createBooking(request, userId);
+
+        // Assert
+        assertThat(response.getPatientId()).isEqualTo(patientId);
+        assertThat(response.getClinicId()).isEqualTo(clinic.getId());
+        verify(patientRepository, never()).findByUserId(any());
+        verify(doctorRepository, never()).findById(any());
+        verify(scheduleRepository, never()).findByDoctorIdAndDayOfWeekAndIsActiveTrue(any(), any());
+    }
+
+    @Test
+    @DisplayName("createBooking - Insert-first skips the locking overlap query")
+    void createBooking_InsertFirst_SkipsLockQuery() {
+        // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.INSERT_FIRST);
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
         when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(inv -> {
+            Booking b = inv.getArgument(0);
+            b.setId(UUID.randomUUID());
+            return b;
+        });
 
         // Act
-        BookingResponse response = bookingService.cancelBooking(bookingId, userId, "Test reason");
+        BookingResponse response = bookingService.createBooking(request, userId);
 
         // Assert
-        assertThat(response).isNotNull();
-        verify(bookingRepository).save(argThat(b -> b.getStatus() == BookingStatus.CANCELLED));
+        assertThat(response.getStatus()).isEqualTo(BookingStatus.PENDING);
+        verify(bookingRepository, never()).findOverlappingBookingWithLock(any(), any(), any(), any());
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(doctorId, nextMonday,
+                LocalTime.of(9, 0), LocalTime.of(9, 30), BookingChangedEvent.Change.BOOKED, List.of(schedule)));
     }
 
     @Test
-    @DisplayName("cancelBooking - Patient cannot cancel other's booking")
-    void cancelBooking_AsPatient_OtherBooking_ThrowsForbidden() {
+    @DisplayName("createBooking - Insert-first maps exclusion constraint violation to conflict")
+    void createBooking_InsertFirst_ConstraintViolation_ThrowsConflict() {
         // Arrange
-        Patient otherPatient = Patient.builder()
-                .id(UUID.randomUUID())
-                .user(User.builder().id(UUID.randomUUID()).build())
-                .build();
-        Booking otherBooking = Booking.builder()
-                .id(bookingId)
-                .doctor(doctor)
-                .patient(otherPatient)
-                .status(BookingStatus.PENDING)
-                .build();
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.INSERT_FIRST);
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(otherBooking));
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
         when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenThrow(new DataIntegrityViolationException(
+                "conflicting key value violates exclusion constraint \"ex_bookings_no_overlap\""));
 
         // Act & Assert
-        assertThatThrownBy(() -> bookingService.cancelBooking(bookingId, userId, "Test"))
-                .isInstanceOf(IllegalArgumentException.class)
-                .hasMessageContaining("only cancel your own");
+        assertThatThrownBy(() -> bookingService.createBooking(request, userId))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessageContaining("conflicts with an existing booking");
     }
 
     @Test
-    @DisplayName("cancelBooking - Staff can cancel any booking")
-    void cancelBooking_AsStaff_AnyBooking_Success() {
+    @DisplayName("createBooking - Advisory lock strategy locks the doctor's day and checks without row lock")
+    void createBooking_AdvisoryLock_UsesPlainOverlapCheck() {
         // Arrange
-        User staffUser = User.builder()
-                .id(UUID.randomUUID())
-                .email("staff@example.com")
-                .role(UserRole.STAFF)
-                .build();
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.ADVISORY_LOCK);
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
 
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(userRepository.findById(staffUser.getId())).thenReturn(Optional.of(staffUser));
-        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findOverlappingBookings(any(), any(), any(), any()))
+                .thenReturn(List.of(booking));
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.createBooking(request, userId))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessageContaining("conflicts with an existing booking");
+        verify(bookingRepository).acquireAdvisoryXactLock(BookingService.advisoryLockKey(doctorId, nextMonday));
+        verify(bookingRepository, never()).findOverlappingBookingWithLock(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("createBooking - Serializable strategy runs in a retrying serializable transaction")
+    void createBooking_Serializable_UsesRetryingRunner() {
+        // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SERIALIZABLE);
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findOverlappingBookings(any(), any(), any(), any())).thenReturn(List.of());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
-        BookingResponse response = bookingService.cancelBooking(bookingId, staffUser.getId(), "Admin cancel");
+        BookingResponse response = bookingService.createBooking(request, userId);
 
         // Assert
-        assertThat(response).isNotNull();
-        verify(bookingRepository).save(any(Booking.class));
+        assertThat(response.getStatus()).isEqualTo(BookingStatus.PENDING);
+        verify(transactionRunner).runSerializable(eq(3), any(), any());
+        verify(slotLockManager).withLock(eq(doctorId), eq(nextMonday), any());
+        verify(bookingRepository, never()).findOverlappingBookingWithLock(any(), any(), any(), any());
     }
 
     @Test
-    @DisplayName("confirmBooking - Success for pending booking")
-    void confirmBooking_Success() {
+    @DisplayName("createBooking - Slot inventory claims the slot row before inserting")
+    void createBooking_SlotInventory_ClaimsSlot() {
         // Arrange
-        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
-        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SLOT_INVENTORY);
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(slotInventoryRepository.claim(doctorId, nextMonday, LocalTime.of(9, 0))).thenReturn(1);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
-        BookingResponse response = bookingService.confirmBooking(bookingId);
+        BookingResponse response = bookingService.createBooking(request, userId);
 
         // Assert
-        assertThat(response).isNotNull();
-        verify(bookingRepository).save(argThat(b -> b.getStatus() == BookingStatus.CONFIRMED));
+        assertThat(response.getStatus()).isEqualTo(BookingStatus.PENDING);
+        verify(bookingRepository, never()).findOverlappingBookingWithLock(any(), any(), any(), any());
+        verify(slotInventoryRepository, never()).materializeDoctor(any(), any(), any());
     }
 
     @Test
-    @DisplayName("getMyBookings - Returns paginated results")
-    void getMyBookings_Paginated() {
+    @DisplayName("createBooking - Slot inventory rejects a slot that is already claimed")
+    void createBooking_SlotInventory_AlreadyClaimed_ThrowsConflict() {
         // Arrange
-        Pageable pageable = PageRequest.of(0, 10);
-        Page<Booking> bookingPage = new PageImpl<>(List.of(booking), pageable, 1);
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SLOT_INVENTORY);
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
 
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
         when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
-        when(bookingRepository.findByPatientIdOrderByBookingDateDescSlotStartTimeDesc(patientId, pageable))
-                .thenReturn(bookingPage);
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(slotInventoryRepository.claim(doctorId, nextMonday, LocalTime.of(9, 0))).thenReturn(0);
+        when(slotInventoryRepository.existsByDoctorIdAndSlotDateAndSlotStart(doctorId, nextMonday, LocalTime.of(9, 0)))
+                .thenReturn(true);
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.createBooking(request, userId))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessageContaining("no longer available");
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("createBooking - Slot inventory materializes only this doctor's day when its row is missing")
+    void createBooking_SlotInventory_RowMissing_MaterializesDoctorDay() {
+        // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SLOT_INVENTORY);
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(slotInventoryRepository.claim(doctorId, nextMonday, LocalTime.of(9, 0))).thenReturn(0, 1);
+        when(slotInventoryRepository.materializeDoctor(doctorId, nextMonday, nextMonday)).thenReturn(6);
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
 
         // Act
-        Page<BookingResponse> result = bookingService.getMyBookings(userId, pageable);
+        BookingResponse response = bookingService.createBooking(request, userId);
 
         // Assert
-        assertThat(result).isNotNull();
-        assertThat(result.getContent()).hasSize(1);
-        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(response.getStatus()).isEqualTo(BookingStatus.PENDING);
+        verify(slotInventoryRepository, never()).materialize(any(), any());
     }
 
     @Test
-    @DisplayName("getAvailableSlots - Returns filtered slots excluding booked")
-    void getAvailableSlots_ReturnsFilteredSlots() {
+    @DisplayName("createBooking - Single writer rejects overlap from in-memory occupancy without locking")
+    void createBooking_SingleWriter_RejectsFromOccupancy() {
         // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SINGLE_WRITER);
         LocalDate nextMonday = getNextMonday();
-        when(doctorRepository.existsById(doctorId)).thenReturn(true);
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        DoctorOccupancy occupancy = new DoctorOccupancy(date -> List.of(booking), Long.MAX_VALUE);
+        runMailboxWith(occupancy);
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
         when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
                 .thenReturn(List.of(schedule));
-        when(bookingRepository.findActiveBookingsByDoctorAndDate(doctorId, nextMonday))
-                .thenReturn(List.of(booking)); // 9:00 slot is booked
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.createBooking(request, userId))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessageContaining("conflicts with an existing booking");
+        verify(bookingRepository, never()).findOverlappingBookingWithLock(any(), any(), any(), any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(slotLockManager);
+    }
+
+    @Test
+    @DisplayName("createBooking - Single writer records the new booking in occupancy")
+    void createBooking_SingleWriter_RecordsBooking() {
+        // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SINGLE_WRITER);
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(10, 0));
+
+        DoctorOccupancy occupancy = new DoctorOccupancy(date -> List.of(), Long.MAX_VALUE);
+        runMailboxWith(occupancy);
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(inv -> {
+            Booking b = inv.getArgument(0);
+            b.setId(UUID.randomUUID());
+            return b;
+        });
 
         // Act
-        var slots = bookingService.getAvailableSlots(doctorId, nextMonday);
+        BookingResponse response = bookingService.createBooking(request, userId);
 
         // Assert
-        assertThat(slots).isNotEmpty();
-        // 9:00 slot should be marked as not available
-        var slot9am = slots.stream()
-                .filter(s -> s.getStartTime().equals(LocalTime.of(9, 0)))
-                .findFirst();
-        assertThat(slot9am).isPresent();
-        assertThat(slot9am.get().isAvailable()).isFalse();
+        assertThat(occupancy.findOverlap(nextMonday, LocalTime.of(10, 0), LocalTime.of(10, 30)))
+                .hasValueSatisfying(interval -> assertThat(interval.bookingId()).isEqualTo(response.getId()));
+    }
+
+    @Test
+    @DisplayName("cancelBooking - Single writer routes through the doctor's mailbox and frees the slot")
+    void cancelBooking_SingleWriter_FreesOccupancy() {
+        // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SINGLE_WRITER);
+        DoctorOccupancy occupancy = new DoctorOccupancy(date -> List.of(booking), Long.MAX_VALUE);
+        assertThat(occupancy.findOverlap(booking.getBookingDate(), booking.getSlotStartTime(), booking.getSlotEndTime()))
+                .isPresent();
+        runMailboxWith(occupancy);
+        when(bookingRepository.findDoctorIdById(bookingId)).thenReturn(Optional.of(doctorId));
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        // Act
+        bookingService.cancelBooking(bookingId, userId, "Test reason");
+
+        // Assert
+        verify(bookingMailboxes).execute(eq(doctorId), any());
+        assertThat(occupancy.findOverlap(booking.getBookingDate(), booking.getSlotStartTime(), booking.getSlotEndTime()))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("createBookingsGrouped - Rejects a request overlapping an earlier one in the same group")
+    void createBookingsGrouped_OverlapWithinGroup_RejectsOnlyThatRequest() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest first = new CreateBookingRequest();
+        first.setDoctorId(doctorId);
+        first.setBookingDate(nextMonday);
+        first.setSlotStartTime(LocalTime.of(9, 0));
+        CreateBookingRequest second = new CreateBookingRequest();
+        second.setDoctorId(doctorId);
+        second.setBookingDate(nextMonday);
+        second.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDatesForUpdate(eq(doctorId), any())).thenReturn(List.of());
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        List<BookingAttempt> attempts = bookingService.createBookingsGrouped(List.of(
+                new BookingSubmission(first, userId), new BookingSubmission(second, userId)));
+
+        // Assert
+        assertThat(attempts).hasSize(2);
+        assertThat(attempts.get(0).isCreated()).isTrue();
+        assertThat(attempts.get(1).errorCode()).isEqualTo("BOOKING_CONFLICT");
+        verify(bookingRepository, times(1)).findActiveBookingsByDoctorAndDatesForUpdate(eq(doctorId), eq(Set.of(nextMonday)));
+        verify(bookingRepository).saveAll(argThat(bookings -> bookings.spliterator().getExactSizeIfKnown() == 1));
+    }
+
+    @Test
+    @DisplayName("createBookingsGrouped - Falls back to individual bookings when the database rejects the group")
+    void createBookingsGrouped_DatabaseRejects_RetriesIndividually() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDatesForUpdate(eq(doctorId), any())).thenReturn(List.of());
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        doThrow(new DataIntegrityViolationException("ex_bookings_no_overlap")).when(bookingRepository).flush();
+        when(bookingRepository.findOverlappingBookingWithLock(any(), any(), any(), any()))
+                .thenReturn(Optional.of(booking));
+
+        // Act
+        List<BookingAttempt> attempts = bookingService.createBookingsGrouped(
+                List.of(new BookingSubmission(request, userId)));
+
+        // Assert
+        assertThat(attempts).singleElement().satisfies(attempt -> {
+            assertThat(attempt.isCreated()).isFalse();
+            assertThat(attempt.errorCode()).isEqualTo("BOOKING_CONFLICT");
+        });
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("createBookingsGrouped - Advisory lock strategy locks every requested day in order")
+    void createBookingsGrouped_AdvisoryLock_LocksEachDay() {
+        // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.ADVISORY_LOCK);
+        LocalDate nextMonday = getNextMonday();
+        LocalDate followingMonday = nextMonday.plusWeeks(1);
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDates(eq(doctorId), any())).thenReturn(List.of());
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        List<BookingAttempt> attempts = bookingService.createBookingsGrouped(List.of(
+                new BookingSubmission(batchItem(followingMonday, 9), userId),
+                new BookingSubmission(batchItem(nextMonday, 9), userId)));
+
+        // Assert
+        assertThat(attempts).allMatch(BookingAttempt::isCreated);
+        InOrder inOrder = inOrder(bookingRepository);
+        inOrder.verify(bookingRepository).acquireAdvisoryXactLock(BookingService.advisoryLockKey(doctorId, nextMonday));
+        inOrder.verify(bookingRepository).acquireAdvisoryXactLock(
+                BookingService.advisoryLockKey(doctorId, followingMonday));
+        verify(bookingRepository, never()).findActiveBookingsByDoctorAndDatesForUpdate(any(), any());
+    }
+
+    @Test
+    @DisplayName("createBookingsGrouped - Single writer checks the doctor's occupancy and records the new bookings")
+    void createBookingsGrouped_SingleWriter_UsesMailboxOccupancy() {
+        // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SINGLE_WRITER);
+        LocalDate nextMonday = getNextMonday();
+        Booking taken = Booking.builder()
+                .id(UUID.randomUUID())
+                .bookingDate(nextMonday)
+                .slotStartTime(LocalTime.of(9, 0))
+                .slotEndTime(LocalTime.of(9, 30))
+                .build();
+        DoctorOccupancy occupancy = new DoctorOccupancy(date -> new ArrayList<>(List.of(taken)), Long.MAX_VALUE);
+        runMailboxWith(occupancy);
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Booking> bookings = inv.getArgument(0);
+            bookings.forEach(saved -> saved.setId(UUID.randomUUID()));
+            return bookings;
+        });
+
+        // Act
+        List<BookingAttempt> attempts = bookingService.createBookingsGrouped(List.of(
+                new BookingSubmission(batchItem(nextMonday, 9), userId),
+                new BookingSubmission(batchItem(nextMonday, 10), userId)));
+
+        // Assert
+        assertThat(attempts.get(0).errorCode()).isEqualTo("BOOKING_CONFLICT");
+        assertThat(attempts.get(1).isCreated()).isTrue();
+        assertThat(occupancy.findOverlap(nextMonday, LocalTime.of(10, 0), LocalTime.of(10, 30))).isPresent();
+        verify(bookingRepository, never()).findActiveBookingsByDoctorAndDatesForUpdate(any(), any());
+        verifyNoInteractions(slotLockManager);
+    }
+
+    @Test
+    @DisplayName("createBookingBatch - All-or-nothing creates nothing when one slot is taken")
+    void createBookingBatch_AllOrNothing_OneConflict_CreatesNothing() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        Booking existing = Booking.builder()
+                .doctor(doctor)
+                .bookingDate(nextMonday)
+                .slotStartTime(LocalTime.of(10, 0))
+                .slotEndTime(LocalTime.of(10, 30))
+                .status(BookingStatus.CONFIRMED)
+                .build();
+        BatchBookingRequest request = BatchBookingRequest.builder()
+                .bookings(List.of(batchItem(nextMonday, 9), batchItem(nextMonday, 10)))
+                .mode(BatchBookingRequest.Mode.ALL_OR_NOTHING)
+                .build();
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDatesForUpdate(eq(doctorId), any()))
+                .thenReturn(List.of(existing));
+
+        // Act
+        BatchBookingResponse response = bookingService.createBookingBatch(request, userId);
+
+        // Assert
+        assertThat(response.getCreatedCount()).isZero();
+        assertThat(response.getRejectedCount()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BookingItemResult::getStatus)
+                .containsExactly(BookingItemResult.Status.ABORTED, BookingItemResult.Status.REJECTED);
+        assertThat(response.getResults().get(1).getCode()).isEqualTo("BOOKING_CONFLICT");
+        verify(bookingRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("createBookingBatch - Best-effort books the free slots with one occupancy query per doctor")
+    void createBookingBatch_BestEffort_LocksInOrderAndLoadsLookupsOnce() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        LocalDate mondayAfter = nextMonday.plusWeeks(1);
+        BatchBookingRequest request = BatchBookingRequest.builder()
+                .bookings(List.of(batchItem(mondayAfter, 9), batchItem(nextMonday, 11), batchItem(nextMonday, 9)))
+                .mode(BatchBookingRequest.Mode.BEST_EFFORT)
+                .build();
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDatesForUpdate(eq(doctorId), any()))
+                .thenReturn(List.of());
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        BatchBookingResponse response = bookingService.createBookingBatch(request, userId);
+
+        // Assert
+        assertThat(response.getCreatedCount()).isEqualTo(3);
+        assertThat(response.getResults()).extracting(result -> result.getBooking().getSlotStartTime())
+                .containsExactly(LocalTime.of(9, 0), LocalTime.of(11, 0), LocalTime.of(9, 0));
+        verify(bookingRepository, times(1)).findActiveBookingsByDoctorAndDatesForUpdate(
+                eq(doctorId), argThat(dates -> List.copyOf(dates).equals(List.of(nextMonday, mondayAfter))));
+        verify(doctorRepository, times(1)).findById(doctorId);
+        verify(patientRepository, times(1)).findByUserId(userId);
+        verify(scheduleRepository, times(1)).findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any());
+    }
+
+    @Test
+    @DisplayName("createBookingSeries - Reports each weekly occurrence and checks them in one query")
+    void createBookingSeries_Weekly_OneConflict_ReportsPerOccurrence() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        Booking existing = Booking.builder()
+                .doctor(doctor)
+                .bookingDate(nextMonday.plusWeeks(1))
+                .slotStartTime(LocalTime.of(9, 0))
+                .slotEndTime(LocalTime.of(9, 30))
+                .status(BookingStatus.CONFIRMED)
+                .build();
+        CreateBookingSeriesRequest request = CreateBookingSeriesRequest.builder()
+                .doctorId(doctorId)
+                .startDate(nextMonday)
+                .slotStartTime(LocalTime.of(9, 0))
+                .frequency(CreateBookingSeriesRequest.Frequency.WEEKLY)
+                .occurrences(3)
+                .build();
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDatesForUpdate(eq(doctorId), any()))
+                .thenReturn(List.of(existing));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        BatchBookingResponse response = bookingService.createBookingSeries(request, userId);
+
+        // Assert
+        assertThat(response.getCreatedCount()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(BookingItemResult::getStatus).containsExactly(
+                BookingItemResult.Status.CREATED, BookingItemResult.Status.REJECTED, BookingItemResult.Status.CREATED);
+        assertThat(response.getResults()).extracting(BookingItemResult::getBookingDate)
+                .containsExactly(nextMonday, nextMonday.plusWeeks(1), nextMonday.plusWeeks(2));
+        verify(bookingRepository, times(1)).findActiveBookingsByDoctorAndDatesForUpdate(eq(doctorId),
+                eq(Set.of(nextMonday, nextMonday.plusWeeks(1), nextMonday.plusWeeks(2))));
+        verify(bookingRepository, never()).findOverlappingBookingWithLock(any(), any(), any(), any());
+        verify(bookingRepository).saveAll(argThat(bookings -> bookings.spliterator().getExactSizeIfKnown() == 2));
+    }
+
+    @Test
+    @DisplayName("cancelBooking - Patient can cancel own booking")
+    void cancelBooking_AsPatient_OwnBooking_Success() {
+        // Arrange
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        // Act
+        BookingResponse response = bookingService.cancelBooking(bookingId, userId, "Test reason");
+
+        // Assert
+        assertThat(response).isNotNull();
+        verify(bookingRepository).save(argThat(b -> b.getStatus() == BookingStatus.CANCELLED));
+    }
+
+    @Test
+    @DisplayName("cancelBooking - Serializable strategy cancels in a retrying serializable transaction")
+    void cancelBooking_Serializable_UsesRetryingRunner() {
+        // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SERIALIZABLE);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        // Act
+        BookingResponse response = bookingService.cancelBooking(bookingId, userId, "Test reason");
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(BookingStatus.CANCELLED);
+        verify(transactionRunner).runSerializable(eq(3), any(), any());
+        verify(transactionRunner, never()).run(any());
+    }
+
+    @Test
+    @DisplayName("cancelBooking - Patient cannot cancel other's booking")
+    void cancelBooking_AsPatient_OtherBooking_ThrowsForbidden() {
+        // Arrange
+        Patient otherPatient = Patient.builder()
+                .id(UUID.randomUUID())
+                .user(User.builder().id(UUID.randomUUID()).build())
+                .build();
+        Booking otherBooking = Booking.builder()
+                .id(bookingId)
+                .doctor(doctor)
+                .patient(otherPatient)
+                .status(BookingStatus.PENDING)
+                .build();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(otherBooking));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.cancelBooking(bookingId, userId, "Test"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("only cancel your own");
+    }
+
+    @Test
+    @DisplayName("cancelBooking - Staff can cancel any booking")
+    void cancelBooking_AsStaff_AnyBooking_Success() {
+        // Arrange
+        User staffUser = User.builder()
+                .id(UUID.randomUUID())
+                .email("staff@example.com")
+                .role(UserRole.STAFF)
+                .build();
+
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(userRepository.findById(staffUser.getId())).thenReturn(Optional.of(staffUser));
+        when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
+
+        // Act
+        BookingResponse response = bookingService.cancelBooking(bookingId, staffUser.getId(), "Admin cancel");
+
+        // Assert
+        assertThat(response).isNotNull();
+        verify(bookingRepository).save(any(Booking.class));
+    }
+
+    @Test
+    @DisplayName("rescheduleBooking - Moves the booking in place after locking both days")
+    void rescheduleBooking_Success_UpdatesInPlace() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        LocalDate target = nextMonday.plusWeeks(1);
+        booking.setBookingDate(nextMonday);
+        RescheduleBookingRequest request = RescheduleBookingRequest.builder()
+                .bookingDate(target)
+                .slotStartTime(LocalTime.of(10, 0))
+                .build();
+
+        when(bookingRepository.findDoctorAndDateById(bookingId)).thenReturn(List.<Object[]>of(new Object[]{doctorId, nextMonday}));
+        when(bookingRepository.findByIdForUpdate(bookingId)).thenReturn(Optional.of(booking));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDatesForUpdate(eq(doctorId), any()))
+                .thenReturn(List.of(booking));
+        when(bookingRepository.saveAndFlush(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        BookingResponse response = bookingService.rescheduleBooking(bookingId, request, userId);
+
+        // Assert
+        assertThat(response.getId()).isEqualTo(bookingId);
+        assertThat(response.getBookingDate()).isEqualTo(target);
+        assertThat(response.getSlotEndTime()).isEqualTo(LocalTime.of(10, 30));
+        verify(bookingRepository).findActiveBookingsByDoctorAndDatesForUpdate(
+                eq(doctorId), argThat(dates -> List.copyOf(dates).equals(List.of(nextMonday, target))));
+        verify(bookingRepository, never()).save(any());
+        verify(slotLockManager).withLocks(eq(Map.of(doctorId, Set.of(nextMonday, target))), any());
+    }
+
+    @Test
+    @DisplayName("rescheduleBooking - Rejects a target slot taken by another booking")
+    void rescheduleBooking_TargetTaken_ThrowsConflict() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        booking.setBookingDate(nextMonday);
+        Booking other = Booking.builder()
+                .id(UUID.randomUUID())
+                .doctor(doctor)
+                .bookingDate(nextMonday)
+                .slotStartTime(LocalTime.of(10, 0))
+                .slotEndTime(LocalTime.of(10, 30))
+                .status(BookingStatus.CONFIRMED)
+                .build();
+        RescheduleBookingRequest request = RescheduleBookingRequest.builder()
+                .bookingDate(nextMonday)
+                .slotStartTime(LocalTime.of(10, 0))
+                .build();
+
+        when(bookingRepository.findDoctorAndDateById(bookingId)).thenReturn(List.<Object[]>of(new Object[]{doctorId, nextMonday}));
+        when(bookingRepository.findByIdForUpdate(bookingId)).thenReturn(Optional.of(booking));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDatesForUpdate(eq(doctorId), eq(Set.of(nextMonday))))
+                .thenReturn(List.of(booking, other));
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.rescheduleBooking(bookingId, request, userId))
+                .isInstanceOf(BookingConflictException.class);
+        assertThat(booking.getSlotStartTime()).isEqualTo(LocalTime.of(9, 0));
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("rescheduleBooking - Rejects a booking cancelled after it was first read")
+    void rescheduleBooking_CancelledConcurrently_Rejects() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        booking.setBookingDate(nextMonday);
+        booking.setStatus(BookingStatus.CANCELLED);
+        RescheduleBookingRequest request = RescheduleBookingRequest.builder()
+                .bookingDate(nextMonday.plusWeeks(1))
+                .slotStartTime(LocalTime.of(10, 0))
+                .build();
+
+        when(bookingRepository.findDoctorAndDateById(bookingId)).thenReturn(List.<Object[]>of(new Object[]{doctorId, nextMonday}));
+        when(bookingRepository.findByIdForUpdate(bookingId)).thenReturn(Optional.of(booking));
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.rescheduleBooking(bookingId, request, userId))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Only pending or confirmed");
+        InOrder inOrder = inOrder(bookingRepository);
+        inOrder.verify(bookingRepository).findActiveBookingsByDoctorAndDatesForUpdate(eq(doctorId), any());
+        inOrder.verify(bookingRepository).findByIdForUpdate(bookingId);
+        verify(bookingRepository, never()).findById(any());
+        verify(bookingRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    @DisplayName("confirmBooking - Success for pending booking")
+    void confirmBooking_Success() {
+        // Arrange
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        BookingResponse response = bookingService.confirmBooking(bookingId);
+
+        // Assert
+        assertThat(response).isNotNull();
+        verify(bookingRepository).save(argThat(b -> b.getStatus() == BookingStatus.CONFIRMED));
+    }
+
+    @Test
+    @DisplayName("getMyBookings - Returns paginated results")
+    void getMyBookings_Paginated() {
+        // Arrange
+        Pageable pageable = PageRequest.of(0, 10);
+        Page<Booking> bookingPage = new PageImpl<>(List.of(booking), pageable, 1);
+
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(bookingRepository.findByPatientIdOrderByBookingDateDescSlotStartTimeDesc(patientId, pageable))
+                .thenReturn(bookingPage);
+
+        // Act
+        Page<BookingResponse> result = bookingService.getMyBookings(userId, pageable);
+
+        // Assert
+        assertThat(result).isNotNull();
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("getAvailableSlots - Returns filtered slots excluding booked")
+    void getAvailableSlots_ReturnsFilteredSlots() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        when(doctorRepository.existsById(doctorId)).thenReturn(true);
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDate(doctorId, nextMonday))
+                .thenReturn(List.of(booking)); // 9:00 slot is booked
+
+        // Act
+        var slots = bookingService.getAvailableSlots(doctorId, nextMonday);
+
+        // Assert
+        assertThat(slots).isNotEmpty();
+        // 9:00 slot should be marked as not available
+        var slot9am = slots.stream()
+                .filter(s -> s.getStartTime().equals(LocalTime.of(9, 0)))
+                .findFirst();
+        assertThat(slot9am).isPresent();
+        assertThat(slot9am.get().isAvailable()).isFalse();
+    }
+
+    @Test
+    @DisplayName("getAvailableSlots - Slot inventory reads the materialized rows")
+    void getAvailableSlots_SlotInventory_ReadsInventory() {
+        // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SLOT_INVENTORY);
+        LocalDate nextMonday = getNextMonday();
+        when(doctorRepository.existsById(doctorId)).thenReturn(true);
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        List<SlotInventory> inventory = new ArrayList<>();
+        for (LocalTime start = LocalTime.of(9, 0); start.isBefore(LocalTime.NOON); start = start.plusMinutes(30)) {
+            inventory.add(SlotInventory.builder().slotStart(start).slotEnd(start.plusMinutes(30))
+                    .state(start.getHour() == 9 && start.getMinute() == 0 ? SlotState.BOOKED : SlotState.FREE)
+                    .build());
+        }
+        when(slotInventoryRepository.findByDoctorIdAndSlotDateOrderBySlotStartAsc(doctorId, nextMonday))
+                .thenReturn(inventory);
+
+        // Act
+        var slots = bookingService.getAvailableSlots(doctorId, nextMonday);
+
+        // Assert
+        assertThat(slots).extracting(AvailableSlotDto::isAvailable)
+                .containsExactly(false, true, true, true, true, true);
+        verify(bookingRepository, never()).findActiveBookingsByDoctorAndDate(any(), any());
+    }
+
+    @Test
+    @DisplayName("getAvailableSlots - Slot inventory rows of an older schedule layout fall back to the grid")
+    void getAvailableSlots_SlotInventory_StaleLayout_UsesGrid() {
+        // Arrange
+        bookingProperties.setConcurrencyStrategy(BookingConcurrencyStrategy.SLOT_INVENTORY);
+        LocalDate nextMonday = getNextMonday();
+        when(doctorRepository.existsById(doctorId)).thenReturn(true);
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        List<SlotInventory> inventory = new ArrayList<>();
+        for (LocalTime start = LocalTime.of(9, 0); start.isBefore(LocalTime.of(11, 0)); start = start.plusMinutes(20)) {
+            inventory.add(SlotInventory.builder().slotStart(start).slotEnd(start.plusMinutes(20))
+                    .state(SlotState.FREE).build());
+        }
+        when(slotInventoryRepository.findByDoctorIdAndSlotDateOrderBySlotStartAsc(doctorId, nextMonday))
+                .thenReturn(inventory);
+        when(bookingRepository.findActiveBookingsByDoctorAndDate(doctorId, nextMonday)).thenReturn(List.of());
+
+        // Act
+        var slots = bookingService.getAvailableSlots(doctorId, nextMonday);
+
+        // Assert
+        assertThat(slots).hasSize(6);
+        assertThat(slots).extracting(AvailableSlotDto::getEndTime).contains(LocalTime.of(9, 30));
+        verify(bookingRepository).findActiveBookingsByDoctorAndDate(doctorId, nextMonday);
+    }
+
+    @Test
+    @DisplayName("getAvailability - Builds every day of the range from one schedule fetch and one booking query")
+    void getAvailability_Range_OneQueryEach() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        doctor.getSchedules().add(schedule);
+        booking.setBookingDate(nextMonday);
+        when(doctorRepository.findByIdWithSchedules(doctorId)).thenReturn(doctor);
+        when(bookingRepository.findActiveBookingsByDoctorAndDateRange(doctorId, nextMonday, nextMonday.plusDays(1)))
+                .thenReturn(List.of(booking));
+
+        // Act
+        DoctorAvailabilityResponse response =
+                bookingService.getAvailability(doctorId, nextMonday, nextMonday.plusDays(1));
+
+        // Assert
+        assertThat(response.getDays()).extracting(DayAvailabilityDto::getDate)
+                .containsExactly(nextMonday, nextMonday.plusDays(1));
+        assertThat(response.getDays().get(0).getSlots()).hasSize(6)
+                .filteredOn(AvailableSlotDto::isAvailable).hasSize(5);
+        assertThat(response.getDays().get(1).getSlots()).isEmpty();
+        verify(scheduleRepository, never()).findByDoctorIdAndDayOfWeekAndIsActiveTrue(any(), any());
+        verify(bookingRepository, never()).findActiveBookingsByDoctorAndDate(any(), any());
+    }
+
+    @Test
+    @DisplayName("getAvailability - Serves a range stored by the day read model without live queries")
+    void getAvailability_StoredRange_NoLiveQueries() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        when(dayAvailability.isEnabled()).thenReturn(true);
+        when(dayAvailability.findRange(doctorId, nextMonday, nextMonday.plusDays(1))).thenReturn(Map.of(
+                nextMonday, List.of(
+                        new AvailabilityCache.DaySlot(LocalTime.of(9, 0), LocalTime.of(9, 30), false),
+                        new AvailabilityCache.DaySlot(LocalTime.of(9, 30), LocalTime.of(10, 0), true)),
+                nextMonday.plusDays(1), List.of()));
+
+        // Act
+        DoctorAvailabilityResponse response =
+                bookingService.getAvailability(doctorId, nextMonday, nextMonday.plusDays(1));
+
+        // Assert
+        assertThat(response.getDays().get(0).getSlots()).extracting(AvailableSlotDto::isAvailable)
+                .containsExactly(false, true);
+        assertThat(response.getDays().get(1).getSlots()).isEmpty();
+        verifyNoInteractions(doctorRepository, bookingRepository);
+    }
+
+    @Test
+    @DisplayName("getAvailabilityBitmask - Lists the shared grid once and one bitmask per day")
+    void getAvailabilityBitmask_EncodesDays() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        doctor.getSchedules().add(schedule);
+        booking.setBookingDate(nextMonday);
+        when(doctorRepository.findByIdWithSchedules(doctorId)).thenReturn(doctor);
+        when(bookingRepository.findActiveBookingsByDoctorAndDateRange(doctorId, nextMonday, nextMonday.plusDays(7)))
+                .thenReturn(List.of(booking));
+
+        // Act
+        BitmaskAvailabilityResponse response =
+                bookingService.getAvailabilityBitmask(doctorId, nextMonday, nextMonday.plusDays(7));
+
+        // Assert
+        assertThat(response.getGrids()).containsExactly(SlotGridDto.builder()
+                .startTime(LocalTime.of(9, 0)).slotMinutes(30).slotCount(6).build());
+        assertThat(response.getDays()).hasSize(8);
+        // 09:00 booked, 09:30-11:30 free: bits 1-5 set
+        assertThat(response.getDays().get(0).getGrids()).containsExactly(0);
+        assertThat(Base64.getDecoder().decode(response.getDays().get(0).getAvailable()))
+                .containsExactly(0b111110);
+        assertThat(Base64.getDecoder().decode(response.getDays().get(7).getAvailable()))
+                .containsExactly(0b111111);
+        assertThat(response.getDays().get(1).getGrids()).isEmpty();
+        assertThat(response.getDays().get(1).getAvailable()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("getAvailability - Rejects ranges longer than the booking horizon")
+    void getAvailability_RangeTooLong_ThrowsBadRequest() {
+        // Arrange
+        LocalDate from = LocalDate.now();
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.getAvailability(doctorId, from, from.plusDays(91)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("at most 90 days");
+        verifyNoInteractions(doctorRepository);
+    }
+
+    @Test
+    @DisplayName("createBooking - A slot booked in the occupancy index is still checked against the database")
+    void createBooking_OccupiedInIndex_ChecksDatabase() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        lenient().when(occupancyIndex.covers(nextMonday)).thenReturn(true);
+        lenient().when(occupancyIndex.isOccupied(eq(doctorId), eq(nextMonday), any(), any())).thenReturn(true);
+        when(bookingRepository.findOverlappingBookingWithLock(any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        BookingResponse response = bookingService.createBooking(request, userId);
+
+        // Assert
+        assertThat(response.getStatus()).isEqualTo(BookingStatus.PENDING);
+        verify(bookingRepository).findOverlappingBookingWithLock(any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("getAvailableSlots - Skips the booking query while the occupancy index has the day free")
+    void getAvailableSlots_IndexFree_SkipsBookingQuery() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        when(doctorRepository.existsById(doctorId)).thenReturn(true);
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(occupancyIndex.covers(nextMonday)).thenReturn(true);
+
+        // Act
+        List<AvailableSlotDto> slots = bookingService.getAvailableSlots(doctorId, nextMonday);
+
+        // Assert
+        assertThat(slots).hasSize(6).allMatch(AvailableSlotDto::isAvailable);
+        verify(bookingRepository, never()).findActiveBookingsByDoctorAndDate(any(), any());
+    }
+
+    @Test
+    @DisplayName("getAvailableSlots - Confirms slots booked in the occupancy index against the bookings table")
+    void getAvailableSlots_IndexBooked_QueriesBookings() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        when(doctorRepository.existsById(doctorId)).thenReturn(true);
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(occupancyIndex.covers(nextMonday)).thenReturn(true);
+        when(occupancyIndex.isOccupied(eq(doctorId), eq(nextMonday), any(), any()))
+                .thenAnswer(inv -> LocalTime.of(10, 0).equals(inv.getArgument(2)));
+        // Cancelled on another instance: the index has not caught up yet
+        when(bookingRepository.findActiveBookingsByDoctorAndDate(doctorId, nextMonday)).thenReturn(List.of());
+
+        // Act
+        List<AvailableSlotDto> slots = bookingService.getAvailableSlots(doctorId, nextMonday);
+
+        // Assert
+        assertThat(slots).hasSize(6).allMatch(AvailableSlotDto::isAvailable);
+    }
+
+    @Test
+    @DisplayName("getAvailableSlotsETag - Changes on booking changes and holds without querying the database")
+    void getAvailableSlotsETag_ChangesWithBookingsAndHolds() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        String initial = bookingService.getAvailableSlotsETag(doctorId, nextMonday);
+
+        // Act
+        String unchanged = bookingService.getAvailableSlotsETag(doctorId, nextMonday);
+        slotHolds.hold(doctorId, nextMonday, LocalTime.of(9, 0), LocalTime.of(9, 30), userId);
+        String held = bookingService.getAvailableSlotsETag(doctorId, nextMonday);
+        availabilityCache.onBookingChanged(new BookingChangedEvent(doctorId, nextMonday,
+                LocalTime.of(9, 0), LocalTime.of(9, 30), BookingChangedEvent.Change.BOOKED));
+        String booked = bookingService.getAvailableSlotsETag(doctorId, nextMonday);
+
+        // Assert
+        assertThat(unchanged).isEqualTo(initial);
+        assertThat(held).isNotEqualTo(initial);
+        assertThat(booked).isNotIn(initial, held);
+        verifyNoInteractions(bookingRepository, scheduleRepository, doctorRepository);
+    }
+
+    @Test
+    @DisplayName("getAvailableSlots - Serves repeated reads from the cache until the day changes")
+    void getAvailableSlots_CachedUntilBookingChanged() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        when(doctorRepository.existsById(doctorId)).thenReturn(true);
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDate(doctorId, nextMonday))
+                .thenReturn(List.of(), List.of(booking));
+
+        // Act
+        var first = bookingService.getAvailableSlots(doctorId, nextMonday);
+        var cached = bookingService.getAvailableSlots(doctorId, nextMonday);
+        availabilityCache.onBookingChanged(new BookingChangedEvent(doctorId, nextMonday,
+                LocalTime.of(9, 0), LocalTime.of(9, 30), BookingChangedEvent.Change.BOOKED));
+        var reloaded = bookingService.getAvailableSlots(doctorId, nextMonday);
+
+        // Assert
+        assertThat(first).allSatisfy(slot -> assertThat(slot.isAvailable()).isTrue());
+        assertThat(cached).isEqualTo(first);
+        assertThat(reloaded).filteredOn(slot -> !slot.isAvailable())
+                .extracting(AvailableSlotDto::getStartTime)
+                .containsExactly(LocalTime.of(9, 0));
+        verify(bookingRepository, times(2)).findActiveBookingsByDoctorAndDate(doctorId, nextMonday);
+    }
+
+    @Test
+    @DisplayName("getAvailableSlots - Reports held slots as unavailable")
+    void getAvailableSlots_HeldSlot_Unavailable() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        slotHolds.hold(doctorId, nextMonday, LocalTime.of(10, 0), LocalTime.of(10, 30), UUID.randomUUID());
+        when(doctorRepository.existsById(doctorId)).thenReturn(true);
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findActiveBookingsByDoctorAndDate(doctorId, nextMonday)).thenReturn(List.of());
+
+        // Act
+        var slots = bookingService.getAvailableSlots(doctorId, nextMonday);
+
+        // Assert
+        assertThat(slots).filteredOn(slot -> slot.getStartTime().equals(LocalTime.of(10, 0)))
+                .singleElement()
+                .satisfies(slot -> assertThat(slot.isAvailable()).isFalse());
+        assertThat(slots).filteredOn(slot -> slot.getStartTime().equals(LocalTime.of(10, 30)))
+                .singleElement()
+                .satisfies(slot -> assertThat(slot.isAvailable()).isTrue());
+    }
+
+    @Test
+    @DisplayName("createBooking - Rejects a slot held by another user")
+    void createBooking_HeldByOther_ThrowsConflict() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        slotHolds.hold(doctorId, nextMonday, LocalTime.of(9, 0), LocalTime.of(9, 30), UUID.randomUUID());
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.createBooking(request, userId))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessageContaining("held by another patient");
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("holdSlot - Holds a free slot and the holder's booking consumes the hold")
+    void holdSlot_ThenBook_ConsumesHold() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findOverlappingBookings(any(), any(), any(), any())).thenReturn(List.of());
+        when(bookingRepository.findOverlappingBookingWithLock(any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Act
+        SlotHoldResponse hold = bookingService.holdSlot(request, userId);
+        bookingService.createBooking(request, userId);
+
+        // Assert
+        assertThat(hold.getSlotEndTime()).isEqualTo(LocalTime.of(9, 30));
+        assertThat(hold.getExpiresAt()).isAfter(OffsetDateTime.now());
+        assertThat(slotHolds.isHeld(doctorId, nextMonday, LocalTime.of(9, 0))).isFalse();
+    }
+
+    @Test
+    @DisplayName("createBooking - Stores the Idempotency-Key with the new booking")
+    void createBooking_WithIdempotencyKey_StoresKey() {
+        // Arrange
+        LocalDate nextMonday = getNextMonday();
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(nextMonday);
+        request.setSlotStartTime(LocalTime.of(9, 0));
+
+        when(idempotencyKeyRepository.findBookingId(userId, "key-1")).thenReturn(Optional.empty());
+        when(doctorRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(patientRepository.findByUserId(userId)).thenReturn(Optional.of(patient));
+        when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+        when(bookingRepository.findOverlappingBookingWithLock(any(), any(), any(), any()))
+                .thenReturn(Optional.empty());
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(inv -> {
+            Booking b = inv.getArgument(0);
+            b.setId(bookingId);
+            return b;
+        });
+
+        // Act
+        BookingResponse response = bookingService.createBooking(request, userId, "key-1");
+
+        // Assert
+        assertThat(response.getId()).isEqualTo(bookingId);
+        verify(idempotencyKeyRepository).save(argThat(key -> key.getUserId().equals(userId)
+                && key.getIdempotencyKey().equals("key-1")
+                && key.getBookingId().equals(bookingId)));
+        assertThat(idempotencyKeyCache.get(userId, "key-1")).isEqualTo(bookingId);
+    }
+
+    @Test
+    @DisplayName("createBooking - Retry with a cached Idempotency-Key returns the stored booking without locking")
+    void createBooking_IdempotencyKeyCached_ReplaysWithoutLock() {
+        // Arrange
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(booking.getBookingDate());
+        request.setSlotStartTime(booking.getSlotStartTime());
+
+        idempotencyKeyCache.put(userId, "key-1", bookingId);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+
+        // Act
+        BookingResponse response = bookingService.createBooking(request, userId, "key-1");
+
+        // Assert
+        assertThat(response.getId()).isEqualTo(bookingId);
+        verify(bookingRepository, never()).findOverlappingBookingWithLock(any(), any(), any(), any());
+        verify(bookingRepository, never()).save(any());
+        verifyNoInteractions(slotLockManager, idempotencyKeyRepository);
+        assertThat(meterRegistry.get("booking.idempotency.replays").tag("source", "cache").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "booking.idempotency").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("createBooking - Retry after a cache miss is answered from the durable key table")
+    void createBooking_IdempotencyKeyInDatabase_Replays() {
+        // Arrange
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(booking.getBookingDate());
+        request.setSlotStartTime(booking.getSlotStartTime());
+
+        when(idempotencyKeyRepository.findBookingId(userId, "key-1")).thenReturn(Optional.of(bookingId));
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+
+        // Act
+        BookingResponse response = bookingService.createBooking(request, userId, "key-1");
+
+        // Assert
+        assertThat(response.getId()).isEqualTo(bookingId);
+        verify(bookingRepository, never()).save(any());
+        assertThat(idempotencyKeyCache.get(userId, "key-1")).isEqualTo(bookingId);
+        assertThat(meterRegistry.get("booking.idempotency.replays").tag("source", "database").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("createBooking - Rejects an Idempotency-Key reused for a different slot")
+    void createBooking_IdempotencyKeyReused_ThrowsMismatch() {
+        // Arrange
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(booking.getBookingDate());
+        request.setSlotStartTime(LocalTime.of(11, 0));
+
+        idempotencyKeyCache.put(userId, "key-1", bookingId);
+        when(bookingRepository.findById(bookingId)).thenReturn(Optional.of(booking));
+
+        // Act & Assert
+        assertThatThrownBy(() -> bookingService.createBooking(request, userId, "key-1"))
+                .isInstanceOf(IdempotencyKeyMismatchException.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CreateBookingRequest batchItem(LocalDate date, int hour) {
+        CreateBookingRequest request = new CreateBookingRequest();
+        request.setDoctorId(doctorId);
+        request.setBookingDate(date);
+        request.setSlotStartTime(LocalTime.of(hour, 0));
+        return request;
+    }
+
+    private void runMailboxWith(DoctorOccupancy occupancy) {
+        when(bookingMailboxes.execute(eq(doctorId), any())).thenAnswer(inv ->
+                inv.<Function<DoctorOccupancy, Object>>getArgument(1).apply(occupancy));
     }
 
     private LocalDate getNextMonday() {
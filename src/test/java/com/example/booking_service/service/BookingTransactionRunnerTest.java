@@ -0,0 +1,164 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.exception.BookingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class BookingTransactionRunnerTest {
+
+    private BookingProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private BookingTransactionRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BookingProperties();
+        properties.setSerializableBackoffBase(Duration.ofMillis(1));
+        properties.setSerializableBackoffMax(Duration.ofMillis(2));
+        meterRegistry = new SimpleMeterRegistry();
+        runner = new BookingTransactionRunner(mock(PlatformTransactionManager.class), properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("runSerializable - Retries serialization failures until success")
+    void runSerializable_RetriesSerializationFailure() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act
+        String result = runner.runSerializable(3, () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw serializationFailure();
+            }
+            return "booked";
+        });
+
+        // Assert
+        assertThat(result).isEqualTo("booked");
+        assertThat(calls).hasValue(3);
+        assertThat(runner.getSerializationRetries()).isEqualTo(2);
+        assertThat(meterRegistry.counter("booking.serializable.retries").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("booking.serializable.outcomes", "outcome", "committed").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("runSerializable - Wraps each attempt on its own, leaving the backoff outside")
+    void runSerializable_AroundAttempt_WrapsEachAttempt() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger wrapped = new AtomicInteger();
+        AtomicBoolean inside = new AtomicBoolean();
+        Function<Supplier<String>, String> aroundAttempt = attempt -> {
+            wrapped.incrementAndGet();
+            inside.set(true);
+            try {
+                return attempt.get();
+            } finally {
+                inside.set(false);
+            }
+        };
+
+        // Act
+        String result = runner.runSerializable(3, aroundAttempt, () -> {
+            assertThat(inside).isTrue();
+            if (calls.incrementAndGet() < 2) {
+                throw serializationFailure();
+            }
+            return "booked";
+        });
+
+        // Assert
+        assertThat(result).isEqualTo("booked");
+        assertThat(wrapped).hasValue(2);
+        assertThat(inside).isFalse();
+    }
+
+    @Test
+    @DisplayName("runSerializable - Gives up after max attempts with a retryable busy error")
+    void runSerializable_ExhaustsAttempts_Rethrows() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertThatThrownBy(() -> runner.runSerializable(2, () -> {
+            calls.incrementAndGet();
+            throw serializationFailure();
+        })).isInstanceOf(BookingBusyException.class)
+                .hasCauseInstanceOf(CannotAcquireLockException.class);
+        assertThat(calls).hasValue(2);
+        assertThat(meterRegistry.counter("booking.serializable.outcomes", "outcome", "attempts_exhausted").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("runSerializable - Stops retrying once the retry budget is spent")
+    void runSerializable_BudgetSpent_FailsWithoutRetry() {
+        // Arrange
+        properties.setSerializableRetryBudgetMax(1);
+        properties.setSerializableRetryBudgetRatio(0);
+        runner = new BookingTransactionRunner(mock(PlatformTransactionManager.class), properties, meterRegistry);
+        AtomicInteger calls = new AtomicInteger();
+        Supplier<String> alwaysFails = () -> {
+            calls.incrementAndGet();
+            throw serializationFailure();
+        };
+
+        // Act
+        assertThatThrownBy(() -> runner.runSerializable(5, alwaysFails)).isInstanceOf(BookingBusyException.class);
+
+        // Assert
+        assertThat(calls).hasValue(2);
+        assertThat(runner.getSerializationRetries()).isEqualTo(1);
+        assertThat(meterRegistry.counter("booking.serializable.outcomes", "outcome", "budget_exhausted").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("runSerializable - Does not retry other failures")
+    void runSerializable_OtherFailure_NotRetried() {
+        // Arrange
+        AtomicInteger calls = new AtomicInteger();
+
+        // Act & Assert
+        assertThatThrownBy(() -> runner.runSerializable(3, () -> {
+            calls.incrementAndGet();
+            throw new DataIntegrityViolationException("uk_bookings_no_double");
+        })).isInstanceOf(DataIntegrityViolationException.class);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("isLockTimeout - Recognizes lock_timeout but not serialization failures")
+    void isLockTimeout_MatchesSqlState55P03() {
+        // Arrange
+        CannotAcquireLockException lockTimeout = new CannotAcquireLockException("lock timeout",
+                new SQLException("canceling statement due to lock timeout", "55P03"));
+
+        // Act & Assert
+        assertThat(BookingTransactionRunner.isLockTimeout(lockTimeout)).isTrue();
+        assertThat(BookingTransactionRunner.isLockTimeout(serializationFailure())).isFalse();
+        assertThat(BookingTransactionRunner.isSerializationFailure(lockTimeout)).isFalse();
+    }
+
+    private static CannotAcquireLockException serializationFailure() {
+        return new CannotAcquireLockException("could not serialize access",
+                new SQLException("could not serialize access due to read/write dependencies", "40001"));
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.entity.Booking;
+import com.example.booking_service.entity.DayOfWeek;
+import com.example.booking_service.entity.DoctorDayAvailability;
+import com.example.booking_service.entity.DoctorSchedule;
+import com.example.booking_service.repository.BookingRepository;
+import com.example.booking_service.repository.DoctorDayAvailabilityRepository;
+import com.example.booking_service.repository.DoctorRepository;
+import com.example.booking_service.repository.DoctorScheduleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DayAvailabilityReadModelTest {
+
+    private static final String LAYOUT = "540/30/6";
+
+    @Mock
+    private DoctorDayAvailabilityRepository availabilityRepository;
+    @Mock
+    private DoctorRepository doctorRepository;
+    @Mock
+    private DoctorScheduleRepository scheduleRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingTransactionRunner transactionRunner;
+
+    private BookingProperties properties;
+    private DayAvailabilityReadModel readModel;
+    private UUID doctorId;
+    private LocalDate date;
+    private DoctorSchedule schedule;
+
+    @BeforeEach
+    void setUp() {
+        properties = new BookingProperties();
+        properties.setDayAvailabilityEnabled(true);
+        readModel = new DayAvailabilityReadModel(properties, availabilityRepository, doctorRepository,
+                scheduleRepository, bookingRepository, transactionRunner, new SlotGridCache());
+        doctorId = UUID.randomUUID();
+        date = LocalDate.now().plusDays(7);
+        schedule = DoctorSchedule.builder()
+                .id(UUID.randomUUID())
+                .dayOfWeek(DayOfWeek.valueOf(date.getDayOfWeek().name()))
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(12, 0))
+                .slotDurationMinutes(30)
+                .isActive(true)
+                .build();
+        lenient().when(scheduleRepository.findByDoctorIdAndDayOfWeekAndIsActiveTrue(eq(doctorId), any()))
+                .thenReturn(List.of(schedule));
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - Flips the slot's bit in a row built for the same schedules")
+    void onBookingChanged_RowMatches_MarksSlot() {
+        // Arrange
+        when(availabilityRepository.markSlot(doctorId, date, LAYOUT, 2, 0)).thenReturn(1);
+
+        // Act
+        readModel.onBookingChanged(new BookingChangedEvent(doctorId, date,
+                LocalTime.of(10, 0), LocalTime.of(10, 30), BookingChangedEvent.Change.BOOKED));
+
+        // Assert
+        verify(availabilityRepository).markSlot(doctorId, date, LAYOUT, 2, 0);
+        verify(availabilityRepository, never()).insertIfAbsent(any(), any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - Uses the schedules the write already loaded")
+    void onBookingChanged_SchedulesOnEvent_NoScheduleQuery() {
+        // Arrange
+        when(availabilityRepository.markSlot(doctorId, date, LAYOUT, 2, 0)).thenReturn(1);
+
+        // Act
+        readModel.onBookingChanged(new BookingChangedEvent(doctorId, date, LocalTime.of(10, 0),
+                LocalTime.of(10, 30), BookingChangedEvent.Change.BOOKED, List.of(schedule)));
+
+        // Assert
+        verify(availabilityRepository).markSlot(doctorId, date, LAYOUT, 2, 0);
+        verifyNoInteractions(scheduleRepository);
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - Rebuilds a missing row from the day's bookings, then marks the slot")
+    void onBookingChanged_RowMissing_InsertsThenMarks() {
+        // Arrange
+        Booking existing = Booking.builder()
+                .bookingDate(date)
+                .slotStartTime(LocalTime.of(9, 30))
+                .slotEndTime(LocalTime.of(10, 0))
+                .build();
+        when(availabilityRepository.markSlot(doctorId, date, LAYOUT, 0, 1)).thenReturn(0, 1);
+        when(bookingRepository.findActiveBookingsByDoctorAndDate(doctorId, date)).thenReturn(List.of(existing));
+        ArgumentCaptor<byte[]> mask = ArgumentCaptor.forClass(byte[].class);
+
+        // Act
+        readModel.onBookingChanged(BookingChangedEvent.released(doctorId, date,
+                LocalTime.of(9, 0), LocalTime.of(9, 30)));
+
+        // Assert
+        verify(availabilityRepository).deleteStale(doctorId, date, LAYOUT);
+        verify(availabilityRepository).insertIfAbsent(eq(doctorId), eq(date), eq(LAYOUT), mask.capture(), eq(6), eq(5));
+        // 09:30 booked: bits 0 and 2-5 free
+        assertThat(mask.getValue()).containsExactly(0b111101);
+        verify(availabilityRepository, times(2)).markSlot(doctorId, date, LAYOUT, 0, 1);
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - Does nothing while the read model is disabled")
+    void onBookingChanged_Disabled_NoWrites() {
+        // Arrange
+        properties.setDayAvailabilityEnabled(false);
+
+        // Act
+        readModel.onBookingChanged(BookingChangedEvent.released(doctorId, date,
+                LocalTime.of(9, 0), LocalTime.of(9, 30)));
+
+        // Assert
+        verifyNoInteractions(availabilityRepository, scheduleRepository);
+    }
+
+    @Test
+    @DisplayName("decode - Expands every grid of the layout and reads free slots from the mask")
+    void decode_LayoutAndMask() {
+        // Arrange
+        DoctorDayAvailability row = DoctorDayAvailability.builder()
+                .layout("540/30/2;840/60/2")
+                .freeMask(new byte[]{0b1010})
+                .slotCount(4)
+                .freeCount(2)
+                .build();
+
+        // Act
+        List<AvailabilityCache.DaySlot> slots = DayAvailabilityReadModel.decode(row);
+
+        // Assert
+        assertThat(slots).containsExactly(
+                new AvailabilityCache.DaySlot(LocalTime.of(9, 0), LocalTime.of(9, 30), false),
+                new AvailabilityCache.DaySlot(LocalTime.of(9, 30), LocalTime.of(10, 0), true),
+                new AvailabilityCache.DaySlot(LocalTime.of(14, 0), LocalTime.of(15, 0), false),
+                new AvailabilityCache.DaySlot(LocalTime.of(15, 0), LocalTime.of(16, 0), true));
+    }
+}
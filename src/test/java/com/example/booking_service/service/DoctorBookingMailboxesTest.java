@@ -0,0 +1,218 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.exception.BookingBusyException;
+import com.example.booking_service.exception.ResourceNotFoundException;
+import com.example.booking_service.repository.BookingRepository;
+import com.example.booking_service.repository.DoctorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DoctorBookingMailboxesTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DoctorRepository doctorRepository;
+    private DoctorBookingMailboxes mailboxes;
+    private UUID doctorId;
+
+    @BeforeEach
+    void setUp() {
+        BookingProperties properties = new BookingProperties();
+        properties.setSingleWriterThreads(4);
+        properties.setSingleWriterQueueCapacity(2);
+        properties.setSingleWriterTimeout(Duration.ofMillis(200));
+        properties.setSingleWriterOccupancyTtl(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        doctorRepository = mock(DoctorRepository.class);
+        when(doctorRepository.existsById(any())).thenReturn(true);
+        mailboxes = new DoctorBookingMailboxes(properties, mock(BookingRepository.class), doctorRepository,
+                meterRegistry);
+        doctorId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailboxes.shutdown();
+    }
+
+    @Test
+    @DisplayName("execute - Runs writes for the same doctor one at a time")
+    void execute_SameDoctor_RunsSerially() throws Exception {
+        // Arrange
+        AtomicInteger running = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        // Act
+        try {
+            for (int i = 0; i < 2; i++) {
+                final int value = i;
+                results.add(callers.submit(() -> mailboxes.execute(doctorId, occupancy -> {
+                    if (running.incrementAndGet() > 1) {
+                        overlapped.set(true);
+                    }
+                    sleep(20);
+                    running.decrementAndGet();
+                    return value;
+                })));
+            }
+
+            // Assert
+            assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo(0);
+            assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo(1);
+            assertThat(overlapped).isFalse();
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("execute - Propagates the write's exception to the caller")
+    void execute_TaskThrows_Propagates() {
+        // Act & Assert
+        assertThatThrownBy(() -> mailboxes.execute(doctorId, occupancy -> {
+            throw new IllegalArgumentException("rejected");
+        })).isInstanceOf(IllegalArgumentException.class).hasMessage("rejected");
+    }
+
+    @Test
+    @DisplayName("execute - Withdraws a write that waited longer than the timeout")
+    void execute_QueuedTooLong_ThrowsBusy() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ranLate = new AtomicBoolean();
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> blocker = caller.submit(() -> mailboxes.execute(doctorId, occupancy -> {
+                started.countDown();
+                await(release);
+                return null;
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Act & Assert
+            assertThatThrownBy(() -> mailboxes.execute(doctorId, occupancy -> {
+                ranLate.set(true);
+                return null;
+            })).isInstanceOf(BookingBusyException.class);
+
+            release.countDown();
+            blocker.get(5, TimeUnit.SECONDS);
+            // A later write runs after the withdrawn one would have
+            String next = mailboxes.execute(doctorId, occupancy -> "next");
+            assertThat(next).isEqualTo("next");
+            assertThat(ranLate).isFalse();
+            assertThat(meterRegistry.get("booking.mailbox.rejected").counter().count()).isEqualTo(1);
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("execute - Does not hold up other doctors while one doctor is busy")
+    void execute_OtherDoctor_NotBlocked() throws Exception {
+        // Arrange
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            caller.submit(() -> mailboxes.execute(doctorId, occupancy -> {
+                started.countDown();
+                await(release);
+                return null;
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // Act
+            String result = mailboxes.execute(UUID.randomUUID(), occupancy -> "other");
+
+            // Assert
+            assertThat(result).isEqualTo("other");
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("execute - Rejects an unknown doctor without creating a mailbox")
+    void execute_UnknownDoctor_ThrowsNotFound() {
+        // Arrange
+        UUID unknownDoctorId = UUID.randomUUID();
+        when(doctorRepository.existsById(unknownDoctorId)).thenReturn(false);
+
+        // Act & Assert
+        assertThatThrownBy(() -> mailboxes.execute(unknownDoctorId, occupancy -> "booked"))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(mailboxes.mailboxCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("evictIdle - Drops idle mailboxes and keeps busy ones")
+    void evictIdle_DropsOnlyIdleMailboxes() throws Exception {
+        // Arrange
+        mailboxes.execute(doctorId, occupancy -> null);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> busy = caller.submit(() -> mailboxes.execute(UUID.randomUUID(), occupancy -> {
+                started.countDown();
+                await(release);
+                return null;
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+            sleep(5);
+
+            // Act
+            mailboxes.evictIdle();
+
+            // Assert
+            assertThat(mailboxes.mailboxCount()).isEqualTo(1);
+            release.countDown();
+            busy.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.dto.NextAvailableSlotDto;
+import com.example.booking_service.entity.Booking;
+import com.example.booking_service.entity.DayOfWeek;
+import com.example.booking_service.entity.Doctor;
+import com.example.booking_service.entity.DoctorSchedule;
+import com.example.booking_service.exception.ResourceNotFoundException;
+import com.example.booking_service.repository.BookingRepository;
+import com.example.booking_service.repository.DoctorRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NextAvailableIndexTest {
+
+    @Mock
+    private DoctorRepository doctorRepository;
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingTransactionRunner transactionRunner;
+
+    private SlotHoldRegistry slotHolds;
+    private NextAvailableIndex index;
+    private Doctor doctor;
+    private LocalDate tomorrow;
+
+    @BeforeEach
+    void setUp() {
+        slotHolds = new SlotHoldRegistry(new BookingProperties(), new SimpleMeterRegistry());
+        index = new NextAvailableIndex(doctorRepository, bookingRepository, transactionRunner, new SlotGridCache(),
+                slotHolds, new BookingProperties(), new SimpleMeterRegistry());
+        tomorrow = LocalDate.now().plusDays(1);
+        doctor = Doctor.builder()
+                .id(UUID.randomUUID())
+                .name("Dr. Next")
+                .isActive(true)
+                .schedules(new ArrayList<>())
+                .build();
+        // Only tomorrow's weekday has a schedule: 09:00-10:00 in 30-minute slots
+        doctor.getSchedules().add(DoctorSchedule.builder()
+                .id(UUID.randomUUID())
+                .doctor(doctor)
+                .dayOfWeek(DayOfWeek.valueOf(tomorrow.getDayOfWeek().name()))
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(10, 0))
+                .slotDurationMinutes(30)
+                .isActive(true)
+                .build());
+        lenient().when(transactionRunner.runReadOnly(any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
+    }
+
+    @Test
+    @DisplayName("findNextAvailable - Skips booked and held slots")
+    void findNextAvailable_SkipsBookedAndHeld() {
+        // Arrange
+        Booking booked = Booking.builder()
+                .doctor(doctor)
+                .bookingDate(tomorrow)
+                .slotStartTime(LocalTime.of(9, 0))
+                .slotEndTime(LocalTime.of(9, 30))
+                .build();
+        when(doctorRepository.findWithSchedulesByIdIn(anyCollection())).thenReturn(List.of(doctor));
+        when(bookingRepository.findActiveBookingsByDoctorsAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of(booked));
+
+        // Act
+        NextAvailableSlotDto first = index.findNextAvailable(doctor.getId(), null);
+        slotHolds.hold(doctor.getId(), tomorrow, LocalTime.of(9, 30), LocalTime.of(10, 0), UUID.randomUUID());
+        NextAvailableSlotDto whileHeld = index.findNextAvailable(doctor.getId(), null);
+
+        // Assert
+        assertThat(first.getDate()).isEqualTo(tomorrow);
+        assertThat(first.getStartTime()).isEqualTo(LocalTime.of(9, 30));
+        assertThat(first.getEndTime()).isEqualTo(LocalTime.of(10, 0));
+        // Next free slot is a week later
+        assertThat(whileHeld.getDate()).isEqualTo(tomorrow.plusWeeks(1));
+        assertThat(whileHeld.getStartTime()).isEqualTo(LocalTime.of(9, 0));
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - Patches the index without reloading it")
+    void onBookingChanged_PatchesIndex() {
+        // Arrange
+        when(doctorRepository.findWithSchedulesByIdIn(anyCollection())).thenReturn(List.of(doctor));
+        when(bookingRepository.findActiveBookingsByDoctorsAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+        index.findNextAvailable(doctor.getId(), null);
+
+        // Act
+        index.onBookingChanged(new BookingChangedEvent(doctor.getId(), tomorrow,
+                LocalTime.of(9, 0), LocalTime.of(9, 30), BookingChangedEvent.Change.BOOKED));
+        NextAvailableSlotDto afterBooking = index.findNextAvailable(doctor.getId(), null);
+        index.onBookingChanged(BookingChangedEvent.released(doctor.getId(), tomorrow,
+                LocalTime.of(9, 0), LocalTime.of(9, 30)));
+        NextAvailableSlotDto afterCancel = index.findNextAvailable(doctor.getId(), null);
+
+        // Assert
+        assertThat(afterBooking.getStartTime()).isEqualTo(LocalTime.of(9, 30));
+        assertThat(afterCancel.getStartTime()).isEqualTo(LocalTime.of(9, 0));
+        verify(doctorRepository, times(1)).findWithSchedulesByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - A release frees every slot the booking took")
+    void onBookingChanged_ReleaseFreesWholeBooking() {
+        // Arrange
+        when(doctorRepository.findWithSchedulesByIdIn(anyCollection())).thenReturn(List.of(doctor));
+        when(bookingRepository.findActiveBookingsByDoctorsAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+        LocalDateTime afterNine = tomorrow.atTime(9, 15);
+        index.findNextAvailable(doctor.getId(), afterNine);
+
+        // Act
+        index.onBookingChanged(new BookingChangedEvent(doctor.getId(), tomorrow,
+                LocalTime.of(9, 0), LocalTime.of(10, 0), BookingChangedEvent.Change.BOOKED));
+        NextAvailableSlotDto afterBooking = index.findNextAvailable(doctor.getId(), afterNine);
+        index.onBookingChanged(BookingChangedEvent.released(doctor.getId(), tomorrow,
+                LocalTime.of(9, 0), LocalTime.of(10, 0)));
+        NextAvailableSlotDto afterCancel = index.findNextAvailable(doctor.getId(), afterNine);
+
+        // Assert
+        assertThat(afterBooking.getDate()).isEqualTo(tomorrow.plusWeeks(1));
+        assertThat(afterCancel.getDate()).isEqualTo(tomorrow);
+        assertThat(afterCancel.getStartTime()).isEqualTo(LocalTime.of(9, 30));
+    }
+
+    @Test
+    @DisplayName("findNextAvailable - Loads several doctors with one query each and leaves out unknown ones")
+    void findNextAvailable_Bulk() {
+        // Arrange
+        UUID unknown = UUID.randomUUID();
+        when(doctorRepository.findWithSchedulesByIdIn(anyCollection())).thenReturn(List.of(doctor));
+        when(bookingRepository.findActiveBookingsByDoctorsAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of());
+
+        // Act
+        Map<UUID, NextAvailableSlotDto> next = index.findNextAvailable(List.of(doctor.getId(), unknown),
+                tomorrow.atTime(9, 15));
+
+        // Assert
+        assertThat(next).containsOnlyKeys(doctor.getId());
+        assertThat(next.get(doctor.getId()).getStartTime()).isEqualTo(LocalTime.of(9, 30));
+        assertThatThrownBy(() -> index.findNextAvailable(unknown, null))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("findNextAvailable - Caches a bulk load that raced only with changes of other doctors")
+    void findNextAvailable_BulkRacingOtherDoctor_Cached() {
+        // Arrange
+        when(doctorRepository.findWithSchedulesByIdIn(anyCollection())).thenReturn(List.of(doctor));
+        // Differs in the lowest hash bit, so it never shares the doctor's change stripe
+        UUID otherDoctor = new UUID(doctor.getId().getMostSignificantBits(),
+                doctor.getId().getLeastSignificantBits() ^ 1);
+        when(bookingRepository.findActiveBookingsByDoctorsAndDateRange(anyCollection(), any(), any()))
+                .thenAnswer(inv -> {
+                    index.onBookingChanged(new BookingChangedEvent(otherDoctor, tomorrow,
+                            LocalTime.of(9, 0), LocalTime.of(9, 30), BookingChangedEvent.Change.BOOKED));
+                    return List.of();
+                });
+
+        // Act
+        index.findNextAvailable(List.of(doctor.getId()), null);
+        index.findNextAvailable(List.of(doctor.getId()), null);
+
+        // Assert
+        verify(doctorRepository, times(1)).findWithSchedulesByIdIn(anyCollection());
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+    @Mock
+    private BookingTransactionRunner transactionRunner;
+
+    private LocalDate today;
+    private UUID doctorId;
+    private OccupancyIndex index;
+
+    @BeforeEach
+    void setUp() {
+        today = LocalDate.of(2026, 3, 2);
+        doctorId = UUID.randomUUID();
+        index = new OccupancyIndex(bookingRepository, transactionRunner, true, () -> today);
+        lenient().when(transactionRunner.runReadOnly(any())).thenAnswer(inv -> ((Supplier<?>) inv.getArgument(0)).get());
+    }
+
+    @Test
+    @DisplayName("rebuild - Loads active bookings of the horizon into the bitmap")
+    void rebuild_MarksBookedSlots() {
+        // Arrange
+        LocalDate date = today.plusDays(3);
+        when(bookingRepository.findActiveSlotsBetween(today, today.plusDays(90))).thenReturn(rows(
+                new Object[]{doctorId, date, LocalTime.of(9, 0), LocalTime.of(9, 30)}));
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertThat(index.covers(today)).isTrue();
+        assertThat(index.covers(today.plusDays(90))).isTrue();
+        assertThat(index.covers(today.plusDays(91))).isFalse();
+        assertThat(index.isOccupied(doctorId, date, LocalTime.of(9, 0), LocalTime.of(9, 1))).isTrue();
+        assertThat(index.isOccupied(doctorId, date, LocalTime.of(9, 15), LocalTime.of(9, 45))).isTrue();
+        assertThat(index.isOccupied(doctorId, date, LocalTime.of(9, 30), LocalTime.of(10, 0))).isFalse();
+        assertThat(index.isOccupied(doctorId, date.plusDays(1), LocalTime.of(9, 0), LocalTime.of(9, 30))).isFalse();
+        assertThat(index.isOccupied(UUID.randomUUID(), date, LocalTime.of(9, 0), LocalTime.of(9, 30))).isFalse();
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - Sets and clears a slot's bits")
+    void onBookingChanged_BookedThenReleased() {
+        // Arrange
+        LocalDate date = today.plusDays(1);
+        when(bookingRepository.findActiveSlotsBetween(any(), any())).thenReturn(List.of());
+        index.rebuild();
+
+        // Act
+        index.onBookingChanged(new BookingChangedEvent(doctorId, date,
+                LocalTime.of(23, 30), LocalTime.MIDNIGHT, BookingChangedEvent.Change.BOOKED));
+        boolean booked = index.isOccupied(doctorId, date, LocalTime.of(23, 30), LocalTime.of(23, 31));
+        index.onBookingChanged(BookingChangedEvent.released(doctorId, date, LocalTime.of(23, 30), LocalTime.MIDNIGHT));
+
+        // Assert
+        assertThat(booked).isTrue();
+        assertThat(index.isOccupied(doctorId, date, LocalTime.of(23, 30), LocalTime.of(23, 31))).isFalse();
+        assertThat(index.isOccupied(doctorId, date.plusDays(1), LocalTime.MIDNIGHT, LocalTime.of(0, 1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("onBookingChanged - A cancel keeps the unit it shares with a neighbouring booking")
+    void onBookingChanged_ReleaseKeepsSharedUnit() {
+        // Arrange
+        LocalDate date = today.plusDays(1);
+        when(bookingRepository.findActiveSlotsBetween(any(), any())).thenReturn(rows(
+                new Object[]{doctorId, date, LocalTime.of(9, 0), LocalTime.of(9, 12)},
+                new Object[]{doctorId, date, LocalTime.of(9, 12), LocalTime.of(9, 24)}));
+        index.rebuild();
+
+        // Act
+        index.onBookingChanged(BookingChangedEvent.released(doctorId, date, LocalTime.of(9, 0), LocalTime.of(9, 12)));
+
+        // Assert
+        assertThat(index.isOccupied(doctorId, date, LocalTime.of(9, 0), LocalTime.of(9, 10))).isFalse();
+        assertThat(index.isOccupied(doctorId, date, LocalTime.of(9, 12), LocalTime.of(9, 13))).isTrue();
+    }
+
+    @Test
+    @DisplayName("rebuild - Replays changes committed while the database was read")
+    void rebuild_ReplaysChangesDuringLoad() {
+        // Arrange
+        LocalDate date = today.plusDays(2);
+        when(bookingRepository.findActiveSlotsBetween(any(), any())).thenAnswer(inv -> {
+            index.onBookingChanged(new BookingChangedEvent(doctorId, date,
+                    LocalTime.of(10, 0), LocalTime.of(10, 30), BookingChangedEvent.Change.BOOKED));
+            return List.of();
+        });
+
+        // Act
+        index.rebuild();
+
+        // Assert
+        assertThat(index.isOccupied(doctorId, date, LocalTime.of(10, 0), LocalTime.of(10, 1))).isTrue();
+    }
+
+    @Test
+    @DisplayName("covers - Nothing is covered before the first rebuild or when disabled")
+    void covers_NotBuilt_False() {
+        // Arrange
+        OccupancyIndex disabled = new OccupancyIndex(bookingRepository, transactionRunner, false, () -> today);
+
+        // Act
+        disabled.rebuild();
+
+        // Assert
+        assertThat(index.covers(today)).isFalse();
+        assertThat(disabled.covers(today)).isFalse();
+        verifyNoInteractions(bookingRepository);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.entity.DoctorSchedule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SlotGridTest {
+
+    private final SlotGrid grid = SlotGrid.of(LocalTime.of(9, 0), LocalTime.of(12, 0), 30);
+
+    @Test
+    @DisplayName("slotIndex - Maps on-grid start times to their index and rejects the rest")
+    void slotIndex_OnAndOffGrid() {
+        assertThat(grid.slotCount()).isEqualTo(6);
+        assertThat(grid.slotIndex(LocalTime.of(9, 0))).isZero();
+        assertThat(grid.slotIndex(LocalTime.of(11, 30))).isEqualTo(5);
+        assertThat(grid.slotIndex(LocalTime.of(10, 15))).isEqualTo(-1);
+        assertThat(grid.slotIndex(LocalTime.of(12, 0))).isEqualTo(-1);
+        assertThat(grid.slotIndex(LocalTime.of(8, 30))).isEqualTo(-1);
+        assertThat(grid.slotIndex(LocalTime.of(9, 0, 30))).isEqualTo(-1);
+        assertThat(grid.startOf(5)).isEqualTo(LocalTime.of(11, 30));
+        assertThat(grid.endOf(5)).isEqualTo(LocalTime.of(12, 0));
+    }
+
+    @Test
+    @DisplayName("slotCount - A trailing partial slot is not part of the grid")
+    void slotCount_DropsPartialSlot() {
+        SlotGrid uneven = SlotGrid.of(LocalTime.of(9, 0), LocalTime.of(10, 45), 30);
+
+        assertThat(uneven.slotCount()).isEqualTo(3);
+        assertThat(uneven.covers(LocalTime.of(10, 30))).isTrue();
+        assertThat(uneven.isOnGrid(LocalTime.of(10, 30))).isFalse();
+    }
+
+    @Test
+    @DisplayName("firstSlotFrom - Skips slots that started before the given time")
+    void firstSlotFrom_RoundsUp() {
+        assertThat(grid.firstSlotFrom(LocalTime.of(7, 0))).isZero();
+        assertThat(grid.firstSlotFrom(LocalTime.of(9, 30))).isEqualTo(1);
+        assertThat(grid.firstSlotFrom(LocalTime.of(9, 30, 1))).isEqualTo(2);
+        assertThat(grid.firstSlotFrom(LocalTime.of(13, 0))).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("SlotGridCache - Rebuilds a grid only when its schedule changes")
+    void slotGridCache_RebuildsOnChange() {
+        // Arrange
+        SlotGridCache cache = new SlotGridCache();
+        DoctorSchedule schedule = DoctorSchedule.builder()
+                .id(UUID.randomUUID())
+                .startTime(LocalTime.of(9, 0))
+                .endTime(LocalTime.of(12, 0))
+                .slotDurationMinutes(30)
+                .build();
+
+        // Act
+        SlotGrid first = cache.get(schedule);
+        SlotGrid again = cache.get(schedule);
+        schedule.setSlotDurationMinutes(20);
+        SlotGrid rebuilt = cache.get(schedule);
+
+        // Assert
+        assertThat(again).isSameAs(first);
+        assertThat(rebuilt).isNotSameAs(first);
+        assertThat(rebuilt.slotCount()).isEqualTo(9);
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.exception.BookingConflictException;
+import com.example.booking_service.exception.ResourceNotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SlotHoldRegistryTest {
+
+    private AtomicLong nanos;
+    private SlotHoldRegistry registry;
+    private UUID doctorId;
+    private UUID userId;
+    private LocalDate date;
+    private LocalTime start;
+
+    @BeforeEach
+    void setUp() {
+        nanos = new AtomicLong();
+        registry = new SlotHoldRegistry(Duration.ofMinutes(5), 2, 100, nanos::get);
+        doctorId = UUID.randomUUID();
+        userId = UUID.randomUUID();
+        date = LocalDate.now().plusDays(1);
+        start = LocalTime.of(9, 0);
+    }
+
+    @Test
+    @DisplayName("hold - Rejects a slot held by another user")
+    void hold_HeldByOther_ThrowsConflict() {
+        // Arrange
+        registry.hold(doctorId, date, start, start.plusMinutes(30), userId);
+
+        // Act & Assert
+        assertThatThrownBy(() -> registry.hold(doctorId, date, start, start.plusMinutes(30), UUID.randomUUID()))
+                .isInstanceOf(BookingConflictException.class);
+        assertThatThrownBy(() -> registry.rejectIfHeldByOther(doctorId, date, start, UUID.randomUUID()))
+                .isInstanceOf(BookingConflictException.class);
+        assertThatCode(() -> registry.rejectIfHeldByOther(doctorId, date, start, userId))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("hold - Holding again keeps the hold id and restarts the TTL")
+    void hold_SameUser_Refreshes() {
+        // Arrange
+        SlotHoldRegistry.SlotHold first = registry.hold(doctorId, date, start, start.plusMinutes(30), userId);
+        nanos.addAndGet(Duration.ofMinutes(4).toNanos());
+
+        // Act
+        SlotHoldRegistry.SlotHold second = registry.hold(doctorId, date, start, start.plusMinutes(30), userId);
+        nanos.addAndGet(Duration.ofMinutes(4).toNanos());
+
+        // Assert
+        assertThat(second.id()).isEqualTo(first.id());
+        assertThat(registry.isHeld(doctorId, date, start)).isTrue();
+    }
+
+    @Test
+    @DisplayName("isHeld - Expired holds are gone and the slot can be held by someone else")
+    void isHeld_AfterTtl_SlotFree() {
+        // Arrange
+        registry.hold(doctorId, date, start, start.plusMinutes(30), userId);
+
+        // Act
+        nanos.addAndGet(Duration.ofMinutes(5).plusSeconds(1).toNanos());
+
+        // Assert
+        assertThat(registry.isHeld(doctorId, date, start)).isFalse();
+        assertThatCode(() -> registry.hold(doctorId, date, start, start.plusMinutes(30), UUID.randomUUID()))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("hold - Caps the slots one user holds at a time")
+    void hold_OverUserCap_ThrowsConflict() {
+        // Arrange
+        registry.hold(doctorId, date, start, start.plusMinutes(30), userId);
+        SlotHoldRegistry.SlotHold second = registry.hold(doctorId, date, start.plusMinutes(30), start.plusMinutes(60), userId);
+
+        // Act & Assert
+        assertThatThrownBy(() -> registry.hold(doctorId, date, start.plusMinutes(60), start.plusMinutes(90), userId))
+                .isInstanceOf(BookingConflictException.class)
+                .hasMessageContaining("already hold 2 slots");
+        assertThatCode(() -> registry.hold(doctorId, date, start, start.plusMinutes(30), userId))
+                .doesNotThrowAnyException();
+        registry.release(second.id(), userId);
+        assertThatCode(() -> registry.hold(doctorId, date, start.plusMinutes(60), start.plusMinutes(90), userId))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("release - Only the holder can release a hold")
+    void release_OnlyHolder() {
+        // Arrange
+        SlotHoldRegistry.SlotHold hold = registry.hold(doctorId, date, start, start.plusMinutes(30), userId);
+
+        // Act & Assert
+        assertThatThrownBy(() -> registry.release(hold.id(), UUID.randomUUID()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        registry.release(hold.id(), userId);
+        assertThat(registry.isHeld(doctorId, date, start)).isFalse();
+    }
+
+    @Test
+    @DisplayName("heldStarts - Lists only the day's live holds")
+    void heldStarts_PerDay() {
+        // Arrange
+        SlotHoldRegistry.SlotHold released = registry.hold(doctorId, date, start, start.plusMinutes(30), userId);
+        registry.hold(doctorId, date, start.plusMinutes(30), start.plusMinutes(60), userId);
+        registry.hold(doctorId, date.plusDays(1), start, start.plusMinutes(30), UUID.randomUUID());
+        registry.hold(UUID.randomUUID(), date, start, start.plusMinutes(30), UUID.randomUUID());
+
+        // Act
+        registry.release(released.id(), userId);
+
+        // Assert
+        assertThat(registry.heldStarts(doctorId, date)).containsExactly(start.plusMinutes(30));
+        nanos.addAndGet(Duration.ofMinutes(5).plusSeconds(1).toNanos());
+        assertThat(registry.heldStarts(doctorId, date)).isEmpty();
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.booking_service.service;
+
+import com.example.booking_service.config.BookingProperties;
+import com.example.booking_service.exception.BookingBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SlotLockManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private SlotLockManager slotLockManager;
+    private UUID doctorId;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        BookingProperties properties = new BookingProperties();
+        properties.setStripeWaitTimeout(Duration.ofMillis(100));
+        meterRegistry = new SimpleMeterRegistry();
+        slotLockManager = new SlotLockManager(properties, meterRegistry);
+        doctorId = UUID.randomUUID();
+        date = LocalDate.now().plusDays(1);
+    }
+
+    @Test
+    @DisplayName("withLock - Runs action and records wait time")
+    void withLock_Uncontended_RunsAction() {
+        // Act
+        String result = slotLockManager.withLock(doctorId, date, () -> "booked");
+
+        // Assert
+        assertThat(result).isEqualTo("booked");
+        assertThat(meterRegistry.get("booking.stripe.wait").tag("outcome", "acquired").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("withLock - Rejects with BookingBusyException when the stripe stays held")
+    void withLock_Contended_TimesOut() throws Exception {
+        // Arrange
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> slotLockManager.withLock(doctorId, date, () -> {
+                held.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            held.await(5, TimeUnit.SECONDS);
+
+            // Act & Assert
+            assertThatThrownBy(() -> slotLockManager.withLock(doctorId, date, () -> "late"))
+                    .isInstanceOf(BookingBusyException.class);
+            assertThat(meterRegistry.get("booking.stripe.timeouts").counter().count()).isEqualTo(1);
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("withLocks - Releases the stripes already taken when another day stays held")
+    void withLocks_OneDayHeld_ReleasesTheOthers() throws Exception {
+        // Arrange
+        LocalDate otherDate = date.plusDays(1);
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> holder = executor.submit(() -> slotLockManager.withLock(doctorId, date, () -> {
+                held.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }));
+            held.await(5, TimeUnit.SECONDS);
+
+            // Act & Assert
+            assertThatThrownBy(() -> slotLockManager.withLocks(Map.of(doctorId, Set.of(date, otherDate)),
+                    () -> "late")).isInstanceOf(BookingBusyException.class);
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+            // Taken from another thread, so a stripe leaked by this thread would time out
+            assertThat(executor.submit(() -> slotLockManager.withLock(doctorId, otherDate, () -> "free"))
+                    .get(5, TimeUnit.SECONDS)).isEqualTo("free");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("withLock - Lock is released after the action throws")
+    void withLock_ActionThrows_ReleasesStripe() {
+        // Act
+        assertThatThrownBy(() -> slotLockManager.withLock(doctorId, date, () -> {
+            throw new IllegalArgumentException("invalid");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        // Assert - the same stripe can be taken again
+        assertThat(slotLockManager.withLock(doctorId, date, () -> "again")).isEqualTo("again");
+    }
+}